@@ -0,0 +1,208 @@
+package com.studentmanagement.benchmark;
+
+import com.studentmanagement.web.ApiServer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop load test for the HTTP API: {@code concurrency} clients each send
+ * one request at a time for {@code seconds}, after a warm-up, and the run reports
+ * throughput, latency percentiles and the status codes seen.
+ *
+ * The request mix is 50% student lookups, 20% payment histories, 25% payments
+ * and 5% course lookups, against random student IDs 1..students.
+ *
+ * Without --url an API server is started in-process on the benchmark H2
+ * dataset; with --url an already running server is used, whose database must
+ * hold students 1..students and courses 1..50.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.studentmanagement.benchmark.ApiLoadTest \
+ *     [--url http://host:8080] [--students 10000] [--concurrency 64] [--seconds 20] [--warmup 5]
+ * </pre>
+ */
+public class ApiLoadTest {
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final String baseUrl;
+    private final int students;
+
+    private ApiLoadTest(String baseUrl, int students) {
+        this.baseUrl = baseUrl;
+        this.students = students;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = null;
+        int students = 10000;
+        int concurrency = 64;
+        int seconds = 20;
+        int warmup = 5;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--url":
+                    url = args[i + 1];
+                    break;
+                case "--students":
+                    students = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--concurrency":
+                    concurrency = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--seconds":
+                    seconds = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        Dataset dataset = null;
+        ApiServer server = null;
+        if (url == null) {
+            System.err.println("Loading " + students + " students...");
+            dataset = new Dataset();
+            dataset.students = students;
+            dataset.setUp();
+            server = dataset.context.getAutowireCapableBeanFactory().createBean(ApiServer.class);
+            url = "http://localhost:" + server.start(0).getPort();
+        }
+
+        try {
+            ApiLoadTest test = new ApiLoadTest(url, students);
+            System.err.println("Warming up for " + warmup + " s...");
+            test.run(concurrency, warmup);
+            System.err.println("Measuring for " + seconds + " s with " + concurrency + " clients...");
+            System.err.println(test.run(concurrency, seconds));
+        } finally {
+            if (server != null) {
+                server.stop();
+            }
+            if (dataset != null) {
+                dataset.tearDown();
+            }
+        }
+    }
+
+    private Result run(int concurrency, int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<Client> clients = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            Client client = new Client(deadline);
+            client.thread.start();
+            clients.add(client);
+        }
+
+        Result result = new Result(seconds);
+        for (Client client : clients) {
+            client.thread.join();
+            result.add(client);
+        }
+        return result;
+    }
+
+    private HttpRequest nextRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long studentId = random.nextLong(1, students + 1);
+        int pick = random.nextInt(100);
+        if (pick < 50) {
+            return get("/api/students/" + studentId);
+        }
+        if (pick < 70) {
+            return get("/api/students/" + studentId + "/payments");
+        }
+        if (pick < 95) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/students/" + studentId + "/payments"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"amount\":100,\"description\":\"load test\"}"))
+                    .build();
+        }
+        return get("/api/courses/" + random.nextLong(1, Dataset.COURSES + 1));
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    // One simulated client: a thread sending requests back to back
+    private class Client implements Runnable {
+        private final Thread thread = new Thread(this);
+        private final long deadline;
+        private final Map<Integer, Long> statuses = new TreeMap<>();
+        private long[] latencies = new long[1024];
+        private int count;
+
+        private Client(long deadline) {
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            while (System.nanoTime() < deadline) {
+                long start = System.nanoTime();
+                int status;
+                try {
+                    status = client.send(nextRequest(), HttpResponse.BodyHandlers.discarding()).statusCode();
+                } catch (Exception e) {
+                    // Connection failures are counted under status 0
+                    status = 0;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - start;
+                statuses.merge(status, 1L, Long::sum);
+            }
+        }
+    }
+
+    private static class Result {
+        private final int seconds;
+        private final Map<Integer, Long> statuses = new TreeMap<>();
+        private long[] latencies = new long[0];
+
+        private Result(int seconds) {
+            this.seconds = seconds;
+        }
+
+        private void add(Client client) {
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + client.count);
+            System.arraycopy(client.latencies, 0, latencies, offset, client.count);
+            client.statuses.forEach((status, count) -> statuses.merge(status, count, Long::sum));
+        }
+
+        private double percentileMillis(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+            return latencies[Math.max(index, 0)] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            Arrays.sort(latencies);
+            return String.format("%d requests, %.0f req/s; latency ms p50 %.2f, p90 %.2f, p99 %.2f, max %.2f; statuses %s",
+                    latencies.length, (double) latencies.length / seconds, percentileMillis(50),
+                    percentileMillis(90), percentileMillis(99), percentileMillis(100), statuses);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.studentmanagement.benchmark;
+
+import com.studentmanagement.service.StudentImportReport;
+import com.studentmanagement.service.StudentImportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk student import of {@code rows} new students into a database that
+ * already holds {@code students} students. Each invocation imports fresh emails.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 3, jvmArgsAppend = Dataset.LOGGING)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+public class BulkLoadBenchmarks {
+
+    @State(Scope.Benchmark)
+    public static class ImportFile {
+
+        @Param({"1000", "10000"})
+        public int rows;
+
+        private int invocation;
+        String csv;
+
+        @Setup(Level.Invocation)
+        public void nextFile() {
+            invocation++;
+            StringBuilder builder = new StringBuilder(rows * 48);
+            for (int i = 0; i < rows; i++) {
+                builder.append("Bulk Student ").append(i).append(',')
+                        .append("bulk").append(invocation).append('-').append(i).append("@bench.local,")
+                        .append(i % Dataset.COURSES + 1).append('\n');
+            }
+            csv = builder.toString();
+        }
+    }
+
+    @Benchmark
+    public StudentImportReport importStudents(Dataset dataset, ImportFile file) throws IOException {
+        return dataset.bean(StudentImportService.class).importStudents(new StringReader(file.csv));
+    }
+}
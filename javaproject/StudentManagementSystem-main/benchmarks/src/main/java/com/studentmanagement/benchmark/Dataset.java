@@ -0,0 +1,123 @@
+package com.studentmanagement.benchmark;
+
+import com.studentmanagement.model.Money;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A Spring context over an H2 database pre-loaded with {@code students} students,
+ * {@value #COURSES} courses and {@value #PAYMENTS_PER_STUDENT} payments per student.
+ * Student IDs are 1..students and course IDs 1..COURSES.
+ */
+@State(Scope.Benchmark)
+public class Dataset {
+
+    static final int COURSES = 50;
+    static final int PAYMENTS_PER_STUDENT = 2;
+    static final long PAYMENT_AMOUNT = Money.ofRupees(1000);
+
+    // Forked benchmark JVMs use a quiet logging setup instead of the application's SQL logging
+    static final String LOGGING = "-Dlogback.configurationFile=logback-benchmark.xml";
+
+    private static final int LOAD_BATCH_SIZE = 5000;
+
+    @Param({"1000", "10000", "100000"})
+    public int students;
+
+    AnnotationConfigApplicationContext context;
+    TransactionTemplate readOnly;
+
+    private PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(BenchmarkConfig.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        load(new JdbcTemplate(context.getBean(DataSource.class)));
+
+        // The services report every operation on stdout; keep that out of the measurements
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(originalOut);
+        context.close();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    <T> T readOnly(TransactionCallback<T> action) {
+        return readOnly.execute(action);
+    }
+
+    long randomStudentId() {
+        return ThreadLocalRandom.current().nextLong(1, students + 1);
+    }
+
+    long randomCourseId() {
+        return ThreadLocalRandom.current().nextLong(1, COURSES + 1);
+    }
+
+    String randomEmail() {
+        return email(randomStudentId());
+    }
+
+    static String email(long studentId) {
+        return "student" + studentId + "@bench.local";
+    }
+
+    private void load(JdbcTemplate jdbc) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= COURSES; i++) {
+            rows.add(new Object[]{"Course " + i, 6, Money.ofRupees(40000)});
+        }
+        jdbc.batchUpdate("INSERT INTO courses (course_name, duration, fee) VALUES (?, ?, ?)", rows);
+
+        long paid = PAYMENT_AMOUNT * PAYMENTS_PER_STUDENT;
+        rows.clear();
+        for (long id = 1; id <= students; id++) {
+            rows.add(new Object[]{"Student " + id, email(id), (id % COURSES) + 1, -paid, paid});
+            if (rows.size() == LOAD_BATCH_SIZE || id == students) {
+                jdbc.batchUpdate("INSERT INTO students (name, email, course_id, balance, total_paid, " +
+                        "total_refunded, version) VALUES (?, ?, ?, ?, ?, 0, 0)", rows);
+                rows.clear();
+            }
+        }
+
+        LocalDateTime start = LocalDateTime.now().minusDays(365);
+        for (long id = 1; id <= students; id++) {
+            for (int p = 0; p < PAYMENTS_PER_STUDENT; p++) {
+                Timestamp date = Timestamp.valueOf(start.plusMinutes(id * PAYMENTS_PER_STUDENT + p));
+                rows.add(new Object[]{id, PAYMENT_AMOUNT, date, "Installment " + (p + 1), (id % COURSES) + 1});
+            }
+            if (rows.size() >= LOAD_BATCH_SIZE || id == students) {
+                jdbc.batchUpdate("INSERT INTO payments (student_id, amount, payment_date, payment_type, " +
+                        "description, course_id) VALUES (?, ?, ?, 'PAYMENT', ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.studentmanagement.benchmark;
+
+import com.studentmanagement.model.Money;
+import com.studentmanagement.service.FeeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write paths through FeeService: one full posting transaction per operation
+ * for a random student. Refunds of 1.0 never exhaust the seeded payments
+ * within a normal run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 5, jvmArgsAppend = Dataset.LOGGING)
+@Warmup(iterations = 15, time = 5)
+@Measurement(iterations = 10, time = 3)
+public class FeePostingBenchmarks {
+
+    @Benchmark
+    public void processPayment(Dataset dataset) {
+        dataset.bean(FeeService.class).processPayment(dataset.randomStudentId(), Money.ofRupees(1), "Benchmark payment");
+    }
+
+    @Benchmark
+    public void processRefund(Dataset dataset) {
+        dataset.bean(FeeService.class).processRefund(dataset.randomStudentId(), Money.ofRupees(1), "Benchmark refund");
+    }
+}
@@ -0,0 +1,59 @@
+package com.studentmanagement.benchmark;
+
+import com.studentmanagement.dao.PaymentDAO;
+import com.studentmanagement.dao.StudentDAO;
+import com.studentmanagement.dto.StudentMatch;
+import com.studentmanagement.model.Payment;
+import com.studentmanagement.model.Student;
+import com.studentmanagement.service.StudentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths: each operation is one read-only transaction around a DAO call,
+ * except the in-memory search, which needs no transaction. The search index
+ * is loaded by the first search, during warm-up.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 3, jvmArgsAppend = Dataset.LOGGING)
+@Warmup(iterations = 10, time = 5)
+@Measurement(iterations = 10, time = 3)
+public class LookupBenchmarks {
+
+    @Benchmark
+    public Student studentByEmail(Dataset dataset) {
+        StudentDAO studentDAO = dataset.bean(StudentDAO.class);
+        String email = dataset.randomEmail();
+        return dataset.readOnly(status -> studentDAO.getByEmail(email));
+    }
+
+    @Benchmark
+    public List<Student> studentsByCourse(Dataset dataset) {
+        StudentDAO studentDAO = dataset.bean(StudentDAO.class);
+        long courseId = dataset.randomCourseId();
+        return dataset.readOnly(status -> studentDAO.getStudentsByCourse(courseId));
+    }
+
+    @Benchmark
+    public List<Payment> paymentsByStudent(Dataset dataset) {
+        PaymentDAO paymentDAO = dataset.bean(PaymentDAO.class);
+        long studentId = dataset.randomStudentId();
+        return dataset.readOnly(status -> paymentDAO.getPaymentsByStudent(studentId));
+    }
+
+    @Benchmark
+    public List<StudentMatch> searchStudents(Dataset dataset) {
+        StudentService studentService = dataset.bean(StudentService.class);
+        // An email prefix such as "student4821", which also matches student48210..48219
+        return studentService.search("student" + dataset.randomStudentId(), 10);
+    }
+}
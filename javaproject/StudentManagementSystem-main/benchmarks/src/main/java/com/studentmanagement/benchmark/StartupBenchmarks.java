@@ -0,0 +1,140 @@
+package com.studentmanagement.benchmark;
+
+import com.studentmanagement.config.FastStart;
+import com.studentmanagement.service.ReportService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.hibernate5.HibernateTransactionManager;
+import org.springframework.orm.hibernate5.LocalSessionFactoryBean;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Start-up cost of a short command-mode run: boot the Spring context against
+ * an existing schema, run one report query and shut down. Every fork measures
+ * a single start in a fresh JVM, so class loading and an unwarmed JIT are
+ * included, as they are for a real run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 10, jvmArgsAppend = Dataset.LOGGING)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class StartupBenchmarks {
+
+    private static final String URL = "jdbc:h2:mem:startup;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    /**
+     * scan: classpath scanning, no fast start (how the application started before the component index);
+     * indexed: component index, no fast start (the default);
+     * fast: component index and FastStart (command mode)
+     */
+    @Param({"scan", "indexed", "fast"})
+    public String startup;
+
+    @Setup(Level.Trial)
+    public void createSchema() throws SQLException {
+        System.setProperty("spring.index.ignore", String.valueOf(startup.equals("scan")));
+        System.setProperty(FastStart.PROPERTY, String.valueOf(startup.equals("fast")));
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:/startup-schema.sql'");
+        }
+    }
+
+    @Benchmark
+    public long startAndQuery() {
+        try (AnnotationConfigApplicationContext context = FastStart.createContext(StartupConfig.class)) {
+            return context.getBean(ReportService.class).forEachCourse(course -> { });
+        }
+    }
+
+    // The same with only the C1 compiler, as recommended for command-mode launches
+    @Benchmark
+    @Fork(value = 10, jvmArgsAppend = {Dataset.LOGGING, "-XX:TieredStopAtLevel=1"})
+    public long startAndQueryC1() {
+        return startAndQuery();
+    }
+
+    /**
+     * AppConfigExample on H2: the same scanning, Hibernate settings and
+     * fast-start switches, without SQL echo.
+     */
+    @Configuration
+    @EnableTransactionManagement
+    @ComponentScan(basePackages = {"com.studentmanagement.dao", "com.studentmanagement.service"})
+    public static class StartupConfig {
+
+        @Bean
+        public DataSource dataSource() {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl(URL);
+            dataSource.setUsername("sa");
+            dataSource.setMaximumPoolSize(10);
+            dataSource.setMinimumIdle(5);
+            dataSource.setPoolName("StartupHikariPool");
+            return dataSource;
+        }
+
+        @Bean
+        public LocalSessionFactoryBean sessionFactory() {
+            LocalSessionFactoryBean sessionFactory = new LocalSessionFactoryBean();
+            sessionFactory.setDataSource(dataSource());
+            if (FastStart.isEnabled()) {
+                sessionFactory.setAnnotatedClasses(FastStart.ENTITY_CLASSES);
+            } else {
+                sessionFactory.setPackagesToScan("com.studentmanagement.model");
+            }
+            sessionFactory.setHibernateProperties(hibernateProperties());
+            return sessionFactory;
+        }
+
+        private Properties hibernateProperties() {
+            Properties properties = new Properties();
+            properties.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+            properties.setProperty("hibernate.hbm2ddl.auto", "update");
+            properties.setProperty("hibernate.show_sql", "false");
+            properties.setProperty("hibernate.generate_statistics", "true");
+            properties.setProperty("hibernate.jdbc.batch_size", "20");
+            properties.setProperty("hibernate.cache.use_second_level_cache", "true");
+            properties.setProperty("hibernate.cache.use_query_cache", "true");
+            properties.setProperty("hibernate.cache.region.factory_class", "jcache");
+            properties.setProperty("hibernate.javax.cache.provider", "org.ehcache.jsr107.EhcacheCachingProvider");
+            properties.setProperty("hibernate.javax.cache.uri", "ehcache.xml");
+            if (FastStart.isEnabled()) {
+                FastStart.applyHibernateProperties(properties);
+            }
+            return properties;
+        }
+
+        @Bean
+        public HibernateTransactionManager transactionManager() {
+            HibernateTransactionManager transactionManager = new HibernateTransactionManager();
+            transactionManager.setSessionFactory(sessionFactory().getObject());
+            return transactionManager;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+-- The application schema (Schema.sql) in H2 syntax, for StartupBenchmarks
+CREATE TABLE courses (
+    course_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    course_name VARCHAR(100) NOT NULL,
+    duration INT NOT NULL,
+    fee BIGINT NOT NULL
+);
+
+CREATE TABLE students (
+    student_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    email VARCHAR(100) NOT NULL,
+    course_id BIGINT,
+    balance BIGINT NOT NULL,
+    total_paid BIGINT NOT NULL,
+    total_refunded BIGINT NOT NULL,
+    version BIGINT NOT NULL,
+    CONSTRAINT uk_email UNIQUE (email),
+    FOREIGN KEY (course_id) REFERENCES courses (course_id)
+);
+
+CREATE TABLE payments (
+    payment_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    student_id BIGINT NOT NULL,
+    amount BIGINT NOT NULL,
+    payment_date TIMESTAMP NOT NULL,
+    payment_type VARCHAR(20) NOT NULL,
+    description VARCHAR(255),
+    idempotency_key VARCHAR(64),
+    CONSTRAINT uk_payments_idempotency_key UNIQUE (idempotency_key),
+    FOREIGN KEY (student_id) REFERENCES students (student_id)
+);
+
+CREATE TABLE payment_daily_rollup (
+    rollup_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    rollup_date DATE NOT NULL,
+    course_id BIGINT NOT NULL,
+    payment_type VARCHAR(20) NOT NULL,
+    payment_count BIGINT NOT NULL,
+    total_amount BIGINT NOT NULL,
+    CONSTRAINT uk_rollup_day_course_type UNIQUE (rollup_date, course_id, payment_type)
+);
+
+CREATE TABLE outbox_events (
+    event_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    event_type VARCHAR(30) NOT NULL,
+    student_id BIGINT NOT NULL,
+    payload VARCHAR(2000) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    position BIGINT,
+    published_at TIMESTAMP,
+    CONSTRAINT uk_outbox_position UNIQUE (position)
+);
+
+CREATE TABLE outbox_offsets (
+    consumer_name VARCHAR(100) PRIMARY KEY,
+    position BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE statement_imports (
+    statement_id VARCHAR(64) PRIMARY KEY,
+    file_name VARCHAR(255) NOT NULL,
+    lines_done INT NOT NULL,
+    payments_posted INT NOT NULL,
+    amount_posted BIGINT NOT NULL,
+    started_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    completed_at TIMESTAMP
+);
+
+CREATE TABLE payments_archive (
+    payment_id BIGINT PRIMARY KEY,
+    student_id BIGINT NOT NULL,
+    amount BIGINT NOT NULL,
+    payment_date TIMESTAMP NOT NULL,
+    payment_type VARCHAR(20) NOT NULL,
+    description VARCHAR(255),
+    idempotency_key VARCHAR(64),
+    archived_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_archive_idempotency_key UNIQUE (idempotency_key),
+    FOREIGN KEY (student_id) REFERENCES students (student_id)
+);
+
+CREATE TABLE payment_carry_forward (
+    student_id BIGINT PRIMARY KEY,
+    payment_count BIGINT NOT NULL,
+    total_paid BIGINT NOT NULL,
+    total_refunded BIGINT NOT NULL,
+    archived_through TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (student_id) REFERENCES students (student_id)
+);
@@ -0,0 +1,428 @@
+package com.studentmanagement;
+
+import com.studentmanagement.config.AppConfig;
+import com.studentmanagement.config.FastStart;
+import com.studentmanagement.dto.PaymentPage;
+import com.studentmanagement.dto.PaymentSummary;
+import com.studentmanagement.ledger.LedgerFileReader;
+import com.studentmanagement.ledger.LedgerRowGroup;
+import com.studentmanagement.model.Money;
+import com.studentmanagement.model.Payment.PaymentType;
+import com.studentmanagement.model.PaymentDailyRollup;
+import com.studentmanagement.service.BatchCommandReport;
+import com.studentmanagement.service.BatchCommandService;
+import com.studentmanagement.service.LedgerExportReport;
+import com.studentmanagement.service.LedgerExportService;
+import com.studentmanagement.service.OutboxRelay;
+import com.studentmanagement.service.PaymentArchiveReport;
+import com.studentmanagement.service.PaymentArchiveService;
+import com.studentmanagement.service.PaymentRollupService;
+import com.studentmanagement.service.ReportService;
+import com.studentmanagement.service.StatementImportReport;
+import com.studentmanagement.service.StatementImportService;
+import com.studentmanagement.service.StudentSearchIndex;
+import com.studentmanagement.web.ApiServer;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Headless entry point, used when Main is started with arguments.
+ *
+ * Results go to standard output as tab-separated lines; everything else the
+ * application prints (progress messages, logging, SQL) is sent to standard
+ * error so scripts can consume the results directly. No sample data is loaded,
+ * and FastStart is on unless -Dstudentmgmt.fastStart=false is given, so the
+ * schema must already exist.
+ *
+ * ledger-totals reads exported ledger files only, so it runs without
+ * creating the application context and needs no database.
+ *
+ * Exit status: 0 if every command succeeded, 1 if any failed, 2 for usage errors.
+ * Only malformed command lines are usage errors; a command the services reject
+ * (an unknown student, an invalid amount) has failed.
+ */
+final class CommandLineMode {
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: <command> [arguments]",
+            "  add-course <name> <durationMonths> <fee>",
+            "  add-student <name> <email>",
+            "  enroll <studentId> <courseId>",
+            "  pay <studentId> <amount> [description]",
+            "  refund <studentId> <amount> [reason]",
+            "  batch [--batch-size <n>] [file]     tab-separated commands from a file, or stdin",
+            "  statement <file>                    post the credits of a bank statement CSV; resumes if interrupted",
+            "  report students|courses|enrollment",
+            "  report payments <studentId> [--archived]",
+            "  report revenue <fromDate> <toDate>  (dates as YYYY-MM-DD)",
+            "  archive-payments [--before <date>]  move older payments to the archive (default: the configured horizon)",
+            "  export-ledger <dir>                 write the payments ledger as monthly columnar files",
+            "  ledger-totals <dir|file>            daily totals from exported ledger files; needs no database",
+            "  serve [--port <n>]                  HTTP/JSON API and outbox relay until stopped (default port " + ApiServer.DEFAULT_PORT + ")",
+            "  relay                               publish outbox events until stopped");
+
+    private static final int OK = 0;
+    private static final int FAILED = 1;
+    private static final int USAGE_ERROR = 2;
+
+    private static final long MICROS_PER_DAY = 86_400_000_000L;
+
+    /**
+     * The command line itself is wrong: exit status 2 with the usage text.
+     */
+    private static final class UsageException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        UsageException(String message) {
+            super(message);
+        }
+    }
+
+    private CommandLineMode() {
+    }
+
+    static int run(String[] args) {
+        PrintWriter out = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        PrintStream err = System.err;
+        System.setOut(err);
+
+        // Short runs: fast start (existing schema, lazy beans) unless asked otherwise
+        if (System.getProperty(FastStart.PROPERTY) == null) {
+            System.setProperty(FastStart.PROPERTY, "true");
+        }
+        // Per-statement SQL output would dominate the run time of a large batch
+        if (System.getProperty("studentmgmt.showSql") == null) {
+            System.setProperty("studentmgmt.showSql", "false");
+        }
+        if (System.getProperty("studentmgmt.sqlLogLevel") == null) {
+            System.setProperty("studentmgmt.sqlLogLevel", "INFO");
+        }
+
+        try {
+            if (args[0].equals("ledger-totals")) {
+                return ledgerTotals(args, out);
+            }
+            try (AnnotationConfigApplicationContext context = FastStart.createContext(AppConfig.class)) {
+                return dispatch(context, args, out);
+            }
+        } catch (UsageException e) {
+            err.println("Error: " + e.getMessage());
+            err.println(USAGE);
+            return USAGE_ERROR;
+        } catch (Exception e) {
+            err.println("Error: " + e.getMessage());
+            return FAILED;
+        } finally {
+            out.flush();
+        }
+    }
+
+    private static int dispatch(AnnotationConfigApplicationContext context, String[] args,
+                                PrintWriter out) throws IOException, InterruptedException {
+        switch (args[0]) {
+            case "serve":
+                return serve(context, args);
+            case "relay":
+                return relay(context, args);
+            case "batch":
+                return batch(context.getBean(BatchCommandService.class), args, out);
+            case "statement":
+                return statement(context.getBean(StatementImportService.class), args, out);
+            case "report":
+                return report(context, args, out);
+            case "archive-payments":
+                return archivePayments(context.getBean(PaymentArchiveService.class), args);
+            case "export-ledger":
+                return exportLedger(context.getBean(LedgerExportService.class), args, out);
+            case "add-course":
+            case "add-student":
+            case "enroll":
+            case "pay":
+            case "refund":
+                // A single command is a one-line batch
+                return runBatch(context.getBean(BatchCommandService.class),
+                        new StringReader(String.join("\t", args)), out);
+            default:
+                throw new UsageException("Unknown command: " + args[0]);
+        }
+    }
+
+    private static int batch(BatchCommandService batchCommandService, String[] args,
+                             PrintWriter out) throws IOException {
+        int next = 1;
+        if (args.length > next && args[next].equals("--batch-size")) {
+            if (args.length == next + 1) {
+                throw new UsageException("--batch-size needs a value");
+            }
+            int batchSize = parseInt(args[next + 1], "--batch-size");
+            if (batchSize < 1) {
+                throw new UsageException("--batch-size must be at least 1");
+            }
+            batchCommandService.setBatchSize(batchSize);
+            next += 2;
+        }
+        if (args.length > next + 1) {
+            throw new UsageException("Unexpected arguments: " +
+                    String.join(" ", Arrays.copyOfRange(args, next + 1, args.length)));
+        }
+
+        if (args.length == next || args[next].equals("-")) {
+            return runBatch(batchCommandService,
+                    new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)), out);
+        }
+        try (Reader reader = Files.newBufferedReader(Paths.get(args[next]), StandardCharsets.UTF_8)) {
+            return runBatch(batchCommandService, reader, out);
+        }
+    }
+
+    private static int runBatch(BatchCommandService batchCommandService, Reader source,
+                                PrintWriter out) throws IOException {
+        BatchCommandReport report = batchCommandService.run(source, out);
+        System.err.println(report);
+        return report.getFailed() == 0 ? OK : FAILED;
+    }
+
+    // Rejected credits as "lineNumber  ERROR  reason" lines, the totals on standard error
+    private static int statement(StatementImportService statementImportService, String[] args, PrintWriter out) {
+        if (args.length != 2) {
+            throw new UsageException("Usage: statement <file>");
+        }
+        StatementImportReport report = statementImportService.importStatement(Paths.get(args[1]));
+        for (StatementImportReport.Rejection rejection : report.getRejections()) {
+            row(out, rejection.getLineNumber(), "ERROR", rejection.getReason());
+        }
+        System.err.println(report);
+        return report.getRejections().isEmpty() ? OK : FAILED;
+    }
+
+    // The outcome goes to standard error; nothing is printed on standard output
+    private static int archivePayments(PaymentArchiveService paymentArchiveService, String[] args) {
+        PaymentArchiveReport report;
+        if (args.length == 3 && args[1].equals("--before")) {
+            report = paymentArchiveService.archive(parseDate(args[2]).atStartOfDay());
+        } else if (args.length == 1) {
+            report = paymentArchiveService.archive();
+        } else {
+            throw new UsageException("Usage: archive-payments [--before <date>]");
+        }
+        System.err.println(report);
+        return OK;
+    }
+
+    // One "month  file  payments  bytes" line per file written
+    private static int exportLedger(LedgerExportService ledgerExportService, String[] args, PrintWriter out) {
+        if (args.length != 2) {
+            throw new UsageException("Usage: export-ledger <dir>");
+        }
+        LedgerExportReport report = ledgerExportService.export(Paths.get(args[1]));
+        row(out, "month", "file", "payments", "bytes");
+        for (LedgerExportReport.Partition partition : report.getPartitions()) {
+            row(out, partition.getMonth(), partition.getFile(), partition.getRows(), partition.getBytes());
+        }
+        System.err.println(report);
+        return OK;
+    }
+
+    /**
+     * Payment count and amount per day and type, summed from exported ledger
+     * files. Reads only the date, type and amount columns.
+     */
+    private static int ledgerTotals(String[] args, PrintWriter out) throws IOException {
+        if (args.length != 2) {
+            throw new UsageException("Usage: ledger-totals <dir|file>");
+        }
+        Path source = Paths.get(args[1]);
+        if (!Files.exists(source)) {
+            throw new UsageException("No such file or directory: " + args[1]);
+        }
+        List<Path> files = LedgerFileReader.files(source);
+        if (files.isEmpty()) {
+            throw new UsageException("No ledger files in " + args[1]);
+        }
+        // date -> [count, amount] per payment type
+        Map<LocalDate, long[][]> totals = new TreeMap<>();
+        PaymentType[] types = PaymentType.values();
+        for (Path file : files) {
+            try (LedgerFileReader reader = LedgerFileReader.open(file)) {
+                for (LedgerRowGroup group = reader.next(); group != null; group = reader.next()) {
+                    for (int row = 0; row < group.size(); row++) {
+                        LocalDate date = LocalDate.ofEpochDay(
+                                Math.floorDiv(group.getPaymentDateMicros(row), MICROS_PER_DAY));
+                        long[] total = totals.computeIfAbsent(date, d -> new long[types.length][2])
+                                [group.getPaymentType(row).ordinal()];
+                        total[0]++;
+                        total[1] += group.getAmount(row);
+                    }
+                }
+            }
+        }
+
+        row(out, "date", "type", "count", "amount");
+        totals.forEach((date, byType) -> {
+            for (PaymentType type : types) {
+                long[] total = byType[type.ordinal()];
+                if (total[0] > 0) {
+                    row(out, date, type, total[0], Money.format(total[1]));
+                }
+            }
+        });
+        return OK;
+    }
+
+    private static int serve(AnnotationConfigApplicationContext context, String[] args)
+            throws IOException, InterruptedException {
+        int port = ApiServer.DEFAULT_PORT;
+        if (args.length == 3 && args[1].equals("--port")) {
+            port = parseInt(args[2], "port");
+        } else if (args.length != 1) {
+            throw new UsageException("Usage: serve [--port <n>]");
+        }
+
+        // Ctrl-C or SIGTERM closes the context, which stops the server and ends the wait
+        context.registerShutdownHook();
+        startRelay(context);
+        context.getBean(StudentSearchIndex.class).start();
+        ApiServer apiServer = context.getBean(ApiServer.class);
+        apiServer.start(port);
+        apiServer.awaitStop();
+        return OK;
+    }
+
+    private static int relay(AnnotationConfigApplicationContext context, String[] args) throws InterruptedException {
+        if (args.length != 1) {
+            throw new UsageException("Usage: relay");
+        }
+        context.registerShutdownHook();
+        startRelay(context);
+        // The relay thread is a daemon; wait here until the shutdown hook ends the process
+        Thread.currentThread().join();
+        return OK;
+    }
+
+    // Publish outbox events to the sinks named by -Dstudentmgmt.outbox.file / .socket
+    private static void startRelay(AnnotationConfigApplicationContext context) {
+        OutboxRelay relay = context.getBean(OutboxRelay.class);
+        relay.addConfiguredSinks();
+        relay.start();
+    }
+
+    private static int report(AnnotationConfigApplicationContext context, String[] args, PrintWriter out) {
+        if (args.length < 2) {
+            throw new UsageException("Missing report name");
+        }
+        ReportService reportService = context.getBean(ReportService.class);
+
+        switch (args[1]) {
+            case "students":
+                expectArgs(args, 2);
+                row(out, "student_id", "name", "email", "course", "balance");
+                reportService.forEachStudent(s -> row(out, s.getStudentId(), s.getName(), s.getEmail(),
+                        s.getCourseName(), Money.format(s.getBalance())));
+                return OK;
+            case "courses":
+                expectArgs(args, 2);
+                row(out, "course_id", "name", "duration_months", "fee", "enrolled");
+                reportService.forEachCourse(c -> row(out, c.getCourseId(), c.getCourseName(), c.getDuration(),
+                        Money.format(c.getFee()), c.getEnrolledCount()));
+                return OK;
+            case "enrollment":
+                expectArgs(args, 2);
+                row(out, "course_id", "name", "enrolled", "fees_due", "collected", "refunded", "outstanding");
+                reportService.forEachCourseEnrollment(c -> row(out, c.getCourseId(), c.getCourseName(),
+                        c.getEnrolledCount(), Money.format(c.getTotalFeesDue()), Money.format(c.getTotalCollected()),
+                        Money.format(c.getTotalRefunded()), Money.format(c.getOutstanding())));
+                return OK;
+            case "payments":
+                boolean archived = args.length == 4 && args[3].equals("--archived");
+                expectArgs(args, archived ? 4 : 3);
+                row(out, "payment_id", "date", "type", "amount", "description");
+                Long studentId = parseLong(args[2], "student ID");
+                // Page by page, so a long history is never held in memory at once
+                String cursor = null;
+                do {
+                    PaymentPage page = reportService.getPaymentHistoryPage(studentId, cursor,
+                            ReportService.MAX_PAGE_SIZE, archived);
+                    for (PaymentSummary p : page.getPayments()) {
+                        row(out, p.getPaymentId(), p.getPaymentDate(), p.getPaymentType(),
+                                Money.format(p.getAmount()), p.getDescription());
+                    }
+                    cursor = page.getNextCursor();
+                } while (cursor != null);
+                return OK;
+            case "revenue":
+                expectArgs(args, 4);
+                row(out, "date", "course_id", "type", "count", "amount");
+                for (PaymentDailyRollup r : context.getBean(PaymentRollupService.class)
+                        .getDailyRollup(parseDate(args[2]), parseDate(args[3]))) {
+                    row(out, r.getRollupDate(), r.getCourseId(), r.getPaymentType(), r.getPaymentCount(),
+                            Money.format(r.getTotalAmount()));
+                }
+                return OK;
+            default:
+                throw new UsageException("Unknown report: " + args[1]);
+        }
+    }
+
+    private static void expectArgs(String[] args, int count) {
+        if (args.length != count) {
+            throw new UsageException("Wrong number of arguments for report " + args[1]);
+        }
+    }
+
+    private static int parseInt(String value, String name) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new UsageException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private static Long parseLong(String value, String name) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new UsageException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new UsageException("Invalid date: " + value + " (expected YYYY-MM-DD)");
+        }
+    }
+
+    // One tab-separated line; tabs and line breaks inside values become spaces
+    private static void row(PrintWriter out, Object... values) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append('\t');
+            }
+            if (values[i] != null) {
+                line.append(values[i].toString().replaceAll("[\\t\\r\\n]", " "));
+            }
+        }
+        out.println(line);
+    }
+}
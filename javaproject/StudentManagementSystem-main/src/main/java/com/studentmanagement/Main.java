@@ -1,34 +1,83 @@
 package com.studentmanagement;
 
 import com.studentmanagement.config.AppConfig;
+import com.studentmanagement.config.FastStart;
 import com.studentmanagement.model.Student;
 import com.studentmanagement.model.Course;
-import com.studentmanagement.model.Payment;
+import com.studentmanagement.model.Money;
+import com.studentmanagement.dto.PaymentPage;
+import com.studentmanagement.dto.PaymentSummary;
+import com.studentmanagement.dto.StudentMatch;
 import com.studentmanagement.service.StudentService;
+import com.studentmanagement.service.BulkEnrollmentReport;
+import com.studentmanagement.service.BulkEnrollmentService;
 import com.studentmanagement.service.CourseService;
 import com.studentmanagement.service.FeeService;
+import com.studentmanagement.service.LedgerExportReport;
+import com.studentmanagement.service.LedgerExportService;
+import com.studentmanagement.service.LedgerReconciliationReport;
+import com.studentmanagement.service.LedgerReconciliationService;
+import com.studentmanagement.service.PaymentArchiveService;
+import com.studentmanagement.service.PaymentRollupService;
+import com.studentmanagement.service.ReportService;
+import com.studentmanagement.service.StatementImportReport;
+import com.studentmanagement.service.StatementImportService;
+import com.studentmanagement.service.StudentImportReport;
+import com.studentmanagement.service.StudentImportService;
+import com.studentmanagement.service.StudentSearchIndex;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 
 public class Main {
 
+    // Payments shown at a time by View Payment History
+    private static final int HISTORY_PAGE_SIZE = 20;
+
+    // Import rejections listed after an import; the rest are only counted
+    private static final int REJECTIONS_SHOWN = 20;
+
     private static ApplicationContext context;
     private static StudentService studentService;
     private static CourseService courseService;
     private static FeeService feeService;
+    private static StudentImportService studentImportService;
+    private static BulkEnrollmentService bulkEnrollmentService;
+    private static StatementImportService statementImportService;
+    private static LedgerReconciliationService ledgerReconciliationService;
+    private static LedgerExportService ledgerExportService;
+    private static PaymentArchiveService paymentArchiveService;
+    private static ReportService reportService;
+    private static PaymentRollupService paymentRollupService;
     private static Scanner scanner;
 
     public static void main(String[] args) {
+        // With arguments, run a single command or batch without the menu
+        if (args.length > 0) {
+            System.exit(CommandLineMode.run(args));
+        }
+
         // Initialize Spring Context using Java-based configuration
-        context = new AnnotationConfigApplicationContext(AppConfig.class);
+        context = FastStart.createContext(AppConfig.class);
 
         // Get beans from context (Dependency Injection)
         studentService = context.getBean(StudentService.class);
         courseService = context.getBean(CourseService.class);
         feeService = context.getBean(FeeService.class);
+        studentImportService = context.getBean(StudentImportService.class);
+        bulkEnrollmentService = context.getBean(BulkEnrollmentService.class);
+        statementImportService = context.getBean(StatementImportService.class);
+        ledgerReconciliationService = context.getBean(LedgerReconciliationService.class);
+        ledgerExportService = context.getBean(LedgerExportService.class);
+        paymentArchiveService = context.getBean(PaymentArchiveService.class);
+        reportService = context.getBean(ReportService.class);
+        paymentRollupService = context.getBean(PaymentRollupService.class);
 
         scanner = new Scanner(System.in);
 
@@ -40,6 +89,9 @@ public class Main {
         // Add some sample data
         initializeSampleData();
 
+        // Load the search index while the menu is in use
+        context.getBean(StudentSearchIndex.class).start();
+
         // Main menu loop
         boolean exit = false;
         while (!exit) {
@@ -99,7 +151,9 @@ public class Main {
         System.out.println("4. Delete Student");
         System.out.println("5. View All Students");
         System.out.println("6. View Student Details");
-        System.out.println("7. Back to Main Menu");
+        System.out.println("7. Import Students from CSV");
+        System.out.println("8. Search Students");
+        System.out.println("9. Back to Main Menu");
 
         int choice = getIntInput("Enter your choice: ");
 
@@ -123,6 +177,12 @@ public class Main {
                 viewStudentDetails();
                 break;
             case 7:
+                importStudents();
+                break;
+            case 8:
+                searchStudents();
+                break;
+            case 9:
                 return;
             default:
                 System.out.println("Invalid choice!");
@@ -136,7 +196,8 @@ public class Main {
         System.out.println("3. Delete Course");
         System.out.println("4. View All Courses");
         System.out.println("5. View Course Details");
-        System.out.println("6. Back to Main Menu");
+        System.out.println("6. Bulk Enroll Students in Course");
+        System.out.println("7. Back to Main Menu");
 
         int choice = getIntInput("Enter your choice: ");
 
@@ -157,6 +218,9 @@ public class Main {
                 viewCourseDetails();
                 break;
             case 6:
+                bulkEnrollStudents();
+                break;
+            case 7:
                 return;
             default:
                 System.out.println("Invalid choice!");
@@ -169,7 +233,8 @@ public class Main {
         System.out.println("2. Process Refund");
         System.out.println("3. View Payment History");
         System.out.println("4. View Fee Summary");
-        System.out.println("5. Back to Main Menu");
+        System.out.println("5. Import Bank Statement");
+        System.out.println("6. Back to Main Menu");
 
         int choice = getIntInput("Enter your choice: ");
 
@@ -187,6 +252,9 @@ public class Main {
                 viewFeeSummary();
                 break;
             case 5:
+                importStatement();
+                break;
+            case 6:
                 return;
             default:
                 System.out.println("Invalid choice!");
@@ -198,7 +266,14 @@ public class Main {
         System.out.println("1. Students by Course");
         System.out.println("2. All Students with Details");
         System.out.println("3. All Courses with Details");
-        System.out.println("4. Back to Main Menu");
+        System.out.println("4. Course Cache Statistics");
+        System.out.println("5. Reconcile Fee Ledger");
+        System.out.println("6. Course Enrollment Summary");
+        System.out.println("7. Revenue by Date Range");
+        System.out.println("8. Rebuild Daily Payment Rollup");
+        System.out.println("9. Export Payments Ledger");
+        System.out.println("10. Archive Old Payments");
+        System.out.println("11. Back to Main Menu");
 
         int choice = getIntInput("Enter your choice: ");
 
@@ -213,6 +288,27 @@ public class Main {
                 viewAllCourses();
                 break;
             case 4:
+                courseService.displayCacheStatistics();
+                break;
+            case 5:
+                reconcileLedger();
+                break;
+            case 6:
+                viewCourseEnrollmentSummary();
+                break;
+            case 7:
+                viewRevenueReport();
+                break;
+            case 8:
+                paymentRollupService.rebuild();
+                break;
+            case 9:
+                exportLedger();
+                break;
+            case 10:
+                archivePayments();
+                break;
+            case 11:
                 return;
             default:
                 System.out.println("Invalid choice!");
@@ -276,14 +372,10 @@ public class Main {
 
     private static void viewAllStudents() {
         System.out.println("\n=== All Students ===");
-        List<Student> students = studentService.getAllStudents();
+        long count = reportService.forEachStudent(System.out::println);
 
-        if (students.isEmpty()) {
+        if (count == 0) {
             System.out.println("No students found.");
-        } else {
-            for (Student student : students) {
-                System.out.println(student);
-            }
         }
     }
 
@@ -299,6 +391,36 @@ public class Main {
         }
     }
 
+    private static void importStudents() {
+        System.out.println("\n=== Import Students from CSV ===");
+        System.out.println("Format: name,email[,courseId] (one student per line)");
+        scanner.nextLine(); // consume newline
+
+        System.out.print("Enter file path: ");
+        String path = scanner.nextLine().trim();
+
+        StudentImportReport report = studentImportService.importStudents(Paths.get(path));
+        System.out.println("Rows read: " + report.getRowsRead());
+        System.out.println("Imported: " + report.getImported());
+        printRejections(report.getRejections());
+    }
+
+    private static void searchStudents() {
+        System.out.println("\n=== Search Students ===");
+        scanner.nextLine(); // consume newline
+
+        System.out.print("Enter part of a name or email: ");
+        String query = scanner.nextLine();
+
+        List<StudentMatch> matches = studentService.search(query, 20);
+        if (matches.isEmpty()) {
+            System.out.println("No matching students.");
+        }
+        for (StudentMatch match : matches) {
+            System.out.println(match.getStudentId() + "  " + match.getName() + "  <" + match.getEmail() + ">");
+        }
+    }
+
     // Course Operations
     private static void addCourse() {
         System.out.println("\n=== Add New Course ===");
@@ -308,7 +430,7 @@ public class Main {
         String courseName = scanner.nextLine();
 
         Integer duration = getIntInput("Enter duration (in months): ");
-        Double fee = getDoubleInput("Enter fee: ");
+        long fee = getAmountInput("Enter fee: ");
 
         courseService.addCourse(courseName, duration, fee);
     }
@@ -323,7 +445,7 @@ public class Main {
         String courseName = scanner.nextLine();
 
         Integer duration = getIntInput("Enter new duration (in months): ");
-        Double fee = getDoubleInput("Enter new fee: ");
+        long fee = getAmountInput("Enter new fee: ");
 
         courseService.updateCourse(courseId, courseName, duration, fee);
     }
@@ -346,14 +468,10 @@ public class Main {
 
     private static void viewAllCourses() {
         System.out.println("\n=== All Courses ===");
-        List<Course> courses = courseService.getAllCourses();
+        long count = reportService.forEachCourse(System.out::println);
 
-        if (courses.isEmpty()) {
+        if (count == 0) {
             System.out.println("No courses found.");
-        } else {
-            for (Course course : courses) {
-                System.out.println(course);
-            }
         }
     }
 
@@ -369,12 +487,49 @@ public class Main {
         }
     }
 
+    private static void bulkEnrollStudents() {
+        System.out.println("\n=== Bulk Enroll Students in Course ===");
+        Long courseId = getLongInput("Enter Course ID to enroll in: ");
+        scanner.nextLine(); // consume newline
+
+        System.out.print("Enter student IDs separated by commas (leave empty to move a whole course): ");
+        String line = scanner.nextLine().trim();
+
+        BulkEnrollmentReport report;
+        if (line.isEmpty()) {
+            Long fromCourseId = getLongInput("Enter Course ID to move students from: ");
+            report = bulkEnrollmentService.moveStudents(fromCourseId, courseId);
+        } else {
+            List<Long> studentIds = new ArrayList<>();
+            for (String id : line.split(",")) {
+                try {
+                    studentIds.add(Long.valueOf(id.trim()));
+                } catch (NumberFormatException e) {
+                    System.out.println("Invalid student ID: " + id.trim());
+                    return;
+                }
+            }
+            report = bulkEnrollmentService.enrollStudents(studentIds, courseId);
+        }
+
+        System.out.println("Enrolled: " + report.getEnrolled());
+        System.out.println("Already enrolled: " + report.getAlreadyEnrolled());
+        System.out.println("Not found: " + report.getNotFound());
+        System.out.println("Failed: " + report.getFailed());
+        for (BulkEnrollmentReport.Result result : report.getResults()) {
+            if (result.getOutcome() == BulkEnrollmentReport.Outcome.NOT_FOUND
+                    || result.getOutcome() == BulkEnrollmentReport.Outcome.FAILED) {
+                System.out.println("  " + result);
+            }
+        }
+    }
+
     // Fee Operations
     private static void processPayment() {
         System.out.println("\n=== Process Payment ===");
 
         Long studentId = getLongInput("Enter Student ID: ");
-        Double amount = getDoubleInput("Enter payment amount: ");
+        long amount = getAmountInput("Enter payment amount: ");
 
         scanner.nextLine(); // consume newline
         System.out.print("Enter description: ");
@@ -387,7 +542,7 @@ public class Main {
         System.out.println("\n=== Process Refund ===");
 
         Long studentId = getLongInput("Enter Student ID: ");
-        Double amount = getDoubleInput("Enter refund amount: ");
+        long amount = getAmountInput("Enter refund amount: ");
 
         scanner.nextLine(); // consume newline
         System.out.print("Enter reason: ");
@@ -400,14 +555,28 @@ public class Main {
         System.out.println("\n=== Payment History ===");
         Long studentId = getLongInput("Enter Student ID: ");
 
-        List<Payment> payments = feeService.getPaymentHistory(studentId);
+        scanner.nextLine(); // consume newline
+        System.out.print("Include archived payments? (yes/no): ");
+        boolean includeArchived = scanner.nextLine().trim().equalsIgnoreCase("yes");
 
-        if (payments.isEmpty()) {
+        PaymentPage page = reportService.getPaymentHistoryPage(studentId, null, HISTORY_PAGE_SIZE, includeArchived);
+        if (page.getPayments().isEmpty()) {
             System.out.println("No payment history found.");
-        } else {
-            for (Payment payment : payments) {
+            return;
+        }
+        while (true) {
+            for (PaymentSummary payment : page.getPayments()) {
                 System.out.println(payment);
             }
+            if (!page.isHasMore()) {
+                return;
+            }
+            System.out.print("Show older payments? (yes/no): ");
+            if (!scanner.nextLine().trim().equalsIgnoreCase("yes")) {
+                return;
+            }
+            page = reportService.getPaymentHistoryPage(studentId, page.getNextCursor(), HISTORY_PAGE_SIZE,
+                    includeArchived);
         }
     }
 
@@ -418,21 +587,105 @@ public class Main {
         feeService.displayFeeSummary(studentId);
     }
 
+    private static void importStatement() {
+        System.out.println("\n=== Import Bank Statement ===");
+        System.out.println("Format: reference,amount,student[,narration] (student ID or email)");
+        scanner.nextLine(); // consume newline
+
+        System.out.print("Enter file path: ");
+        String path = scanner.nextLine().trim();
+
+        StatementImportReport report = statementImportService.importStatement(Paths.get(path));
+        if (report.isAlreadyComplete()) {
+            System.out.println("This statement has been imported already.");
+            return;
+        }
+        if (report.getResumedAfterLine() > 0) {
+            System.out.println("Resumed after line " + report.getResumedAfterLine());
+        }
+        System.out.println("Rows read: " + report.getRowsRead());
+        System.out.println("Posted: " + report.getPosted() + " (Rs." + Money.format(report.getAmountPosted()) + ")");
+        System.out.println("Already posted: " + report.getDuplicates());
+        printRejections(report.getRejections());
+    }
+
     private static void viewStudentsByCourse() {
         System.out.println("\n=== Students by Course ===");
         Long courseId = getLongInput("Enter Course ID: ");
 
-        List<Student> students = studentService.getStudentsByCourse(courseId);
+        long count = reportService.forEachStudentInCourse(courseId, System.out::println);
 
-        if (students.isEmpty()) {
+        if (count == 0) {
             System.out.println("No students enrolled in this course.");
-        } else {
-            for (Student student : students) {
-                System.out.println(student);
+        }
+    }
+
+    private static void reconcileLedger() {
+        System.out.println("\n=== Reconcile Fee Ledger ===");
+        LedgerReconciliationReport report = ledgerReconciliationService.reconcile(false);
+
+        System.out.println("Students checked: " + report.getStudentsChecked());
+        System.out.println("Students with drift: " + report.getDrifts().size());
+        for (LedgerReconciliationReport.Drift drift : report.getDrifts()) {
+            System.out.println("  " + drift);
+        }
+
+        if (!report.getDrifts().isEmpty()) {
+            System.out.print("Repair drifted totals from the payments table? (yes/no): ");
+            scanner.nextLine(); // consume newline
+            String confirm = scanner.nextLine();
+
+            if (confirm.equalsIgnoreCase("yes")) {
+                report = ledgerReconciliationService.reconcile(true);
+                System.out.println("Repaired " + report.getRepaired() + " student(s).");
             }
         }
     }
 
+    private static void viewCourseEnrollmentSummary() {
+        System.out.println("\n=== Course Enrollment Summary ===");
+        long count = reportService.forEachCourseEnrollment(System.out::println);
+
+        if (count == 0) {
+            System.out.println("No courses found.");
+        }
+    }
+
+    private static void exportLedger() {
+        System.out.println("\n=== Export Payments Ledger ===");
+        scanner.nextLine(); // consume newline
+
+        System.out.print("Enter output directory: ");
+        String path = scanner.nextLine().trim();
+
+        LedgerExportReport report = ledgerExportService.export(Paths.get(path));
+        for (LedgerExportReport.Partition partition : report.getPartitions()) {
+            System.out.println("  " + partition);
+        }
+        System.out.println(report);
+    }
+
+    private static void archivePayments() {
+        System.out.println("\n=== Archive Old Payments ===");
+        System.out.println("Payments dated before " + paymentArchiveService.getCutoff().toLocalDate() +
+                " will be moved to the archive.");
+        System.out.print("Continue? (yes/no): ");
+        scanner.nextLine(); // consume newline
+        String confirm = scanner.nextLine();
+
+        if (confirm.equalsIgnoreCase("yes")) {
+            System.out.println(paymentArchiveService.archive());
+        }
+    }
+
+    private static void viewRevenueReport() {
+        System.out.println("\n=== Revenue by Date Range ===");
+        LocalDate from = getDateInput("Enter start date (yyyy-MM-dd): ");
+        LocalDate to = getDateInput("Enter end date (yyyy-MM-dd): ");
+
+        paymentRollupService.displayRevenueReport(from, to);
+    }
+
     // Utility methods
     private static int getIntInput(String prompt) {
         System.out.print(prompt);
@@ -452,21 +705,47 @@ public class Main {
         return scanner.nextLong();
     }
 
-    private static Double getDoubleInput(String prompt) {
+    // Rupee amount with at most two decimals, returned in paise
+    private static long getAmountInput(String prompt) {
         System.out.print(prompt);
-        while (!scanner.hasNextDouble()) {
-            scanner.next();
-            System.out.print("Invalid input! " + prompt);
+        while (true) {
+            try {
+                return Money.parse(scanner.next());
+            } catch (IllegalArgumentException e) {
+                System.out.print("Invalid input! " + prompt);
+            }
+        }
+    }
+
+    private static LocalDate getDateInput(String prompt) {
+        System.out.print(prompt);
+        while (true) {
+            try {
+                return LocalDate.parse(scanner.next());
+            } catch (DateTimeParseException e) {
+                System.out.print("Invalid input! " + prompt);
+            }
+        }
+    }
+
+    // Rejection count, then the first REJECTIONS_SHOWN rejections
+    private static void printRejections(List<?> rejections) {
+        System.out.println("Rejected: " + rejections.size());
+        for (int i = 0; i < rejections.size(); i++) {
+            if (i == REJECTIONS_SHOWN) {
+                System.out.println("... and " + (rejections.size() - REJECTIONS_SHOWN) + " more");
+                break;
+            }
+            System.out.println("  " + rejections.get(i));
         }
-        return scanner.nextDouble();
     }
 
     private static void initializeSampleData() {
         try {
             // Add sample courses
-            courseService.addCourse("Java Full Stack Development", 6, 45000.0);
-            courseService.addCourse("Python Data Science", 5, 40000.0);
-            courseService.addCourse("Web Development", 4, 35000.0);
+            courseService.addCourse("Java Full Stack Development", 6, Money.ofRupees(45000));
+            courseService.addCourse("Python Data Science", 5, Money.ofRupees(40000));
+            courseService.addCourse("Web Development", 4, Money.ofRupees(35000));
 
             // Add sample students
             studentService.addStudent("Rahul Sharma", "rahul.sharma@email.com");
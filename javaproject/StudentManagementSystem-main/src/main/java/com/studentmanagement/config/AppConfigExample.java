@@ -28,13 +28,16 @@ public class AppConfigExample {
     /**
      * DataSource Bean - Using HikariCP for connection pooling
      * Demonstrates Dependency Injection
+     *
+     * With -Dstudentmgmt.replica.url (and optionally .username/.password) a second
+     * pool is opened on a read replica and read-only transactions are routed to it.
      */
     @Bean
     public DataSource dataSource() {
         HikariDataSource dataSource = new HikariDataSource();
 
         // Database connection properties
-        dataSource.setJdbcUrl("jdbc:mysql://localhost:3306/student_management_db?createDatabaseIfNotExist=true");
+        dataSource.setJdbcUrl("jdbc:mysql://localhost:3306/student_management_db?createDatabaseIfNotExist=true&rewriteBatchedStatements=true&useCursorFetch=true");
         dataSource.setUsername("root");
         dataSource.setPassword("YOUR_MYSQL_PASSWORD_HERE"); // Change this to your MySQL password
         dataSource.setDriverClassName("com.mysql.cj.jdbc.Driver");
@@ -46,7 +49,25 @@ public class AppConfigExample {
         dataSource.setIdleTimeout(600000);
         dataSource.setPoolName("StudentMgmtHikariPool");
 
-        return dataSource;
+        String replicaUrl = System.getProperty("studentmgmt.replica.url");
+        if (replicaUrl == null || replicaUrl.isBlank()) {
+            return dataSource;
+        }
+
+        HikariDataSource replica = new HikariDataSource();
+        replica.setJdbcUrl(replicaUrl);
+        replica.setUsername(System.getProperty("studentmgmt.replica.username", dataSource.getUsername()));
+        replica.setPassword(System.getProperty("studentmgmt.replica.password", dataSource.getPassword()));
+        replica.setMaximumPoolSize(dataSource.getMaximumPoolSize());
+        replica.setMinimumIdle(dataSource.getMinimumIdle());
+        replica.setIdleTimeout(dataSource.getIdleTimeout());
+        replica.setReadOnly(true);
+        // Fail over to the primary quickly, and start even if the replica is down
+        replica.setConnectionTimeout(2000);
+        replica.setInitializationFailTimeout(-1);
+        replica.setPoolName("StudentMgmtReplicaPool");
+
+        return new ReplicaRoutingDataSource(dataSource, replica);
     }
 
     /**
@@ -60,8 +81,12 @@ public class AppConfigExample {
         // Inject DataSource dependency
         sessionFactory.setDataSource(dataSource());
 
-        // Scan entities
-        sessionFactory.setPackagesToScan("com.studentmanagement.model");
+        // Scan entities (listed explicitly in fast-start mode)
+        if (FastStart.isEnabled()) {
+            sessionFactory.setAnnotatedClasses(FastStart.ENTITY_CLASSES);
+        } else {
+            sessionFactory.setPackagesToScan("com.studentmanagement.model");
+        }
 
         // Hibernate properties
         sessionFactory.setHibernateProperties(hibernateProperties());
@@ -78,15 +103,17 @@ public class AppConfigExample {
         // Hibernate dialect for MySQL
         properties.setProperty("hibernate.dialect", "org.hibernate.dialect.MySQL8Dialect");
 
-        // Show SQL queries in console
-        properties.setProperty("hibernate.show_sql", "true");
-        properties.setProperty("hibernate.format_sql", "true");
+        // Show SQL queries in console (-Dstudentmgmt.showSql=false to turn off)
+        String showSql = System.getProperty("studentmgmt.showSql", "true");
+        properties.setProperty("hibernate.show_sql", showSql);
+        properties.setProperty("hibernate.format_sql", showSql);
 
         // Auto DDL - create tables automatically
         properties.setProperty("hibernate.hbm2ddl.auto", "update");
 
-        // Enable Hibernate statistics
-        properties.setProperty("hibernate.generate_statistics", "false");
+        // Hibernate statistics (cache hit/miss counts) only with metrics, as they cost on every session
+        properties.setProperty("hibernate.generate_statistics",
+                String.valueOf(Boolean.getBoolean(MetricsConfig.ENABLED_PROPERTY)));
 
         // Connection pool settings
         properties.setProperty("hibernate.connection.pool_size", "10");
@@ -94,8 +121,17 @@ public class AppConfigExample {
         // Enable batch processing
         properties.setProperty("hibernate.jdbc.batch_size", "20");
 
-        // Enable second level cache (optional)
-        properties.setProperty("hibernate.cache.use_second_level_cache", "false");
+        // Second level cache and query cache for Course (regions configured in ehcache.xml)
+        properties.setProperty("hibernate.cache.use_second_level_cache", "true");
+        properties.setProperty("hibernate.cache.use_query_cache", "true");
+        properties.setProperty("hibernate.cache.region.factory_class", "jcache");
+        properties.setProperty("hibernate.javax.cache.provider", "org.ehcache.jsr107.EhcacheCachingProvider");
+        properties.setProperty("hibernate.javax.cache.uri", "ehcache.xml");
+
+        // Fast start: no schema update or JDBC metadata probing at boot
+        if (FastStart.isEnabled()) {
+            FastStart.applyHibernateProperties(properties);
+        }
 
         return properties;
     }
@@ -0,0 +1,118 @@
+package com.studentmanagement.config;
+
+import com.studentmanagement.model.ArchivedPayment;
+import com.studentmanagement.model.Course;
+import com.studentmanagement.model.OutboxEvent;
+import com.studentmanagement.model.OutboxOffset;
+import com.studentmanagement.model.Payment;
+import com.studentmanagement.model.PaymentCarryForward;
+import com.studentmanagement.model.PaymentDailyRollup;
+import com.studentmanagement.model.StatementImport;
+import com.studentmanagement.model.Student;
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * Fast-start profile for short runs such as command mode, on with
+ * -Dstudentmgmt.fastStart=true. It trades start-up work for assumptions:
+ * <ul>
+ *   <li>entities are registered from ENTITY_CLASSES instead of scanning the model package;</li>
+ *   <li>hbm2ddl is off, so the schema must already exist (Schema.sql);</li>
+ *   <li>Hibernate does not probe the JDBC driver's metadata while booting;</li>
+ *   <li>the second-level cache regions are built in code rather than parsed from ehcache.xml
+ *       (the XML binding alone costs seconds on a cold JVM);</li>
+ *   <li>beans are created on first use, unless declared {@code @Lazy(false)}.</li>
+ * </ul>
+ * Component scanning itself is served from the compile-time index
+ * (META-INF/spring.components, written by spring-context-indexer) in every mode.
+ */
+public final class FastStart {
+
+    public static final String PROPERTY = "studentmgmt.fastStart";
+
+    /**
+     * Every entity class; keep in step with the model package
+     */
+    public static final Class<?>[] ENTITY_CLASSES = {
+            Course.class, Student.class, Payment.class, PaymentDailyRollup.class,
+            OutboxEvent.class, OutboxOffset.class, StatementImport.class,
+            ArchivedPayment.class, PaymentCarryForward.class
+    };
+
+    private FastStart() {
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(PROPERTY);
+    }
+
+    // Hibernate settings that replace boot-time discovery with fixed answers
+    public static void applyHibernateProperties(Properties properties) {
+        properties.setProperty("hibernate.hbm2ddl.auto", "none");
+        properties.setProperty("hibernate.temp.use_jdbc_metadata_defaults", "false");
+        properties.setProperty("hibernate.jdbc.use_get_generated_keys", "true");
+        properties.setProperty("hibernate.jdbc.use_scrollable_resultset", "true");
+        properties.remove("hibernate.javax.cache.uri");
+        properties.put("hibernate.javax.cache.cache_manager", createCacheManager());
+    }
+
+    /**
+     * The regions of ehcache.xml, built in code; keep the two in step.
+     * Hibernate closes the manager when the session factory shuts down.
+     */
+    static CacheManager createCacheManager() {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider)
+                Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        Duration tenMinutes = Duration.ofMinutes(10);
+        org.ehcache.config.Configuration configuration = ConfigurationBuilder.newConfigurationBuilder()
+                .withCache("course", region(1000, ExpiryPolicyBuilder.timeToLiveExpiration(tenMinutes)))
+                .withCache("course-queries", region(500, ExpiryPolicyBuilder.timeToLiveExpiration(tenMinutes)))
+                .withCache("default-query-results-region",
+                        region(100, ExpiryPolicyBuilder.timeToLiveExpiration(tenMinutes)))
+                .withCache("default-update-timestamps-region", region(1000, ExpiryPolicyBuilder.noExpiration()))
+                .build();
+        return provider.getCacheManager(provider.getDefaultURI(), configuration);
+    }
+
+    private static CacheConfiguration<Object, Object> region(long entries, ExpiryPolicy<Object, Object> expiry) {
+        return CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                ResourcePoolsBuilder.heap(entries))
+                .withExpiry(expiry)
+                .build();
+    }
+
+    /**
+     * Create and refresh a context for the given configuration classes, with
+     * lazily initialized beans when fast start is on.
+     */
+    public static AnnotationConfigApplicationContext createContext(Class<?>... componentClasses) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        if (isEnabled()) {
+            context.addBeanFactoryPostProcessor(beanFactory -> {
+                for (String name : beanFactory.getBeanDefinitionNames()) {
+                    BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                    if (definition instanceof AbstractBeanDefinition
+                            && ((AbstractBeanDefinition) definition).getLazyInit() == null) {
+                        definition.setLazyInit(true);
+                    }
+                }
+            });
+        }
+        context.register(componentClasses);
+        context.refresh();
+        return context;
+    }
+}
@@ -0,0 +1,94 @@
+package com.studentmanagement.config;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Slf4jReporter;
+import com.codahale.metrics.jmx.JmxReporter;
+import com.studentmanagement.metrics.HibernateStatisticsMetricSet;
+import com.studentmanagement.metrics.MetricsBeanPostProcessor;
+import org.hibernate.SessionFactory;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics for services, DAOs, the connection pool and Hibernate.
+ *
+ * Off by default; start the JVM with -Dstudentmgmt.metrics.enabled=true to
+ * turn it on. When off, none of these beans exist and no proxies are added.
+ * Metrics are published over JMX (domain "studentmgmt") and logged every
+ * studentmgmt.metrics.logIntervalSeconds seconds (default 60; 0 turns off the
+ * periodic log, leaving only a final summary at shutdown). The registering and
+ * reporting beans are never lazy, so they also start under FastStart.
+ */
+@Configuration
+@Conditional(MetricsConfig.MetricsEnabled.class)
+public class MetricsConfig {
+
+    public static final String ENABLED_PROPERTY = "studentmgmt.metrics.enabled";
+    public static final String LOG_INTERVAL_PROPERTY = "studentmgmt.metrics.logIntervalSeconds";
+
+    static class MetricsEnabled implements Condition {
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return context.getEnvironment().getProperty(ENABLED_PROPERTY, Boolean.class, false);
+        }
+    }
+
+    @Bean
+    public static MetricRegistry metricRegistry() {
+        return new MetricRegistry();
+    }
+
+    /**
+     * Times every public service and DAO method and instruments the Hikari pool
+     */
+    @Bean
+    public static MetricsBeanPostProcessor metricsBeanPostProcessor(MetricRegistry metricRegistry) {
+        return new MetricsBeanPostProcessor(metricRegistry);
+    }
+
+    /**
+     * Hibernate query, entity and cache statistics as gauges
+     */
+    @Bean
+    @Lazy(false)
+    public HibernateStatisticsMetricSet hibernateMetrics(MetricRegistry metricRegistry,
+                                                         SessionFactory sessionFactory) {
+        HibernateStatisticsMetricSet metricSet = new HibernateStatisticsMetricSet(sessionFactory);
+        metricRegistry.registerAll("hibernate", metricSet);
+        return metricSet;
+    }
+
+    @Bean(destroyMethod = "stop")
+    @Lazy(false)
+    public JmxReporter jmxReporter(MetricRegistry metricRegistry) {
+        JmxReporter reporter = JmxReporter.forRegistry(metricRegistry)
+                .inDomain("studentmgmt")
+                .convertDurationsTo(TimeUnit.MILLISECONDS)
+                .build();
+        reporter.start();
+        return reporter;
+    }
+
+    @Bean(destroyMethod = "stop")
+    @Lazy(false)
+    public Slf4jReporter logReporter(MetricRegistry metricRegistry, Environment environment) {
+        Slf4jReporter reporter = Slf4jReporter.forRegistry(metricRegistry)
+                .outputTo(LoggerFactory.getLogger("com.studentmanagement.metrics"))
+                .convertDurationsTo(TimeUnit.MILLISECONDS)
+                .build();
+        long interval = environment.getProperty(LOG_INTERVAL_PROPERTY, Long.class, 60L);
+        if (interval > 0) {
+            reporter.start(interval, TimeUnit.SECONDS);
+        }
+        return reporter;
+    }
+}
@@ -0,0 +1,130 @@
+package com.studentmanagement.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to a replica pool and everything else to the
+ * primary pool.
+ *
+ * Connections are handed out lazily: the pool is chosen at the first
+ * statement, once the transaction's read-only flag is known, not when the
+ * transaction begins. A read-only transaction still goes to the primary when
+ * the replica cannot hand out a connection (the replica is then skipped for
+ * RETRY_MILLIS), or when usePrimaryForThisTransaction() was called before its
+ * first statement, e.g. to read a student's own recent write.
+ *
+ * Closing this closes both pools.
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    // How long to use the primary alone after the replica failed to connect
+    public static final long RETRY_MILLIS = 30_000;
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    // Bound to a transaction that must read from the primary
+    private static final Object PRIMARY_PIN = new Object();
+
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+    private volatile long replicaDownUntil;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, HikariDataSource replica) {
+        this.primary = primary;
+        this.replica = replica;
+
+        Router router = new Router();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        targets.put(REPLICA, replica);
+        router.setTargetDataSources(targets);
+        router.setDefaultTargetDataSource(primary);
+        router.afterPropertiesSet();
+
+        // Connection defaults for the lazy proxies, so no connection is opened here
+        setDefaultAutoCommit(true);
+        setDefaultTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        setTargetDataSource(router);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Make the current read-only transaction read from the primary. Call it
+     * before the transaction's first statement; the pin ends with the transaction.
+     */
+    public static void usePrimaryForThisTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(PRIMARY_PIN)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(PRIMARY_PIN, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PRIMARY_PIN);
+            }
+        });
+    }
+
+    public HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    public HikariDataSource getReplica() {
+        return replica;
+    }
+
+    @Override
+    public void close() {
+        replica.close();
+        primary.close();
+    }
+
+    private boolean readFromReplica() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !TransactionSynchronizationManager.hasResource(PRIMARY_PIN)
+                && System.currentTimeMillis() >= replicaDownUntil;
+    }
+
+    private class Router extends AbstractRoutingDataSource {
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return readFromReplica() ? REPLICA : PRIMARY;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (readFromReplica()) {
+                try {
+                    return replica.getConnection();
+                } catch (SQLException e) {
+                    replicaDownUntil = System.currentTimeMillis() + RETRY_MILLIS;
+                    log.warn("Replica unavailable, reading from the primary for {} s: {}",
+                            RETRY_MILLIS / 1000, e.getMessage());
+                }
+            }
+            return primary.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    }
+}
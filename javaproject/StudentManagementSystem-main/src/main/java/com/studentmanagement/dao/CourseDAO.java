@@ -1,17 +1,26 @@
 package com.studentmanagement.dao;
 
 import com.studentmanagement.model.Course;
+import org.hibernate.Cache;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.query.Query;
+import org.hibernate.stat.CacheRegionStatistics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 @Repository
 public class CourseDAO {
 
+    private static final int STREAM_FETCH_SIZE = 100;
+
     @Autowired
     private SessionFactory sessionFactory;
 
@@ -31,15 +40,41 @@ public class CourseDAO {
     public List<Course> getAll() {
         Session session = sessionFactory.getCurrentSession();
         Query<Course> query = session.createQuery("FROM Course", Course.class);
+        query.setCacheable(true);
+        query.setCacheRegion(Course.QUERY_CACHE_REGION);
+        return query.getResultList();
+    }
+
+    // Read - Next page of courses after the given ID (keyset pagination)
+    public List<Course> getPage(Long afterId, int pageSize) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Course> query = session.createQuery(
+                "FROM Course WHERE courseId > :afterId ORDER BY courseId", Course.class);
+        query.setParameter("afterId", afterId != null ? afterId : 0L);
+        query.setMaxResults(pageSize);
         return query.getResultList();
     }
 
+    /**
+     * Stream all courses in ID order without materializing the table.
+     * The session is cleared every STREAM_FETCH_SIZE rows, so call this from a
+     * read-only transaction and don't hold on to the entities passed to the action.
+     * Returns the number of rows visited.
+     */
+    public long forEach(Consumer<Course> action) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Course> query = session.createQuery("FROM Course ORDER BY courseId", Course.class);
+        return scroll(session, query, action);
+    }
+
     // Read - Get by name
     public Course getByName(String courseName) {
         Session session = sessionFactory.getCurrentSession();
         Query<Course> query = session.createQuery(
                 "FROM Course WHERE courseName = :courseName", Course.class);
         query.setParameter("courseName", courseName);
+        query.setCacheable(true);
+        query.setCacheRegion(Course.QUERY_CACHE_REGION);
         return query.uniqueResult();
     }
 
@@ -57,4 +92,56 @@ public class CourseDAO {
             session.delete(course);
         }
     }
-}
\ No newline at end of file
+
+    // Read - All course IDs
+    public List<Long> getAllIds() {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Long> query = session.createQuery("SELECT courseId FROM Course", Long.class);
+        return query.getResultList();
+    }
+
+    /**
+     * Drop the cached copy of a course and the cached course queries once the
+     * current transaction commits, so other sessions never see a stale course.
+     */
+    public void evictFromCacheAfterCommit(Long courseId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                Cache cache = sessionFactory.getCache();
+                cache.evictEntityData(Course.class, courseId);
+                cache.evictQueryRegion(Course.QUERY_CACHE_REGION);
+            }
+        });
+    }
+
+    // Whether Hibernate collects statistics at all (hibernate.generate_statistics)
+    public boolean isStatisticsEnabled() {
+        return sessionFactory.getStatistics().isStatisticsEnabled();
+    }
+
+    // Cache statistics for the course entity region
+    public CacheRegionStatistics getEntityCacheStatistics() {
+        return sessionFactory.getStatistics().getDomainDataRegionStatistics(Course.CACHE_REGION);
+    }
+
+    // Cache statistics for the course query region
+    public CacheRegionStatistics getQueryCacheStatistics() {
+        return sessionFactory.getStatistics().getQueryRegionStatistics(Course.QUERY_CACHE_REGION);
+    }
+
+    private long scroll(Session session, Query<Course> query, Consumer<Course> action) {
+        query.setReadOnly(true);
+        query.setFetchSize(STREAM_FETCH_SIZE);
+        try (ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            long count = 0;
+            while (results.next()) {
+                action.accept((Course) results.get(0));
+                if (++count % STREAM_FETCH_SIZE == 0) {
+                    session.clear();
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.studentmanagement.dao;
+
+import com.studentmanagement.dto.ChangeEvent;
+import com.studentmanagement.model.OutboxEvent;
+import com.studentmanagement.model.OutboxOffset;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+public class OutboxDAO {
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    // Create
+    public void save(OutboxEvent event) {
+        Session session = sessionFactory.getCurrentSession();
+        session.save(event);
+    }
+
+    /**
+     * Bulk insert using a single JDBC batch, for changes that record many
+     * events at once. Events are identity-keyed, so Hibernate would insert
+     * them one statement at a time; see StudentDAO.batchInsert.
+     */
+    public void batchInsert(List<OutboxEvent> events) {
+        Session session = sessionFactory.getCurrentSession();
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO outbox_events (event_type, student_id, payload, created_at) VALUES (?, ?, ?, ?)")) {
+                for (OutboxEvent event : events) {
+                    statement.setString(1, event.getEventType().name());
+                    statement.setLong(2, event.getStudentId());
+                    statement.setString(3, event.getPayload());
+                    statement.setTimestamp(4, Timestamp.valueOf(event.getCreatedAt()));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    // Read - The oldest events not yet published, in eventId order
+    public List<OutboxEvent> getUnpublished(int maxEvents) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<OutboxEvent> query = session.createQuery(
+                "FROM OutboxEvent WHERE position IS NULL ORDER BY eventId", OutboxEvent.class);
+        query.setMaxResults(maxEvents);
+        return query.getResultList();
+    }
+
+    // Highest position handed out so far; 0 before the first publish
+    public long getLastPosition() {
+        Session session = sessionFactory.getCurrentSession();
+        return session.createQuery("SELECT COALESCE(MAX(position), 0L) FROM OutboxEvent", Long.class)
+                .uniqueResult();
+    }
+
+    // Read - Published events after a position, in position order
+    public List<ChangeEvent> getPublishedAfter(long position, int maxEvents) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<ChangeEvent> query = session.createQuery(
+                "SELECT new com.studentmanagement.dto.ChangeEvent(" +
+                        "e.position, e.eventType, e.studentId, e.createdAt, e.payload) " +
+                        "FROM OutboxEvent e WHERE e.position > :position ORDER BY e.position", ChangeEvent.class);
+        query.setParameter("position", position);
+        query.setMaxResults(maxEvents);
+        return query.getResultList();
+    }
+
+    // Read - A consumer's offset row, or null if it has never committed one
+    public OutboxOffset getOffset(String consumerName) {
+        Session session = sessionFactory.getCurrentSession();
+        return session.get(OutboxOffset.class, consumerName);
+    }
+
+    // Create or update a consumer's offset row
+    public void saveOffset(OutboxOffset offset) {
+        Session session = sessionFactory.getCurrentSession();
+        session.saveOrUpdate(offset);
+    }
+}
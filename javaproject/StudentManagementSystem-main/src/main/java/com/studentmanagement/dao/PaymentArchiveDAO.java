@@ -0,0 +1,144 @@
+package com.studentmanagement.dao;
+
+import com.studentmanagement.model.ArchivedPayment;
+import com.studentmanagement.model.Payment.PaymentType;
+import com.studentmanagement.model.PaymentCarryForward;
+import org.hibernate.LockMode;
+import org.hibernate.LockOptions;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class PaymentArchiveDAO {
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    // Read - Next IDs of payments dated before the cutoff, after the given ID, locking their rows
+    public List<Long> getIdsToArchiveForUpdate(LocalDateTime before, Long afterId, int max) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Long> query = session.createQuery(
+                "SELECT p.paymentId FROM Payment p WHERE p.paymentDate < :before " +
+                        "AND p.paymentId > :afterId ORDER BY p.paymentId", Long.class);
+        query.setParameter("before", before);
+        query.setParameter("afterId", afterId != null ? afterId : 0L);
+        query.setMaxResults(max);
+        query.setLockOptions(new LockOptions(LockMode.PESSIMISTIC_WRITE));
+        return query.getResultList();
+    }
+
+    /**
+     * Totals of the listed payments per student. Each row is
+     * {studentId, count, totalPaid, totalRefunded, latestPaymentDate}, amounts in paise.
+     */
+    public List<Object[]> getTotalsByStudent(Collection<Long> paymentIds) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Object[]> query = session.createQuery(
+                "SELECT p.student.studentId, COUNT(p), " +
+                        "SUM(CASE WHEN p.paymentType = :payment THEN p.amount ELSE 0L END), " +
+                        "SUM(CASE WHEN p.paymentType = :refund THEN p.amount ELSE 0L END), " +
+                        "MAX(p.paymentDate) " +
+                        "FROM Payment p WHERE p.paymentId IN (:ids) GROUP BY p.student.studentId",
+                Object[].class);
+        query.setParameter("payment", PaymentType.PAYMENT);
+        query.setParameter("refund", PaymentType.REFUND);
+        query.setParameterList("ids", paymentIds);
+        return query.getResultList();
+    }
+
+    /**
+     * Move the listed payments to payments_archive: one INSERT ... SELECT and
+     * one DELETE. Returns the number of payments moved.
+     */
+    public int moveToArchive(Collection<Long> paymentIds, LocalDateTime archivedAt) {
+        Session session = sessionFactory.getCurrentSession();
+        int copied = session.createNativeQuery(
+                        "INSERT INTO payments_archive (payment_id, student_id, amount, payment_date, " +
+                                "payment_type, description, course_id, idempotency_key, archived_at) " +
+                                "SELECT payment_id, student_id, amount, payment_date, payment_type, " +
+                                "description, course_id, idempotency_key, :archivedAt " +
+                                "FROM payments WHERE payment_id IN (:ids)")
+                // Only the archive changes here; keeps the other cache regions intact
+                .addSynchronizedEntityClass(ArchivedPayment.class)
+                .setParameter("archivedAt", archivedAt)
+                .setParameterList("ids", paymentIds)
+                .executeUpdate();
+        int deleted = session.createQuery("DELETE FROM Payment p WHERE p.paymentId IN (:ids)")
+                .setParameterList("ids", paymentIds)
+                .executeUpdate();
+        if (copied != deleted) {
+            throw new RuntimeException("Archived " + copied + " payments but removed " + deleted + "!");
+        }
+        return deleted;
+    }
+
+    // Read - Carry-forward rows of the listed students that have one, locked until the transaction ends
+    public Map<Long, PaymentCarryForward> getCarryForwardsForUpdate(Collection<Long> studentIds) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<PaymentCarryForward> query = session.createQuery(
+                "FROM PaymentCarryForward c WHERE c.studentId IN (:ids)", PaymentCarryForward.class);
+        query.setParameterList("ids", studentIds);
+        query.setLockOptions(new LockOptions(LockMode.PESSIMISTIC_WRITE));
+        return byStudent(query.getResultList());
+    }
+
+    // Read - Carry-forward rows of the listed students that have one
+    public Map<Long, PaymentCarryForward> getCarryForwards(Collection<Long> studentIds) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<PaymentCarryForward> query = session.createQuery(
+                "FROM PaymentCarryForward c WHERE c.studentId IN (:ids)", PaymentCarryForward.class);
+        query.setParameterList("ids", studentIds);
+        return byStudent(query.getResultList());
+    }
+
+    // Read - Carry-forward of one student; null when nothing of theirs was archived
+    public PaymentCarryForward getCarryForward(Long studentId) {
+        Session session = sessionFactory.getCurrentSession();
+        return session.get(PaymentCarryForward.class, studentId);
+    }
+
+    // Create
+    public void saveCarryForward(PaymentCarryForward carryForward) {
+        Session session = sessionFactory.getCurrentSession();
+        session.save(carryForward);
+    }
+
+    // Read - Archived payment posted under an idempotency key; null if there is none
+    public ArchivedPayment getByIdempotencyKey(String idempotencyKey) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<ArchivedPayment> query = session.createQuery(
+                "FROM ArchivedPayment a WHERE a.idempotencyKey = :idempotencyKey", ArchivedPayment.class);
+        query.setParameter("idempotencyKey", idempotencyKey);
+        return query.uniqueResult();
+    }
+
+    // Delete - A student's archived payments and carry-forward, before the student row goes
+    public void deleteByStudent(Long studentId) {
+        Session session = sessionFactory.getCurrentSession();
+        // Native: archived payments are immutable to HQL
+        session.createNativeQuery("DELETE FROM payments_archive WHERE student_id = :studentId")
+                .addSynchronizedEntityClass(ArchivedPayment.class)
+                .setParameter("studentId", studentId)
+                .executeUpdate();
+        session.createQuery("DELETE FROM PaymentCarryForward c WHERE c.studentId = :studentId")
+                .setParameter("studentId", studentId)
+                .executeUpdate();
+    }
+
+    private static Map<Long, PaymentCarryForward> byStudent(List<PaymentCarryForward> carryForwards) {
+        Map<Long, PaymentCarryForward> byStudent = new HashMap<>();
+        for (PaymentCarryForward carryForward : carryForwards) {
+            byStudent.put(carryForward.getStudentId(), carryForward);
+        }
+        return byStudent;
+    }
+}
@@ -1,17 +1,50 @@
 package com.studentmanagement.dao;
 
 import com.studentmanagement.model.Payment;
+import com.studentmanagement.model.Payment.PaymentType;
+import com.studentmanagement.model.PaymentDailyRollup;
+import com.studentmanagement.model.StatementImport;
+import org.hibernate.LockMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.query.Query;
+import org.hibernate.type.LocalDateType;
+import org.hibernate.type.LongType;
+import org.hibernate.type.StringType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @Repository
 public class PaymentDAO {
 
+    private static final int STREAM_FETCH_SIZE = 100;
+
+    // Rows per keyset page of each ledger table; rows are small and never become entities
+    private static final int LEDGER_PAGE_SIZE = 5_000;
+
+    // One payments row as plain column values, for forEachLedgerRow
+    @FunctionalInterface
+    public interface LedgerRowHandler {
+        void row(long paymentId, long studentId, LocalDateTime paymentDate, PaymentType paymentType,
+                 long amount, String description);
+    }
+
     @Autowired
     private SessionFactory sessionFactory;
 
@@ -27,6 +60,50 @@ public class PaymentDAO {
         return session.get(Payment.class, id);
     }
 
+    // Read - Payment posted under an idempotency key, with its student; null if there is none
+    public Payment getByIdempotencyKey(String idempotencyKey) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Payment> query = session.createQuery(
+                "FROM Payment p JOIN FETCH p.student WHERE p.idempotencyKey = :idempotencyKey", Payment.class);
+        query.setParameter("idempotencyKey", idempotencyKey);
+        return query.uniqueResult();
+    }
+
+    /**
+     * Which of the given idempotency keys have a payment already, live or
+     * archived, each with the {studentId, amount} it was posted for
+     */
+    public Map<String, Object[]> getUsedIdempotencyKeys(Collection<String> idempotencyKeys) {
+        Session session = sessionFactory.getCurrentSession();
+        List<Object[]> rows = new ArrayList<>(session.createQuery(
+                        "SELECT p.idempotencyKey, p.student.studentId, p.amount FROM Payment p " +
+                                "WHERE p.idempotencyKey IN (:keys)", Object[].class)
+                .setParameterList("keys", idempotencyKeys)
+                .getResultList());
+        rows.addAll(session.createQuery(
+                        "SELECT a.idempotencyKey, a.studentId, a.amount FROM ArchivedPayment a " +
+                                "WHERE a.idempotencyKey IN (:keys)", Object[].class)
+                .setParameterList("keys", idempotencyKeys)
+                .getResultList());
+        Map<String, Object[]> used = new HashMap<>();
+        for (Object[] row : rows) {
+            used.put((String) row[0], new Object[]{row[1], row[2]});
+        }
+        return used;
+    }
+
+    // Read - A statement import's checkpoint, locked until the transaction ends; null if it has none
+    public StatementImport getStatementImportForUpdate(String statementId) {
+        Session session = sessionFactory.getCurrentSession();
+        return session.get(StatementImport.class, statementId, LockMode.PESSIMISTIC_WRITE);
+    }
+
+    // Create or update a statement import's checkpoint
+    public void saveStatementImport(StatementImport statementImport) {
+        Session session = sessionFactory.getCurrentSession();
+        session.saveOrUpdate(statementImport);
+    }
+
     // Read - Get all payments
     public List<Payment> getAll() {
         Session session = sessionFactory.getCurrentSession();
@@ -34,35 +111,340 @@ public class PaymentDAO {
         return query.getResultList();
     }
 
-    // Read - Get payments by student
+    // Read - Next page of payments after the given ID (keyset pagination)
+    public List<Payment> getPage(Long afterId, int pageSize) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Payment> query = session.createQuery(
+                "FROM Payment WHERE paymentId > :afterId ORDER BY paymentId", Payment.class);
+        query.setParameter("afterId", afterId != null ? afterId : 0L);
+        query.setMaxResults(pageSize);
+        return query.getResultList();
+    }
+
+    /**
+     * Stream all payments in ID order without materializing the table.
+     * The session is cleared every STREAM_FETCH_SIZE rows, so call this from a
+     * read-only transaction and don't hold on to the entities passed to the action.
+     * Returns the number of rows visited.
+     */
+    public long forEach(Consumer<Payment> action) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Payment> query = session.createQuery("FROM Payment ORDER BY paymentId", Payment.class);
+        return scroll(session, query, action);
+    }
+
+    /**
+     * Stream every payment, archived ones included, in (payment_date, payment_id)
+     * order through plain JDBC on the current transaction's connection: no
+     * entities, no session cache. Each table is read in keyset pages of
+     * LEDGER_PAGE_SIZE rows, one statement per page, so memory stays bounded
+     * whatever the driver's fetch settings and no result set stays open between pages.
+     * The archive and the live table are paged side by side and merged, so the
+     * dates never go backwards even across the two tables. Call from a
+     * read-only transaction (a consistent snapshot on MySQL's REPEATABLE READ);
+     * returns the row count. The idempotency key is not read.
+     */
+    public long forEachLedgerRow(LedgerRowHandler handler) {
+        Session session = sessionFactory.getCurrentSession();
+        return session.doReturningWork(connection -> {
+            LedgerCursor archived = new LedgerCursor(connection, "payments_archive");
+            LedgerCursor live = new LedgerCursor(connection, "payments");
+            long count = 0;
+            while (archived.hasRow() || live.hasRow()) {
+                LedgerCursor next = !live.hasRow() || archived.hasRow() && archived.row().isBefore(live.row())
+                        ? archived : live;
+                LedgerRow row = next.row();
+                handler.row(row.paymentId, row.studentId, row.paymentDate, row.paymentType, row.amount,
+                        row.description);
+                next.advance();
+                count++;
+            }
+            return count;
+        });
+    }
+
+    // Read - Get payments by student (live payments only; see PaymentArchiveService)
     public List<Payment> getPaymentsByStudent(Long studentId) {
         Session session = sessionFactory.getCurrentSession();
         Query<Payment> query = session.createQuery(
-                "FROM Payment WHERE student.studentId = :studentId ORDER BY paymentDate DESC",
+                "FROM Payment WHERE student.studentId = :studentId ORDER BY paymentDate DESC, paymentId DESC",
                 Payment.class);
         query.setParameter("studentId", studentId);
         return query.getResultList();
     }
 
-    // Get total payments for a student
-    public Double getTotalPayments(Long studentId) {
+    // Get total payments for a student, in paise, including the archived carry-forward
+    public long getTotalPayments(Long studentId) {
         Session session = sessionFactory.getCurrentSession();
-        Query<Double> query = session.createQuery(
-                "SELECT COALESCE(SUM(amount), 0.0) FROM Payment " +
+        Query<Long> query = session.createQuery(
+                "SELECT COALESCE(SUM(amount), 0L) FROM Payment " +
                         "WHERE student.studentId = :studentId AND paymentType = 'PAYMENT'",
-                Double.class);
+                Long.class);
         query.setParameter("studentId", studentId);
-        return query.uniqueResult();
+        Query<Long> carriedForward = session.createQuery(
+                "SELECT COALESCE(SUM(totalPaid), 0L) FROM PaymentCarryForward WHERE studentId = :studentId",
+                Long.class);
+        carriedForward.setParameter("studentId", studentId);
+        return query.uniqueResult() + carriedForward.uniqueResult();
     }
 
-    // Get total refunds for a student
-    public Double getTotalRefunds(Long studentId) {
+    // Get total refunds for a student, in paise, including the archived carry-forward
+    public long getTotalRefunds(Long studentId) {
         Session session = sessionFactory.getCurrentSession();
-        Query<Double> query = session.createQuery(
-                "SELECT COALESCE(SUM(amount), 0.0) FROM Payment " +
+        Query<Long> query = session.createQuery(
+                "SELECT COALESCE(SUM(amount), 0L) FROM Payment " +
                         "WHERE student.studentId = :studentId AND paymentType = 'REFUND'",
-                Double.class);
+                Long.class);
         query.setParameter("studentId", studentId);
-        return query.uniqueResult();
+        Query<Long> carriedForward = session.createQuery(
+                "SELECT COALESCE(SUM(totalRefunded), 0L) FROM PaymentCarryForward WHERE studentId = :studentId",
+                Long.class);
+        carriedForward.setParameter("studentId", studentId);
+        return query.uniqueResult() + carriedForward.uniqueResult();
+    }
+
+    /**
+     * Ledger totals recomputed from the payments table for a set of students.
+     * Each row is {studentId, totalPaid, totalRefunded} in paise; students without
+     * payments are omitted.
+     */
+    public List<Object[]> getLedgerTotals(List<Long> studentIds) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Object[]> query = session.createQuery(
+                "SELECT student.studentId, " +
+                        "SUM(CASE WHEN paymentType = :payment THEN amount ELSE 0L END), " +
+                        "SUM(CASE WHEN paymentType = :refund THEN amount ELSE 0L END) " +
+                        "FROM Payment WHERE student.studentId IN (:studentIds) " +
+                        "GROUP BY student.studentId",
+                Object[].class);
+        query.setParameter("payment", PaymentType.PAYMENT);
+        query.setParameter("refund", PaymentType.REFUND);
+        query.setParameterList("studentIds", studentIds);
+        return query.getResultList();
+    }
+
+    // Add postings to a day's rollup row, creating the row if needed
+    public void incrementDailyRollup(LocalDate date, long courseId, PaymentType type, long count, long amount) {
+        Session session = sessionFactory.getCurrentSession();
+        session.createNativeQuery(
+                "INSERT INTO payment_daily_rollup " +
+                        "(rollup_date, course_id, payment_type, payment_count, total_amount) " +
+                        "VALUES (:date, :courseId, :type, :count, :amount) " +
+                        "ON DUPLICATE KEY UPDATE payment_count = payment_count + VALUES(payment_count), " +
+                        "total_amount = total_amount + VALUES(total_amount)")
+                // Only the rollup table changes; keeps the second-level cache intact
+                .addSynchronizedEntityClass(PaymentDailyRollup.class)
+                .setParameter("date", date)
+                .setParameter("courseId", courseId)
+                .setParameter("type", type.name())
+                .setParameter("count", count)
+                .setParameter("amount", amount)
+                .executeUpdate();
+    }
+
+    // Read - Rollup rows between two dates (inclusive), by date, course and type
+    public List<PaymentDailyRollup> getDailyRollup(LocalDate from, LocalDate to) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<PaymentDailyRollup> query = session.createQuery(
+                "FROM PaymentDailyRollup WHERE rollupDate BETWEEN :from AND :to " +
+                        "ORDER BY rollupDate, courseId, paymentType", PaymentDailyRollup.class);
+        query.setParameter("from", from);
+        query.setParameter("to", to);
+        query.setReadOnly(true);
+        return query.getResultList();
+    }
+
+    /**
+     * Totals per payment type between two dates (inclusive), answered from the rollup.
+     * Each row is {paymentType, paymentCount, totalAmount in paise}.
+     */
+    public List<Object[]> getRollupTotals(LocalDate from, LocalDate to) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Object[]> query = session.createQuery(
+                "SELECT paymentType, SUM(paymentCount), SUM(totalAmount) FROM PaymentDailyRollup " +
+                        "WHERE rollupDate BETWEEN :from AND :to GROUP BY paymentType ORDER BY paymentType",
+                Object[].class);
+        query.setParameter("from", from);
+        query.setParameter("to", to);
+        return query.getResultList();
+    }
+
+    /**
+     * Earliest and latest payment dates, live or archived, as {LocalDateTime, LocalDateTime};
+     * both null when there are no payments.
+     */
+    public Object[] getPaymentDateRange() {
+        Session session = sessionFactory.getCurrentSession();
+        Object[] live = session.createQuery(
+                "SELECT MIN(paymentDate), MAX(paymentDate) FROM Payment", Object[].class).uniqueResult();
+        Object[] archived = session.createQuery(
+                "SELECT MIN(paymentDate), MAX(paymentDate) FROM ArchivedPayment", Object[].class).uniqueResult();
+        if (archived[0] == null) {
+            return live;
+        }
+        if (live[0] == null) {
+            return archived;
+        }
+        LocalDateTime liveFirst = (LocalDateTime) live[0];
+        LocalDateTime liveLast = (LocalDateTime) live[1];
+        LocalDateTime archivedFirst = (LocalDateTime) archived[0];
+        LocalDateTime archivedLast = (LocalDateTime) archived[1];
+        return new Object[] {
+                archivedFirst.isBefore(liveFirst) ? archivedFirst : liveFirst,
+                archivedLast.isAfter(liveLast) ? archivedLast : liveLast};
+    }
+
+    /**
+     * Recompute the rollup rows for a date range (inclusive) from the payments
+     * table and the payment archive. Existing rows in the range are replaced.
+     * Payments count under the course stored on them at posting time, as
+     * incremental maintenance does. Returns the number of rollup rows written.
+     */
+    public int rebuildDailyRollup(LocalDate from, LocalDate to) {
+        Session session = sessionFactory.getCurrentSession();
+        session.createQuery("DELETE FROM PaymentDailyRollup WHERE rollupDate BETWEEN :from AND :to")
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .executeUpdate();
+        return session.createNativeQuery(
+                "INSERT INTO payment_daily_rollup " +
+                        "(rollup_date, course_id, payment_type, payment_count, total_amount) " +
+                        "SELECT CAST(p.payment_date AS DATE), COALESCE(p.course_id, 0), p.payment_type, " +
+                        "COUNT(*), SUM(p.amount) " +
+                        "FROM (SELECT course_id, payment_date, payment_type, amount FROM payments " +
+                        "WHERE payment_date >= :from AND payment_date < :to " +
+                        "UNION ALL SELECT course_id, payment_date, payment_type, amount FROM payments_archive " +
+                        "WHERE payment_date >= :from AND payment_date < :to) p " +
+                        "GROUP BY CAST(p.payment_date AS DATE), COALESCE(p.course_id, 0), p.payment_type")
+                .addSynchronizedEntityClass(PaymentDailyRollup.class)
+                .setParameter("from", from.atStartOfDay())
+                .setParameter("to", to.plusDays(1).atStartOfDay())
+                .executeUpdate();
+    }
+
+    /**
+     * Take a student's live and archived postings back out of the rollup, so
+     * it still matches a rebuild once they are deleted with the student. Rows
+     * left without postings are removed.
+     */
+    public void subtractFromDailyRollup(Long studentId) {
+        Session session = sessionFactory.getCurrentSession();
+        List<Object[]> rows = session.createNativeQuery(
+                        "SELECT CAST(p.payment_date AS DATE) AS rollup_date, COALESCE(p.course_id, 0) AS course_id, " +
+                                "p.payment_type AS payment_type, COUNT(*) AS payment_count, SUM(p.amount) AS total_amount " +
+                                "FROM (SELECT course_id, payment_date, payment_type, amount FROM payments " +
+                                "WHERE student_id = :studentId " +
+                                "UNION ALL SELECT course_id, payment_date, payment_type, amount FROM payments_archive " +
+                                "WHERE student_id = :studentId) p " +
+                                "GROUP BY CAST(p.payment_date AS DATE), COALESCE(p.course_id, 0), p.payment_type " +
+                                "ORDER BY 1, 2, 3")
+                .addScalar("rollup_date", LocalDateType.INSTANCE)
+                .addScalar("course_id", LongType.INSTANCE)
+                .addScalar("payment_type", StringType.INSTANCE)
+                .addScalar("payment_count", LongType.INSTANCE)
+                .addScalar("total_amount", LongType.INSTANCE)
+                .setParameter("studentId", studentId)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return;
+        }
+        // In key order, like the increments of a posting
+        for (Object[] row : rows) {
+            incrementDailyRollup((LocalDate) row[0], (Long) row[1], PaymentType.valueOf((String) row[2]),
+                    -(Long) row[3], -(Long) row[4]);
+        }
+        session.createQuery("DELETE FROM PaymentDailyRollup WHERE paymentCount = 0").executeUpdate();
+    }
+
+    private long scroll(Session session, Query<Payment> query, Consumer<Payment> action) {
+        query.setReadOnly(true);
+        query.setFetchSize(STREAM_FETCH_SIZE);
+        try (ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            long count = 0;
+            while (results.next()) {
+                action.accept((Payment) results.get(0));
+                if (++count % STREAM_FETCH_SIZE == 0) {
+                    session.clear();
+                }
+            }
+            return count;
+        }
+    }
+
+    // One ledger row, as read from either table
+    private static final class LedgerRow {
+        final long paymentId;
+        final long studentId;
+        final LocalDateTime paymentDate;
+        final PaymentType paymentType;
+        final long amount;
+        final String description;
+
+        LedgerRow(ResultSet rows) throws SQLException {
+            paymentId = rows.getLong(1);
+            studentId = rows.getLong(2);
+            paymentDate = rows.getTimestamp(3).toLocalDateTime();
+            paymentType = PaymentType.valueOf(rows.getString(4));
+            amount = rows.getLong(5);
+            description = rows.getString(6);
+        }
+
+        boolean isBefore(LedgerRow other) {
+            int byDate = paymentDate.compareTo(other.paymentDate);
+            return byDate < 0 || byDate == 0 && paymentId < other.paymentId;
+        }
+    }
+
+    // One ledger table read page by page in (payment_date, payment_id) order; holds only the current page
+    private static final class LedgerCursor {
+        private final Connection connection;
+        private final String table;
+        private final List<LedgerRow> page = new ArrayList<>(LEDGER_PAGE_SIZE);
+        private int position;
+
+        LedgerCursor(Connection connection, String table) throws SQLException {
+            this.connection = connection;
+            this.table = table;
+            fetchAfter(null);
+        }
+
+        boolean hasRow() {
+            return position < page.size();
+        }
+
+        LedgerRow row() {
+            return page.get(position);
+        }
+
+        void advance() throws SQLException {
+            position++;
+            // A short page was the last one
+            if (position == page.size() && page.size() == LEDGER_PAGE_SIZE) {
+                fetchAfter(page.get(position - 1));
+            }
+        }
+
+        // The page after the given row, or the first page when it is null
+        private void fetchAfter(LedgerRow last) throws SQLException {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT payment_id, student_id, payment_date, payment_type, amount, description " +
+                            "FROM " + table +
+                            (last == null ? "" : " WHERE payment_date > ? OR (payment_date = ? AND payment_id > ?)") +
+                            " ORDER BY payment_date, payment_id LIMIT " + LEDGER_PAGE_SIZE)) {
+                if (last != null) {
+                    Timestamp paymentDate = Timestamp.valueOf(last.paymentDate);
+                    statement.setTimestamp(1, paymentDate);
+                    statement.setTimestamp(2, paymentDate);
+                    statement.setLong(3, last.paymentId);
+                }
+                page.clear();
+                position = 0;
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        page.add(new LedgerRow(rows));
+                    }
+                }
+            }
+        }
     }
-}
\ No newline at end of file
+}
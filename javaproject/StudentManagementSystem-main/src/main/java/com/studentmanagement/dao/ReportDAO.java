@@ -0,0 +1,192 @@
+package com.studentmanagement.dao;
+
+import com.studentmanagement.dto.CourseEnrollmentSummary;
+import com.studentmanagement.dto.CourseSummary;
+import com.studentmanagement.dto.PaymentSummary;
+import com.studentmanagement.dto.StudentSummary;
+import com.studentmanagement.model.Payment.PaymentType;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Read-only report queries that return DTO projections instead of entities.
+ *
+ * Queries run in a StatelessSession bound to the current transaction's
+ * connection, so nothing is added to a persistence context and there are no
+ * snapshots to dirty-check. Call from a read-only transaction.
+ */
+@Repository
+public class ReportDAO {
+
+    private static final int STREAM_FETCH_SIZE = 100;
+
+    private static final String COURSE_SUMMARY =
+            "SELECT new com.studentmanagement.dto.CourseSummary(" +
+                    "c.courseId, c.courseName, c.duration, c.fee, COUNT(s.studentId)) " +
+                    "FROM Course c LEFT JOIN c.students s ";
+
+    private static final String COURSE_SUMMARY_GROUP_BY =
+            "GROUP BY c.courseId, c.courseName, c.duration, c.fee ";
+
+    private static final String STUDENT_SUMMARY =
+            "SELECT new com.studentmanagement.dto.StudentSummary(" +
+                    "s.studentId, s.name, s.email, c.courseName, s.balance) " +
+                    "FROM Student s LEFT JOIN s.course c ";
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    // One student, or null if there is none with this ID
+    public StudentSummary getStudent(Long studentId) {
+        return withStatelessSession(session -> session.createQuery(
+                        STUDENT_SUMMARY + "WHERE s.studentId = :studentId", StudentSummary.class)
+                .setParameter("studentId", studentId)
+                .uniqueResult());
+    }
+
+    // Stream all students in ID order
+    public long forEachStudent(Consumer<StudentSummary> action) {
+        return withStatelessSession(session -> scroll(session.createQuery(
+                STUDENT_SUMMARY + "ORDER BY s.studentId", StudentSummary.class), action));
+    }
+
+    // Stream the students enrolled in a course, in ID order
+    public long forEachStudentInCourse(Long courseId, Consumer<StudentSummary> action) {
+        return withStatelessSession(session -> {
+            Query<StudentSummary> query = session.createQuery(
+                    STUDENT_SUMMARY + "WHERE c.courseId = :courseId ORDER BY s.studentId", StudentSummary.class);
+            query.setParameter("courseId", courseId);
+            return scroll(query, action);
+        });
+    }
+
+    // Stream all courses with their enrolled counts, in ID order
+    public long forEachCourse(Consumer<CourseSummary> action) {
+        return withStatelessSession(session -> scroll(session.createQuery(
+                COURSE_SUMMARY + COURSE_SUMMARY_GROUP_BY + "ORDER BY c.courseId", CourseSummary.class), action));
+    }
+
+    // One course with its enrolled count, or null if there is none with this ID
+    public CourseSummary getCourse(Long courseId) {
+        return withStatelessSession(session -> session.createQuery(
+                        COURSE_SUMMARY + "WHERE c.courseId = :courseId " + COURSE_SUMMARY_GROUP_BY, CourseSummary.class)
+                .setParameter("courseId", courseId)
+                .uniqueResult());
+    }
+
+    /**
+     * Stream every course's enrollment and fee position, in ID order.
+     * One grouped query; collections come from the running totals kept on
+     * each student, so the payments table is not scanned.
+     */
+    public long forEachCourseEnrollment(Consumer<CourseEnrollmentSummary> action) {
+        return withStatelessSession(session -> scroll(session.createQuery(
+                "SELECT new com.studentmanagement.dto.CourseEnrollmentSummary(" +
+                        "c.courseId, c.courseName, c.fee, COUNT(s.studentId), " +
+                        "SUM(s.totalPaid), SUM(s.totalRefunded)) " +
+                        "FROM Course c LEFT JOIN c.students s " +
+                        "GROUP BY c.courseId, c.courseName, c.fee " +
+                        "ORDER BY c.courseId", CourseEnrollmentSummary.class), action));
+    }
+
+    // Payments and refunds of a student, newest first
+    public List<PaymentSummary> getPaymentsByStudent(Long studentId) {
+        return withStatelessSession(session -> {
+            Query<PaymentSummary> query = session.createQuery(
+                    "SELECT new com.studentmanagement.dto.PaymentSummary(" +
+                            "p.paymentId, p.student.studentId, p.amount, p.paymentDate, p.paymentType, p.description) " +
+                            "FROM Payment p WHERE p.student.studentId = :studentId " +
+                            "ORDER BY p.paymentDate DESC, p.paymentId DESC", PaymentSummary.class);
+            query.setParameter("studentId", studentId);
+            return query.getResultList();
+        });
+    }
+
+    // Archived payments and refunds of a student, newest first
+    public List<PaymentSummary> getArchivedPaymentsByStudent(Long studentId) {
+        return withStatelessSession(session -> {
+            Query<PaymentSummary> query = session.createQuery(
+                    "SELECT new com.studentmanagement.dto.PaymentSummary(" +
+                            "a.paymentId, a.studentId, a.amount, a.paymentDate, a.paymentType, a.description) " +
+                            "FROM ArchivedPayment a WHERE a.studentId = :studentId " +
+                            "ORDER BY a.paymentDate DESC, a.paymentId DESC", PaymentSummary.class);
+            query.setParameter("studentId", studentId);
+            return query.getResultList();
+        });
+    }
+
+    /**
+     * Up to max payments of a student, newest first by (paymentDate, paymentId),
+     * from the live or the archived table, starting after the given position
+     * (null for the first page). A seek on the (student_id, payment_date,
+     * payment_id) index, so the cost does not grow with the position. The
+     * student is the driving row of the same query: returns null when there
+     * is no such student, and an empty list when the student has nothing here.
+     */
+    public List<PaymentSummary> getPaymentPage(Long studentId, boolean archived,
+                                               LocalDateTime beforeDate, Long beforeId, int max) {
+        String hql = "SELECT s.studentId, p.paymentId, p.amount, p.paymentDate, p.paymentType, p.description " +
+                "FROM Student s LEFT JOIN " + (archived
+                        ? "ArchivedPayment p ON p.studentId = s.studentId "
+                        : "Payment p ON p.student = s ") +
+                (beforeDate == null ? "" : "AND (p.paymentDate < :beforeDate " +
+                        "OR (p.paymentDate = :beforeDate AND p.paymentId < :beforeId)) ") +
+                "WHERE s.studentId = :studentId ORDER BY p.paymentDate DESC, p.paymentId DESC";
+        List<Object[]> rows = withStatelessSession(session -> {
+            Query<Object[]> query = session.createQuery(hql, Object[].class);
+            query.setParameter("studentId", studentId);
+            if (beforeDate != null) {
+                query.setParameter("beforeDate", beforeDate);
+                query.setParameter("beforeId", beforeId);
+            }
+            query.setMaxResults(max);
+            return query.getResultList();
+        });
+        if (rows.isEmpty()) {
+            return null;
+        }
+        List<PaymentSummary> payments = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            // A student without payments here comes back as one row of nulls
+            if (row[1] != null) {
+                payments.add(new PaymentSummary((Long) row[1], (Long) row[0], (Long) row[2],
+                        (LocalDateTime) row[3], (PaymentType) row[4], (String) row[5]));
+            }
+        }
+        return payments;
+    }
+
+    private <T> T withStatelessSession(Function<StatelessSession, T> work) {
+        // Borrow the transaction's connection so the read stays inside it
+        Connection connection = sessionFactory.getCurrentSession().doReturningWork(jdbc -> jdbc);
+        try (StatelessSession session = sessionFactory.withStatelessOptions()
+                .connection(connection).openStatelessSession()) {
+            return work.apply(session);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> long scroll(Query<T> query, Consumer<T> action) {
+        query.setFetchSize(STREAM_FETCH_SIZE);
+        try (ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            long count = 0;
+            while (results.next()) {
+                action.accept((T) results.get(0));
+                count++;
+            }
+            return count;
+        }
+    }
+}
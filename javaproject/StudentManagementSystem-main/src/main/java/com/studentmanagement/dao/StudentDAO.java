@@ -1,17 +1,35 @@
 package com.studentmanagement.dao;
 
+import com.studentmanagement.dto.StudentMatch;
+import com.studentmanagement.model.Course;
 import com.studentmanagement.model.Student;
+import org.hibernate.LockMode;
+import org.hibernate.LockOptions;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.graph.GraphSemantic;
 import org.hibernate.query.Query;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @Repository
 public class StudentDAO {
 
+    private static final int STREAM_FETCH_SIZE = 100;
+
     @Autowired
     private SessionFactory sessionFactory;
 
@@ -21,19 +39,85 @@ public class StudentDAO {
         session.save(student);
     }
 
-    // Read - Get by ID
+    // Read - Get by ID (student columns only, course left lazy)
     public Student getById(Long id) {
         Session session = sessionFactory.getCurrentSession();
         return session.get(Student.class, id);
     }
 
-    // Read - Get all students
+    // Read - Get by ID with the associations named by the fetch plan
+    public Student getById(Long id, StudentFetchPlan plan) {
+        Session session = sessionFactory.getCurrentSession();
+        if (plan.getGraphName() == null) {
+            return session.get(Student.class, id);
+        }
+        return session.find(Student.class, id, Collections.singletonMap(
+                GraphSemantic.FETCH.getJpaHintName(), session.getEntityGraph(plan.getGraphName())));
+    }
+
+    // Read - Get by ID and lock the row until the transaction ends (SELECT ... FOR UPDATE)
+    public Student getByIdForUpdate(Long id) {
+        Session session = sessionFactory.getCurrentSession();
+        return session.get(Student.class, id, LockMode.PESSIMISTIC_WRITE);
+    }
+
+    // Read - Get all students with their courses
     public List<Student> getAll() {
+        return getAll(StudentFetchPlan.WITH_COURSE);
+    }
+
+    // Read - Get all students with the associations named by the fetch plan
+    public List<Student> getAll(StudentFetchPlan plan) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Student> query = session.createQuery(
+                "SELECT DISTINCT s FROM Student s ORDER BY s.studentId", Student.class);
+        return applyFetchPlan(session, query, plan).getResultList();
+    }
+
+    // Read - Next page of students (with courses) after the given ID (keyset pagination)
+    public List<Student> getPage(Long afterId, int pageSize) {
         Session session = sessionFactory.getCurrentSession();
-        Query<Student> query = session.createQuery("FROM Student", Student.class);
+        Query<Student> query = session.createQuery(
+                "SELECT s FROM Student s LEFT JOIN FETCH s.course " +
+                        "WHERE s.studentId > :afterId ORDER BY s.studentId", Student.class);
+        query.setParameter("afterId", afterId != null ? afterId : 0L);
+        query.setMaxResults(pageSize);
         return query.getResultList();
     }
 
+    /**
+     * Stream all students (with courses) in ID order without materializing the table.
+     * The session is cleared every STREAM_FETCH_SIZE rows, so call this from a
+     * read-only transaction and don't hold on to the entities passed to the action.
+     * Returns the number of rows visited.
+     */
+    public long forEach(Consumer<Student> action) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Student> query = session.createQuery(
+                "SELECT s FROM Student s LEFT JOIN FETCH s.course ORDER BY s.studentId", Student.class);
+        return scroll(session, query, action);
+    }
+
+    /**
+     * Stream the ID, name and email of every student in ID order, for the
+     * search index. Call from a read-only transaction; returns the row count.
+     */
+    public long forEachMatch(Consumer<StudentMatch> action) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<StudentMatch> query = session.createQuery(
+                "SELECT new com.studentmanagement.dto.StudentMatch(s.studentId, s.name, s.email) " +
+                        "FROM Student s ORDER BY s.studentId", StudentMatch.class);
+        query.setFetchSize(STREAM_FETCH_SIZE);
+        try (ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            long count = 0;
+            while (results.next()) {
+                action.accept((StudentMatch) results.get(0));
+                count++;
+            }
+            return count;
+        }
+    }
+
     // Read - Get by email
     public Student getByEmail(String email) {
         Session session = sessionFactory.getCurrentSession();
@@ -43,13 +127,46 @@ public class StudentDAO {
         return query.uniqueResult();
     }
 
-    // Read - Get students by course
+    // Read - Students with any of the given IDs or emails; one query per kind, so each can use its index
+    public List<Student> getByIdsOrEmails(Collection<Long> ids, Collection<String> emails) {
+        Session session = sessionFactory.getCurrentSession();
+        List<Student> students = new ArrayList<>();
+        if (!ids.isEmpty()) {
+            students.addAll(session.createQuery("FROM Student s WHERE s.studentId IN (:ids)", Student.class)
+                    .setParameterList("ids", ids)
+                    .getResultList());
+        }
+        if (!emails.isEmpty()) {
+            students.addAll(session.createQuery("FROM Student s WHERE s.email IN (:emails)", Student.class)
+                    .setParameterList("emails", emails)
+                    .getResultList());
+        }
+        return students;
+    }
+
+    // Read - Get students by course, with the course
     public List<Student> getStudentsByCourse(Long courseId) {
+        return getStudentsByCourse(courseId, StudentFetchPlan.WITH_COURSE);
+    }
+
+    // Read - Get students by course with the associations named by the fetch plan
+    public List<Student> getStudentsByCourse(Long courseId, StudentFetchPlan plan) {
         Session session = sessionFactory.getCurrentSession();
         Query<Student> query = session.createQuery(
-                "FROM Student WHERE course.courseId = :courseId", Student.class);
+                "SELECT DISTINCT s FROM Student s WHERE s.course.courseId = :courseId ORDER BY s.studentId",
+                Student.class);
         query.setParameter("courseId", courseId);
-        return query.getResultList();
+        return applyFetchPlan(session, query, plan).getResultList();
+    }
+
+    // Read - Stream students by course, with the course
+    public long forEachByCourse(Long courseId, Consumer<Student> action) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Student> query = session.createQuery(
+                "SELECT s FROM Student s LEFT JOIN FETCH s.course " +
+                        "WHERE s.course.courseId = :courseId ORDER BY s.studentId", Student.class);
+        query.setParameter("courseId", courseId);
+        return scroll(session, query, action);
     }
 
     // Update
@@ -58,6 +175,52 @@ public class StudentDAO {
         session.update(student);
     }
 
+    /**
+     * Current course ID of each listed student that exists (null when not
+     * enrolled), locking the student rows until the transaction ends so a bulk
+     * enrollment decides and updates on the same state.
+     */
+    public Map<Long, Long> getCourseIdsForUpdate(Collection<Long> ids) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Object[]> query = session.createQuery(
+                "SELECT s.studentId, s.course.courseId FROM Student s WHERE s.studentId IN (:ids)", Object[].class);
+        query.setParameterList("ids", ids);
+        query.setLockOptions(new LockOptions(LockMode.PESSIMISTIC_WRITE));
+        Map<Long, Long> courseIds = new HashMap<>();
+        for (Object[] row : query.getResultList()) {
+            courseIds.put((Long) row[0], (Long) row[1]);
+        }
+        return courseIds;
+    }
+
+    // Read - Next IDs of students in a course after the given ID, locking their rows
+    public List<Long> getIdsByCourseForUpdate(Long courseId, Long afterId, int max) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Long> query = session.createQuery(
+                "SELECT s.studentId FROM Student s WHERE s.course.courseId = :courseId " +
+                        "AND s.studentId > :afterId ORDER BY s.studentId", Long.class);
+        query.setParameter("courseId", courseId);
+        query.setParameter("afterId", afterId != null ? afterId : 0L);
+        query.setMaxResults(max);
+        query.setLockOptions(new LockOptions(LockMode.PESSIMISTIC_WRITE));
+        return query.getResultList();
+    }
+
+    /**
+     * Set the course of the listed students with one UPDATE statement, bumping
+     * their versions so a concurrent change to a loaded copy fails its optimistic
+     * check instead of overwriting the course. Students loaded in the current
+     * session are not refreshed. Returns the number of rows updated.
+     */
+    public int updateCourse(Collection<Long> ids, Course course) {
+        Session session = sessionFactory.getCurrentSession();
+        return session.createQuery(
+                        "UPDATE VERSIONED Student s SET s.course = :course WHERE s.studentId IN (:ids)")
+                .setParameter("course", course)
+                .setParameterList("ids", ids)
+                .executeUpdate();
+    }
+
     // Delete
     public void delete(Long id) {
         Session session = sessionFactory.getCurrentSession();
@@ -67,6 +230,16 @@ public class StudentDAO {
         }
     }
 
+    // Check if any student is enrolled in the course, without loading them
+    public boolean existsByCourse(Long courseId) {
+        Session session = sessionFactory.getCurrentSession();
+        Query<Long> query = session.createQuery(
+                "SELECT s.studentId FROM Student s WHERE s.course.courseId = :courseId", Long.class);
+        query.setParameter("courseId", courseId);
+        query.setMaxResults(1);
+        return !query.getResultList().isEmpty();
+    }
+
     // Check if email exists
     public boolean emailExists(String email) {
         Session session = sessionFactory.getCurrentSession();
@@ -75,4 +248,66 @@ public class StudentDAO {
         query.setParameter("email", email);
         return query.uniqueResult() > 0;
     }
-}
\ No newline at end of file
+
+    // Read - All emails (lower-cased) for in-memory duplicate checks
+    public List<String> getAllEmails() {
+        Session session = sessionFactory.getCurrentSession();
+        Query<String> query = session.createQuery(
+                "SELECT lower(email) FROM Student", String.class);
+        return query.getResultList();
+    }
+
+    /**
+     * Bulk insert using a single JDBC batch.
+     * Students are identity-keyed, which stops Hibernate from batching
+     * session.save() calls, so the rows are written with plain JDBC on the
+     * current transaction's connection instead. Generated IDs are not read back.
+     */
+    public void batchInsert(List<Student> students) {
+        Session session = sessionFactory.getCurrentSession();
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO students (name, email, course_id, balance, total_paid, total_refunded, version) " +
+                            "VALUES (?, ?, ?, ?, ?, ?, 0)")) {
+                for (Student student : students) {
+                    statement.setString(1, student.getName());
+                    statement.setString(2, student.getEmail());
+                    if (student.getCourse() != null) {
+                        statement.setLong(3, student.getCourse().getCourseId());
+                    } else {
+                        statement.setNull(3, Types.BIGINT);
+                    }
+                    statement.setLong(4, student.getBalance());
+                    statement.setLong(5, student.getTotalPaid());
+                    statement.setLong(6, student.getTotalRefunded());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    // DISTINCT in the list queries only collapses the rows a payments fetch fans out; keep it out of the SQL
+    private Query<Student> applyFetchPlan(Session session, Query<Student> query, StudentFetchPlan plan) {
+        query.setHint(QueryHints.PASS_DISTINCT_THROUGH, false);
+        if (plan.getGraphName() != null) {
+            query.setHint(GraphSemantic.FETCH.getJpaHintName(), session.getEntityGraph(plan.getGraphName()));
+        }
+        return query;
+    }
+
+    private long scroll(Session session, Query<Student> query, Consumer<Student> action) {
+        query.setReadOnly(true);
+        query.setFetchSize(STREAM_FETCH_SIZE);
+        try (ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            long count = 0;
+            while (results.next()) {
+                action.accept((Student) results.get(0));
+                if (++count % STREAM_FETCH_SIZE == 0) {
+                    session.clear();
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.studentmanagement.dao;
+
+import com.studentmanagement.model.Student;
+
+/**
+ * How much of a student's object graph a StudentDAO read loads up front.
+ * Anything not in the plan is left as a lazy proxy and must not be touched
+ * once the transaction has ended.
+ */
+public enum StudentFetchPlan {
+
+    // Student columns only; for postings, validation and updates
+    BASIC(null),
+
+    // Student and course in one select; for listings and the details screen
+    WITH_COURSE(Student.GRAPH_WITH_COURSE),
+
+    // Student, course and payment history; single-student loads only
+    WITH_PAYMENTS(Student.GRAPH_WITH_PAYMENTS);
+
+    private final String graphName;
+
+    StudentFetchPlan(String graphName) {
+        this.graphName = graphName;
+    }
+
+    String getGraphName() {
+        return graphName;
+    }
+}
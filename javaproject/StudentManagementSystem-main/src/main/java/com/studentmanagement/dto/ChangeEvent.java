@@ -0,0 +1,58 @@
+package com.studentmanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.studentmanagement.model.OutboxEvent.EventType;
+
+import java.time.LocalDateTime;
+
+/**
+ * A published outbox event as consumers and sinks see it. The payload is a
+ * JSON object and is embedded as-is when the event is written as JSON.
+ */
+public class ChangeEvent {
+
+    private final long position;
+    private final EventType eventType;
+    private final Long studentId;
+    private final LocalDateTime createdAt;
+    private final String payload;
+
+    public ChangeEvent(Long position, EventType eventType, Long studentId, LocalDateTime createdAt, String payload) {
+        this.position = position;
+        this.eventType = eventType;
+        this.studentId = studentId;
+        this.createdAt = createdAt;
+        this.payload = payload;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public EventType getEventType() {
+        return eventType;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @JsonRawValue
+    public String getPayload() {
+        return payload;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeEvent{" +
+                "position=" + position +
+                ", eventType=" + eventType +
+                ", studentId=" + studentId +
+                ", payload=" + payload +
+                '}';
+    }
+}
@@ -0,0 +1,76 @@
+package com.studentmanagement.dto;
+
+import com.studentmanagement.model.Money;
+
+/**
+ * Per-course enrollment and fee position.
+ * Fees due is the course fee times the enrolled count; outstanding is what
+ * remains of that after net collections (collected minus refunded).
+ * All amounts are in paise.
+ */
+public class CourseEnrollmentSummary {
+
+    private final Long courseId;
+    private final String courseName;
+    private final long fee;
+    private final long enrolledCount;
+    private final long totalFeesDue;
+    private final long totalCollected;
+    private final long totalRefunded;
+
+    public CourseEnrollmentSummary(Long courseId, String courseName, long fee, Long enrolledCount,
+                                   Long totalCollected, Long totalRefunded) {
+        this.courseId = courseId;
+        this.courseName = courseName;
+        this.fee = fee;
+        this.enrolledCount = enrolledCount != null ? enrolledCount : 0L;
+        this.totalFeesDue = fee * this.enrolledCount;
+        this.totalCollected = totalCollected != null ? totalCollected : 0L;
+        this.totalRefunded = totalRefunded != null ? totalRefunded : 0L;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public String getCourseName() {
+        return courseName;
+    }
+
+    public long getFee() {
+        return fee;
+    }
+
+    public long getEnrolledCount() {
+        return enrolledCount;
+    }
+
+    public long getTotalFeesDue() {
+        return totalFeesDue;
+    }
+
+    public long getTotalCollected() {
+        return totalCollected;
+    }
+
+    public long getTotalRefunded() {
+        return totalRefunded;
+    }
+
+    public long getOutstanding() {
+        return totalFeesDue - (totalCollected - totalRefunded);
+    }
+
+    @Override
+    public String toString() {
+        return "CourseEnrollment{" +
+                "courseId=" + courseId +
+                ", courseName='" + courseName + '\'' +
+                ", enrolled=" + enrolledCount +
+                ", feesDue=" + Money.format(totalFeesDue) +
+                ", collected=" + Money.format(totalCollected) +
+                ", refunded=" + Money.format(totalRefunded) +
+                ", outstanding=" + Money.format(getOutstanding()) +
+                '}';
+    }
+}
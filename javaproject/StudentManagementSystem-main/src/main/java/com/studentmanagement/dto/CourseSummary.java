@@ -0,0 +1,55 @@
+package com.studentmanagement.dto;
+
+import com.studentmanagement.model.Money;
+
+/**
+ * Read-only view of a course together with how many students are enrolled in it.
+ */
+public class CourseSummary {
+
+    private final Long courseId;
+    private final String courseName;
+    private final Integer duration;
+    private final long fee;
+    private final long enrolledCount;
+
+    public CourseSummary(Long courseId, String courseName, Integer duration, long fee, Long enrolledCount) {
+        this.courseId = courseId;
+        this.courseName = courseName;
+        this.duration = duration;
+        this.fee = fee;
+        this.enrolledCount = enrolledCount != null ? enrolledCount : 0L;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public String getCourseName() {
+        return courseName;
+    }
+
+    public Integer getDuration() {
+        return duration;
+    }
+
+    // In paise
+    public long getFee() {
+        return fee;
+    }
+
+    public long getEnrolledCount() {
+        return enrolledCount;
+    }
+
+    @Override
+    public String toString() {
+        return "Course{" +
+                "courseId=" + courseId +
+                ", courseName='" + courseName + '\'' +
+                ", duration=" + duration + " months" +
+                ", fee=" + Money.format(fee) +
+                ", enrolled=" + enrolledCount +
+                '}';
+    }
+}
@@ -0,0 +1,39 @@
+package com.studentmanagement.dto;
+
+import java.util.List;
+
+/**
+ * One page of a student's payment history, newest first. The next page is
+ * asked for with nextCursor, an opaque token; it is null on the last page.
+ */
+public class PaymentPage {
+
+    private final List<PaymentSummary> payments;
+    private final String nextCursor;
+
+    public PaymentPage(List<PaymentSummary> payments, String nextCursor) {
+        this.payments = payments;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<PaymentSummary> getPayments() {
+        return payments;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    // Whether another page follows; known without counting the history
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+
+    @Override
+    public String toString() {
+        return "PaymentPage{" +
+                "payments=" + payments.size() +
+                ", hasMore=" + isHasMore() +
+                '}';
+    }
+}
@@ -0,0 +1,48 @@
+package com.studentmanagement.dto;
+
+import com.studentmanagement.model.Money;
+
+/**
+ * Result of posting a payment or refund: the new payment record and the
+ * student's balance after it. A duplicate receipt answers a repeated
+ * idempotency key; it describes the original posting, and nothing was posted.
+ */
+public class PaymentReceipt {
+
+    private final PaymentSummary payment;
+    private final long balance;
+    private final boolean duplicate;
+
+    public PaymentReceipt(PaymentSummary payment, long balance, boolean duplicate) {
+        this.payment = payment;
+        this.balance = balance;
+        this.duplicate = duplicate;
+    }
+
+    // The same receipt, as the answer to a repeated request
+    public PaymentReceipt asDuplicate() {
+        return duplicate ? this : new PaymentReceipt(payment, balance, true);
+    }
+
+    public PaymentSummary getPayment() {
+        return payment;
+    }
+
+    // In paise
+    public long getBalance() {
+        return balance;
+    }
+
+    public boolean isDuplicate() {
+        return duplicate;
+    }
+
+    @Override
+    public String toString() {
+        return "PaymentReceipt{" +
+                "payment=" + payment +
+                ", balance=" + Money.format(balance) +
+                ", duplicate=" + duplicate +
+                '}';
+    }
+}
@@ -0,0 +1,66 @@
+package com.studentmanagement.dto;
+
+import com.studentmanagement.model.Money;
+import com.studentmanagement.model.Payment.PaymentType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of a payment or refund, identified by student ID rather than
+ * a Student reference.
+ */
+public class PaymentSummary {
+
+    private final Long paymentId;
+    private final Long studentId;
+    private final long amount;
+    private final LocalDateTime paymentDate;
+    private final PaymentType paymentType;
+    private final String description;
+
+    public PaymentSummary(Long paymentId, Long studentId, long amount, LocalDateTime paymentDate,
+                          PaymentType paymentType, String description) {
+        this.paymentId = paymentId;
+        this.studentId = studentId;
+        this.amount = amount;
+        this.paymentDate = paymentDate;
+        this.paymentType = paymentType;
+        this.description = description;
+    }
+
+    public Long getPaymentId() {
+        return paymentId;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    // In paise
+    public long getAmount() {
+        return amount;
+    }
+
+    public LocalDateTime getPaymentDate() {
+        return paymentDate;
+    }
+
+    public PaymentType getPaymentType() {
+        return paymentType;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public String toString() {
+        return "Payment{" +
+                "paymentId=" + paymentId +
+                ", amount=" + Money.format(amount) +
+                ", paymentDate=" + paymentDate +
+                ", paymentType=" + paymentType +
+                ", description='" + description + '\'' +
+                '}';
+    }
+}
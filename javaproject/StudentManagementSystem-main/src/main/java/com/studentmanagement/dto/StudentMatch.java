@@ -0,0 +1,39 @@
+package com.studentmanagement.dto;
+
+/**
+ * A student found by name or email search. Built by an HQL constructor
+ * expression when the search index is loaded, and returned by searches.
+ */
+public class StudentMatch {
+
+    private final Long studentId;
+    private final String name;
+    private final String email;
+
+    public StudentMatch(Long studentId, String name, String email) {
+        this.studentId = studentId;
+        this.name = name;
+        this.email = email;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    @Override
+    public String toString() {
+        return "StudentMatch{" +
+                "studentId=" + studentId +
+                ", name='" + name + '\'' +
+                ", email='" + email + '\'' +
+                '}';
+    }
+}
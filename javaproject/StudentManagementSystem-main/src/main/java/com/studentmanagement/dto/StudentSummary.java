@@ -0,0 +1,57 @@
+package com.studentmanagement.dto;
+
+import com.studentmanagement.model.Money;
+
+/**
+ * Read-only view of a student for listings and reports.
+ * Built directly by HQL constructor expressions; never attached to a session.
+ */
+public class StudentSummary {
+
+    private final Long studentId;
+    private final String name;
+    private final String email;
+    private final String courseName;
+    private final long balance;
+
+    public StudentSummary(Long studentId, String name, String email, String courseName, long balance) {
+        this.studentId = studentId;
+        this.name = name;
+        this.email = email;
+        this.courseName = courseName;
+        this.balance = balance;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    // Null when the student is not enrolled
+    public String getCourseName() {
+        return courseName;
+    }
+
+    // In paise
+    public long getBalance() {
+        return balance;
+    }
+
+    @Override
+    public String toString() {
+        return "Student{" +
+                "studentId=" + studentId +
+                ", name='" + name + '\'' +
+                ", email='" + email + '\'' +
+                ", course=" + (courseName != null ? courseName : "Not Enrolled") +
+                ", balance=" + Money.format(balance) +
+                '}';
+    }
+}
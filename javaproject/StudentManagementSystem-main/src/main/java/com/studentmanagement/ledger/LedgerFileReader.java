@@ -0,0 +1,103 @@
+package com.studentmanagement.ledger;
+
+import com.studentmanagement.ledger.LedgerFormat.CompressedColumn;
+import com.studentmanagement.model.Payment.PaymentType;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reads a ledger file written by LedgerFileWriter one row group at a time.
+ * Needs no database: an offline aggregate opens the files of an export
+ * directory (see files()), and only the columns it touches are inflated.
+ */
+public final class LedgerFileReader implements Closeable {
+
+    private final DataInputStream in;
+    private final YearMonth month;
+    private boolean finished;
+
+    public LedgerFileReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in, 64 * 1024));
+        byte[] magic = new byte[LedgerFormat.MAGIC.length];
+        this.in.readFully(magic);
+        if (!Arrays.equals(magic, LedgerFormat.MAGIC)) {
+            throw new IOException("Not a ledger file");
+        }
+        short version = this.in.readShort();
+        if (version != LedgerFormat.VERSION) {
+            throw new IOException("Unsupported ledger file version " + version);
+        }
+        int year = this.in.readInt();
+        this.month = YearMonth.of(year, this.in.readByte());
+    }
+
+    public static LedgerFileReader open(Path file) throws IOException {
+        return new LedgerFileReader(Files.newInputStream(file));
+    }
+
+    /**
+     * The ledger files of an export directory, oldest month first, or the
+     * file itself when given a file.
+     */
+    public static List<Path> files(Path directoryOrFile) throws IOException {
+        if (!Files.isDirectory(directoryOrFile)) {
+            return List.of(directoryOrFile);
+        }
+        try (Stream<Path> entries = Files.list(directoryOrFile)) {
+            return entries.filter(path -> LedgerFormat.isLedgerFile(path.getFileName().toString()))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    // Month whose payments the file holds
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    // Next row group, or null after the last one
+    public LedgerRowGroup next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        int rows = in.readInt();
+        if (rows == 0) {
+            finished = true;
+            return null;
+        }
+        if (rows < 0) {
+            throw new IOException("Corrupt ledger file: negative row count");
+        }
+        int entries = in.readUnsignedByte();
+        PaymentType[] dictionary = new PaymentType[entries];
+        for (int i = 0; i < entries; i++) {
+            String name = in.readUTF();
+            try {
+                dictionary[i] = PaymentType.valueOf(name);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Unknown payment type in ledger file: " + name, e);
+            }
+        }
+        CompressedColumn[] columns = new CompressedColumn[LedgerFormat.COLUMNS];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = LedgerFormat.readColumn(in);
+        }
+        return new LedgerRowGroup(rows, dictionary, columns);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,143 @@
+package com.studentmanagement.ledger;
+
+import com.studentmanagement.ledger.LedgerFormat.ColumnBuffer;
+import com.studentmanagement.model.Payment.PaymentType;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Writes one month of the payments ledger in the columnar layout described
+ * by LedgerFormat. Rows are encoded into per-column buffers as they are
+ * appended and written out, each column deflated on its own, every
+ * ROW_GROUP_SIZE rows, so memory stays bounded by one row group. Delta
+ * encoding restarts at every row group, so each can be decoded on its own.
+ * Closing writes the last row group and the end marker and closes the stream.
+ */
+public final class LedgerFileWriter implements Closeable {
+
+    public static final int ROW_GROUP_SIZE = 32_768;
+
+    private final DataOutputStream out;
+    private final YearMonth month;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final ColumnBuffer[] columns = new ColumnBuffer[LedgerFormat.COLUMNS];
+    private final Map<PaymentType, Integer> dictionary = new EnumMap<>(PaymentType.class);
+    private final List<PaymentType> dictionaryEntries = new ArrayList<>();
+
+    private int groupRows;
+    private long previousPaymentId;
+    private long previousDateMicros;
+    private long rowCount;
+    private boolean closed;
+
+    public LedgerFileWriter(OutputStream out, YearMonth month) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+        this.month = month;
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new ColumnBuffer(ROW_GROUP_SIZE * 2);
+        }
+        this.out.write(LedgerFormat.MAGIC);
+        this.out.writeShort(LedgerFormat.VERSION);
+        this.out.writeInt(month.getYear());
+        this.out.writeByte(month.getMonthValue());
+    }
+
+    // Name of the file holding the month's payments in an export directory
+    public static String fileName(YearMonth month) {
+        return LedgerFormat.fileName(month);
+    }
+
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    // Rows appended so far
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    // Append one payment; the amount is in paise
+    public void append(long paymentId, long studentId, LocalDateTime paymentDate, PaymentType type,
+                       long amount, String description) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Ledger file already closed");
+        }
+        long dateMicros = LedgerFormat.toEpochMicros(paymentDate);
+        columns[LedgerFormat.PAYMENT_ID].writeZigZag(paymentId - previousPaymentId);
+        columns[LedgerFormat.STUDENT_ID].writeVarLong(studentId);
+        columns[LedgerFormat.PAYMENT_DATE].writeZigZag(dateMicros - previousDateMicros);
+        columns[LedgerFormat.PAYMENT_TYPE].writeByte(dictionaryIndex(type));
+        columns[LedgerFormat.AMOUNT].writeZigZag(amount);
+        ColumnBuffer descriptions = columns[LedgerFormat.DESCRIPTION];
+        if (description == null) {
+            descriptions.writeVarLong(0);
+        } else {
+            byte[] bytes = description.getBytes(StandardCharsets.UTF_8);
+            descriptions.writeVarLong(bytes.length + 1L);
+            descriptions.writeBytes(bytes);
+        }
+        previousPaymentId = paymentId;
+        previousDateMicros = dateMicros;
+        rowCount++;
+        if (++groupRows == ROW_GROUP_SIZE) {
+            writeRowGroup();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (groupRows > 0) {
+                writeRowGroup();
+            }
+            out.writeInt(0);
+            out.flush();
+        } finally {
+            deflater.end();
+            out.close();
+        }
+    }
+
+    private int dictionaryIndex(PaymentType type) {
+        Integer index = dictionary.get(type);
+        if (index == null) {
+            index = dictionaryEntries.size();
+            dictionary.put(type, index);
+            dictionaryEntries.add(type);
+        }
+        return index;
+    }
+
+    private void writeRowGroup() throws IOException {
+        out.writeInt(groupRows);
+        out.writeByte(dictionaryEntries.size());
+        for (PaymentType type : dictionaryEntries) {
+            out.writeUTF(type.name());
+        }
+        for (ColumnBuffer column : columns) {
+            LedgerFormat.writeColumn(out, column, deflater);
+            column.clear();
+        }
+        dictionary.clear();
+        dictionaryEntries.clear();
+        groupRows = 0;
+        previousPaymentId = 0;
+        previousDateMicros = 0;
+    }
+}
@@ -0,0 +1,206 @@
+package com.studentmanagement.ledger;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Layout of a ledger file, shared by the writer and the reader.
+ *
+ * <pre>
+ * file      = MAGIC, version (short), year (int), month (byte), rowGroup*, 0 (int)
+ * rowGroup  = rowCount (int), dictionary, column * COLUMNS
+ * dictionary = entryCount (byte), payment type name (UTF) * entryCount
+ * column    = rawLength (int), compressedLength (int), deflated bytes
+ * </pre>
+ *
+ * Columns, in file order: payment ID (zigzag varint delta from the previous
+ * row), student ID (varint), payment date (epoch microseconds of the local
+ * date-time, zigzag varint delta), payment type (one byte, an index into the
+ * row group's dictionary), amount in paise (zigzag varint) and description
+ * (varint of UTF-8 length + 1, 0 for null, then the bytes).
+ */
+final class LedgerFormat {
+
+    static final byte[] MAGIC = {'S', 'M', 'L', 'G'};
+    static final short VERSION = 1;
+
+    static final int PAYMENT_ID = 0;
+    static final int STUDENT_ID = 1;
+    static final int PAYMENT_DATE = 2;
+    static final int PAYMENT_TYPE = 3;
+    static final int AMOUNT = 4;
+    static final int DESCRIPTION = 5;
+    static final int COLUMNS = 6;
+
+    static final String FILE_PREFIX = "payments-";
+    static final String FILE_SUFFIX = ".ledger";
+
+    private LedgerFormat() {
+    }
+
+    // payments-2024-07.ledger
+    static String fileName(YearMonth month) {
+        return FILE_PREFIX + month + FILE_SUFFIX;
+    }
+
+    static boolean isLedgerFile(String fileName) {
+        return fileName.startsWith(FILE_PREFIX) && fileName.endsWith(FILE_SUFFIX);
+    }
+
+    static long toEpochMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromEpochMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    static void writeColumn(DataOutputStream out, ColumnBuffer column, Deflater deflater) throws IOException {
+        deflater.reset();
+        deflater.setInput(column.bytes, 0, column.length);
+        deflater.finish();
+        ColumnBuffer compressed = new ColumnBuffer(Math.max(64, column.length / 4));
+        while (!deflater.finished()) {
+            compressed.ensureCapacity(compressed.length + 8192);
+            compressed.length += deflater.deflate(compressed.bytes, compressed.length,
+                    compressed.bytes.length - compressed.length);
+        }
+        out.writeInt(column.length);
+        out.writeInt(compressed.length);
+        out.write(compressed.bytes, 0, compressed.length);
+    }
+
+    static CompressedColumn readColumn(DataInputStream in) throws IOException {
+        int rawLength = in.readInt();
+        int compressedLength = in.readInt();
+        if (rawLength < 0 || compressedLength < 0) {
+            throw new IOException("Corrupt ledger file: negative column length");
+        }
+        byte[] compressed = new byte[compressedLength];
+        in.readFully(compressed);
+        return new CompressedColumn(compressed, rawLength);
+    }
+
+    static byte[] inflate(CompressedColumn column) throws IOException {
+        int rawLength = column.rawLength;
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(column.compressed);
+            byte[] raw = new byte[rawLength];
+            int length = 0;
+            while (length < rawLength) {
+                int n = inflater.inflate(raw, length, rawLength - length);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IOException("Corrupt ledger file: column shorter than recorded");
+                }
+                length += n;
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt ledger file: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    // A column as stored, inflated on first use
+    static final class CompressedColumn {
+        final byte[] compressed;
+        final int rawLength;
+
+        CompressedColumn(byte[] compressed, int rawLength) {
+            this.compressed = compressed;
+            this.rawLength = rawLength;
+        }
+    }
+
+    // Growable byte buffer with varint encoding
+    static final class ColumnBuffer {
+        byte[] bytes;
+        int length;
+
+        ColumnBuffer(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        void ensureCapacity(int capacity) {
+            if (capacity > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+            }
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(length + 1);
+            bytes[length++] = (byte) value;
+        }
+
+        void writeBytes(byte[] value) {
+            ensureCapacity(length + value.length);
+            System.arraycopy(value, 0, bytes, length, value.length);
+            length += value.length;
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(length + 10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        void writeZigZag(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void clear() {
+            length = 0;
+        }
+    }
+
+    // Sequential varint decoding over an inflated column
+    static final class ColumnCursor {
+        private final byte[] bytes;
+        private int position;
+
+        ColumnCursor(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int readByte() {
+            return bytes[position++];
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        long readZigZag() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        String readString(int length) {
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.studentmanagement.ledger;
+
+import com.studentmanagement.ledger.LedgerFormat.ColumnCursor;
+import com.studentmanagement.ledger.LedgerFormat.CompressedColumn;
+import com.studentmanagement.model.Payment.PaymentType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+
+/**
+ * Up to LedgerFileWriter.ROW_GROUP_SIZE rows of a ledger file. Each column is
+ * inflated and decoded the first time one of its values is asked for, so a
+ * scan that sums amounts by date and type never decodes the descriptions.
+ * Rows are numbered from 0; amounts are in paise. A corrupt column surfaces
+ * as an UncheckedIOException.
+ */
+public final class LedgerRowGroup {
+
+    private final int size;
+    private final PaymentType[] dictionary;
+    private final CompressedColumn[] columns;
+
+    private long[] paymentIds;
+    private long[] studentIds;
+    private long[] paymentDateMicros;
+    private byte[] paymentTypes;
+    private long[] amounts;
+    private String[] descriptions;
+
+    LedgerRowGroup(int size, PaymentType[] dictionary, CompressedColumn[] columns) {
+        this.size = size;
+        this.dictionary = dictionary;
+        this.columns = columns;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getPaymentId(int row) {
+        if (paymentIds == null) {
+            paymentIds = decodeDeltas(LedgerFormat.PAYMENT_ID);
+        }
+        return paymentIds[row];
+    }
+
+    public long getStudentId(int row) {
+        if (studentIds == null) {
+            ColumnCursor cursor = cursor(LedgerFormat.STUDENT_ID);
+            long[] values = new long[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = cursor.readVarLong();
+            }
+            studentIds = values;
+        }
+        return studentIds[row];
+    }
+
+    public LocalDateTime getPaymentDate(int row) {
+        return LedgerFormat.fromEpochMicros(getPaymentDateMicros(row));
+    }
+
+    // Payment date as microseconds since 1970-01-01T00:00, for cheap grouping by day
+    public long getPaymentDateMicros(int row) {
+        if (paymentDateMicros == null) {
+            paymentDateMicros = decodeDeltas(LedgerFormat.PAYMENT_DATE);
+        }
+        return paymentDateMicros[row];
+    }
+
+    public PaymentType getPaymentType(int row) {
+        if (paymentTypes == null) {
+            byte[] values = inflate(LedgerFormat.PAYMENT_TYPE);
+            for (byte value : values) {
+                if (value < 0 || value >= dictionary.length) {
+                    throw new UncheckedIOException(new IOException(
+                            "Corrupt ledger file: payment type outside the dictionary"));
+                }
+            }
+            paymentTypes = values;
+        }
+        return dictionary[paymentTypes[row]];
+    }
+
+    public long getAmount(int row) {
+        if (amounts == null) {
+            ColumnCursor cursor = cursor(LedgerFormat.AMOUNT);
+            long[] values = new long[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = cursor.readZigZag();
+            }
+            amounts = values;
+        }
+        return amounts[row];
+    }
+
+    // Null when the payment has no description
+    public String getDescription(int row) {
+        if (descriptions == null) {
+            ColumnCursor cursor = cursor(LedgerFormat.DESCRIPTION);
+            String[] values = new String[size];
+            for (int i = 0; i < size; i++) {
+                int length = (int) cursor.readVarLong();
+                values[i] = length == 0 ? null : cursor.readString(length - 1);
+            }
+            descriptions = values;
+        }
+        return descriptions[row];
+    }
+
+    private long[] decodeDeltas(int column) {
+        ColumnCursor cursor = cursor(column);
+        long[] values = new long[size];
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            previous += cursor.readZigZag();
+            values[i] = previous;
+        }
+        return values;
+    }
+
+    private ColumnCursor cursor(int column) {
+        return new ColumnCursor(inflate(column));
+    }
+
+    private byte[] inflate(int column) {
+        try {
+            return LedgerFormat.inflate(columns[column]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.studentmanagement.metrics;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Exposes Hibernate's session factory statistics as gauges. Turns statistics
+ * on, so they are collected whenever metrics are (studentmgmt.metrics.enabled)
+ * even if hibernate.generate_statistics was left off.
+ */
+public class HibernateStatisticsMetricSet implements MetricSet {
+
+    private final Statistics statistics;
+
+    public HibernateStatisticsMetricSet(SessionFactory sessionFactory) {
+        this.statistics = sessionFactory.getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        Map<String, Metric> gauges = new HashMap<>();
+        gauges.put("sessions.opened", (Gauge<Long>) statistics::getSessionOpenCount);
+        gauges.put("transactions", (Gauge<Long>) statistics::getTransactionCount);
+        gauges.put("statements.prepared", (Gauge<Long>) statistics::getPrepareStatementCount);
+        gauges.put("queries.executed", (Gauge<Long>) statistics::getQueryExecutionCount);
+        gauges.put("queries.maxTimeMillis", (Gauge<Long>) statistics::getQueryExecutionMaxTime);
+        gauges.put("queries.slowest", (Gauge<String>) statistics::getQueryExecutionMaxTimeQueryString);
+        gauges.put("entities.loaded", (Gauge<Long>) statistics::getEntityLoadCount);
+        gauges.put("entities.fetched", (Gauge<Long>) statistics::getEntityFetchCount);
+        gauges.put("entities.inserted", (Gauge<Long>) statistics::getEntityInsertCount);
+        gauges.put("entities.updated", (Gauge<Long>) statistics::getEntityUpdateCount);
+        gauges.put("collections.loaded", (Gauge<Long>) statistics::getCollectionLoadCount);
+        gauges.put("secondLevelCache.hits", (Gauge<Long>) statistics::getSecondLevelCacheHitCount);
+        gauges.put("secondLevelCache.misses", (Gauge<Long>) statistics::getSecondLevelCacheMissCount);
+        gauges.put("secondLevelCache.puts", (Gauge<Long>) statistics::getSecondLevelCachePutCount);
+        gauges.put("queryCache.hits", (Gauge<Long>) statistics::getQueryCacheHitCount);
+        gauges.put("queryCache.misses", (Gauge<Long>) statistics::getQueryCacheMissCount);
+        gauges.put("optimisticFailures", (Gauge<Long>) statistics::getOptimisticFailureCount);
+        return gauges;
+    }
+}
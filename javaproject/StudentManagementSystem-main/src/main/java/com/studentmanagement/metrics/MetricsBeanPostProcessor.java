@@ -0,0 +1,48 @@
+package com.studentmanagement.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import com.studentmanagement.config.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.stereotype.Repository;
+import org.springframework.stereotype.Service;
+
+/**
+ * Wraps every @Service and @Repository bean with a {@link TimingInterceptor}
+ * and hands the registry to HikariCP so it publishes its pool metrics (both
+ * pools when read-only transactions are routed to a replica).
+ * Beans that already carry a Spring proxy (e.g. @Transactional services) get
+ * the timing advice added in front of their existing advice.
+ */
+public class MetricsBeanPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    private static final long serialVersionUID = 1L;
+
+    private final MetricRegistry metricRegistry;
+
+    public MetricsBeanPostProcessor(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+
+        Pointcut pointcut = new ComposablePointcut(new AnnotationMatchingPointcut(Service.class, true))
+                .union(new AnnotationMatchingPointcut(Repository.class, true));
+        this.advisor = new DefaultPointcutAdvisor(pointcut, new TimingInterceptor(metricRegistry));
+        setBeforeExistingAdvisors(true);
+        setProxyTargetClass(true);
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        // Must happen before the pool starts, i.e. before the first connection is requested
+        if (bean instanceof HikariDataSource) {
+            ((HikariDataSource) bean).setMetricRegistry(metricRegistry);
+        } else if (bean instanceof ReplicaRoutingDataSource) {
+            ((ReplicaRoutingDataSource) bean).getPrimary().setMetricRegistry(metricRegistry);
+            ((ReplicaRoutingDataSource) bean).getReplica().setMetricRegistry(metricRegistry);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,74 @@
+package com.studentmanagement.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records, per public method, a timer (call rate and latency percentiles),
+ * an error counter and, for methods returning a collection, a histogram of
+ * result sizes. Metric names are {@code SimpleClassName.method}.
+ */
+class TimingInterceptor implements MethodInterceptor {
+
+    private final MetricRegistry metricRegistry;
+    private final Map<Method, MethodMetrics> metricsByMethod = new ConcurrentHashMap<>();
+
+    private static class MethodMetrics {
+        private final Timer timer;
+        private final Counter errors;
+        private final Histogram resultSizes;
+
+        private MethodMetrics(MetricRegistry registry, String name, boolean returnsCollection) {
+            this.timer = registry.timer(name);
+            this.errors = registry.counter(name + ".errors");
+            this.resultSizes = returnsCollection ? registry.histogram(name + ".resultSize") : null;
+        }
+    }
+
+    TimingInterceptor(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (!Modifier.isPublic(method.getModifiers())) {
+            return invocation.proceed();
+        }
+
+        MethodMetrics metrics = metricsByMethod.computeIfAbsent(method, m -> register(invocation));
+        Timer.Context timing = metrics.timer.time();
+        try {
+            Object result = invocation.proceed();
+            if (metrics.resultSizes != null && result != null) {
+                metrics.resultSizes.update(((Collection<?>) result).size());
+            }
+            return result;
+        } catch (Throwable e) {
+            metrics.errors.inc();
+            throw e;
+        } finally {
+            timing.stop();
+        }
+    }
+
+    private MethodMetrics register(MethodInvocation invocation) {
+        Method method = invocation.getMethod();
+        Class<?> targetClass = invocation.getThis() != null
+                ? AopUtils.getTargetClass(invocation.getThis()) : method.getDeclaringClass();
+        return new MethodMetrics(metricRegistry,
+                MetricRegistry.name(targetClass.getSimpleName(), method.getName()),
+                Collection.class.isAssignableFrom(method.getReturnType()));
+    }
+}
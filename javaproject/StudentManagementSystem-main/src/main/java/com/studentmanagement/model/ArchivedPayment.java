@@ -0,0 +1,93 @@
+package com.studentmanagement.model;
+
+import com.studentmanagement.model.Payment.PaymentType;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A payment moved out of the payments table by PaymentArchiveService, with
+ * its original ID and idempotency key. Archived rows are never changed; their
+ * totals live on in the student's PaymentCarryForward.
+ */
+@Entity
+@Immutable
+@Table(name = "payments_archive",
+        uniqueConstraints = @UniqueConstraint(name = "uk_archive_idempotency_key",
+                columnNames = "idempotency_key"))
+public class ArchivedPayment {
+
+    @Id
+    @Column(name = "payment_id")
+    private Long paymentId;
+
+    // Plain column: archived rows are read as summaries, never with their student
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    // In paise (see Money)
+    @Column(name = "amount", nullable = false)
+    private long amount;
+
+    @Column(name = "payment_date", nullable = false)
+    private LocalDateTime paymentDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_type", nullable = false, length = 20)
+    private PaymentType paymentType;
+
+    @Column(name = "description", length = 255)
+    private String description;
+
+    // Course at posting time, as on Payment
+    @Column(name = "course_id")
+    private Long courseId;
+
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Constructors
+    protected ArchivedPayment() {
+    }
+
+    // Getters
+    public Long getPaymentId() {
+        return paymentId;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public long getAmount() {
+        return amount;
+    }
+
+    public LocalDateTime getPaymentDate() {
+        return paymentDate;
+    }
+
+    public PaymentType getPaymentType() {
+        return paymentType;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
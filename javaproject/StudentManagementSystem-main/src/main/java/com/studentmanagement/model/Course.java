@@ -1,13 +1,21 @@
 package com.studentmanagement.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
 @Table(name = "courses")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Course.CACHE_REGION)
 public class Course {
 
+    public static final String CACHE_REGION = "course";
+    public static final String QUERY_CACHE_REGION = "course-queries";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "course_id")
@@ -19,8 +27,9 @@ public class Course {
     @Column(name = "duration", nullable = false)
     private Integer duration; // in months
 
+    // In paise (see Money)
     @Column(name = "fee", nullable = false)
-    private Double fee;
+    private long fee;
 
     @OneToMany(mappedBy = "course", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<Student> students = new HashSet<>();
@@ -29,7 +38,7 @@ public class Course {
     public Course() {
     }
 
-    public Course(String courseName, Integer duration, Double fee) {
+    public Course(String courseName, Integer duration, long fee) {
         this.courseName = courseName;
         this.duration = duration;
         this.fee = fee;
@@ -60,11 +69,11 @@ public class Course {
         this.duration = duration;
     }
 
-    public Double getFee() {
+    public long getFee() {
         return fee;
     }
 
-    public void setFee(Double fee) {
+    public void setFee(long fee) {
         this.fee = fee;
     }
 
@@ -82,7 +91,7 @@ public class Course {
                 "courseId=" + courseId +
                 ", courseName='" + courseName + '\'' +
                 ", duration=" + duration + " months" +
-                ", fee=" + fee +
+                ", fee=" + Money.format(fee) +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.studentmanagement.model;
+
+import java.math.BigDecimal;
+import java.util.regex.Pattern;
+
+/**
+ * Money is held as a primitive long count of paise (1 rupee = 100 paise) in
+ * entities, DTOs and BIGINT columns, so posting arithmetic is exact and
+ * allocation-free. This class converts at the edges: parsing user input and
+ * formatting for display.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+    public static final long PAISE_PER_RUPEE = 100;
+
+    // Whole rupees with an optional one or two digit fraction
+    private static final Pattern AMOUNT = Pattern.compile("\\d+(\\.\\d{1,2})?");
+
+    private Money() {
+    }
+
+    // Whole rupees to paise, e.g. ofRupees(45000) for a Rs.45000 fee
+    public static long ofRupees(long rupees) {
+        return Math.multiplyExact(rupees, PAISE_PER_RUPEE);
+    }
+
+    /**
+     * Parse a rupee amount such as "1500", "1500.5" or "1500.50" into paise.
+     * Only plain digits with up to two decimals are accepted: no sign, no
+     * exponent, no grouping. Whether zero is allowed is up to the caller.
+     */
+    public static long parse(String rupees) {
+        String value = rupees.trim();
+        if (!AMOUNT.matcher(value).matches()) {
+            throw new IllegalArgumentException("Invalid amount: " + rupees);
+        }
+        try {
+            return new BigDecimal(value).movePointRight(SCALE).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid amount: " + rupees, e);
+        }
+    }
+
+    public static BigDecimal toBigDecimal(long paise) {
+        return BigDecimal.valueOf(paise, SCALE);
+    }
+
+    // Paise as a plain rupee string with two decimals, e.g. 150050 -> "1500.50"
+    public static String format(long paise) {
+        return toBigDecimal(paise).toPlainString();
+    }
+}
@@ -0,0 +1,124 @@
+package com.studentmanagement.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A change recorded for downstream systems, written in the same transaction
+ * as the change itself. The relay publishes events in eventId order and
+ * numbers them as it goes: position is null until the event is published,
+ * then 1, 2, 3, ... without gaps, and is what consumers keep as their offset.
+ */
+@Entity
+@Table(name = "outbox_events",
+        uniqueConstraints = @UniqueConstraint(name = "uk_outbox_position", columnNames = "position"))
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private EventType eventType;
+
+    // Plain column rather than a Student reference: events outlive deleted students
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    // JSON object describing the change
+    @Column(name = "payload", nullable = false, length = 2000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "position")
+    private Long position;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    public enum EventType {
+        PAYMENT_POSTED, REFUND_POSTED, STUDENT_ENROLLED
+    }
+
+    // Constructors
+    public OutboxEvent() {
+    }
+
+    public OutboxEvent(EventType eventType, Long studentId, String payload) {
+        this.eventType = eventType;
+        this.studentId = studentId;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(Long eventId) {
+        this.eventId = eventId;
+    }
+
+    public EventType getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(EventType eventType) {
+        this.eventType = eventType;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getPosition() {
+        return position;
+    }
+
+    public void setPosition(Long position) {
+        this.position = position;
+    }
+
+    public LocalDateTime getPublishedAt() {
+        return publishedAt;
+    }
+
+    public void setPublishedAt(LocalDateTime publishedAt) {
+        this.publishedAt = publishedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "OutboxEvent{" +
+                "eventId=" + eventId +
+                ", eventType=" + eventType +
+                ", studentId=" + studentId +
+                ", position=" + position +
+                '}';
+    }
+}
@@ -0,0 +1,63 @@
+package com.studentmanagement.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * The last outbox position a named consumer has processed.
+ */
+@Entity
+@Table(name = "outbox_offsets")
+public class OutboxOffset {
+
+    @Id
+    @Column(name = "consumer_name", length = 100)
+    private String consumerName;
+
+    @Column(name = "position", nullable = false)
+    private long position;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public OutboxOffset() {
+    }
+
+    public OutboxOffset(String consumerName) {
+        this.consumerName = consumerName;
+    }
+
+    // Getters and Setters
+    public String getConsumerName() {
+        return consumerName;
+    }
+
+    public void setConsumerName(String consumerName) {
+        this.consumerName = consumerName;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public void setPosition(long position) {
+        this.position = position;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "OutboxOffset{" +
+                "consumerName='" + consumerName + '\'' +
+                ", position=" + position +
+                '}';
+    }
+}
@@ -4,7 +4,9 @@ import javax.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments",
+        uniqueConstraints = @UniqueConstraint(name = "uk_payments_idempotency_key",
+                columnNames = "idempotency_key"))
 public class Payment {
 
     @Id
@@ -16,8 +18,9 @@ public class Payment {
     @JoinColumn(name = "student_id", nullable = false)
     private Student student;
 
+    // In paise (see Money)
     @Column(name = "amount", nullable = false)
-    private Double amount;
+    private long amount;
 
     @Column(name = "payment_date", nullable = false)
     private LocalDateTime paymentDate;
@@ -29,6 +32,14 @@ public class Payment {
     @Column(name = "description", length = 255)
     private String description;
 
+    // Course the student was enrolled in when this was posted, null if none; the rollup counts it there
+    @Column(name = "course_id")
+    private Long courseId;
+
+    // Caller-supplied key that makes retries of the same posting safe; null when none was given
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
+
     public enum PaymentType {
         PAYMENT, REFUND
     }
@@ -37,12 +48,13 @@ public class Payment {
     public Payment() {
     }
 
-    public Payment(Student student, Double amount, PaymentType paymentType, String description) {
+    public Payment(Student student, long amount, PaymentType paymentType, String description) {
         this.student = student;
         this.amount = amount;
         this.paymentType = paymentType;
         this.description = description;
         this.paymentDate = LocalDateTime.now();
+        this.courseId = student.getCourse() != null ? student.getCourse().getCourseId() : null;
     }
 
     // Getters and Setters
@@ -62,11 +74,11 @@ public class Payment {
         this.student = student;
     }
 
-    public Double getAmount() {
+    public long getAmount() {
         return amount;
     }
 
-    public void setAmount(Double amount) {
+    public void setAmount(long amount) {
         this.amount = amount;
     }
 
@@ -94,11 +106,27 @@ public class Payment {
         this.description = description;
     }
 
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
     @Override
     public String toString() {
         return "Payment{" +
                 "paymentId=" + paymentId +
-                ", amount=" + amount +
+                ", amount=" + Money.format(amount) +
                 ", paymentDate=" + paymentDate +
                 ", paymentType=" + paymentType +
                 ", description='" + description + '\'' +
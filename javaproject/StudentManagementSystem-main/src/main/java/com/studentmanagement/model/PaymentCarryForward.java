@@ -0,0 +1,79 @@
+package com.studentmanagement.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Totals of a student's archived payments, carried forward so that sums
+ * over the payments table plus this row still equal the running totals on
+ * the student. Updated in the same transaction that archives the payments.
+ */
+@Entity
+@Table(name = "payment_carry_forward")
+public class PaymentCarryForward {
+
+    @Id
+    @Column(name = "student_id")
+    private Long studentId;
+
+    @Column(name = "payment_count", nullable = false)
+    private long paymentCount;
+
+    // In paise (see Money)
+    @Column(name = "total_paid", nullable = false)
+    private long totalPaid;
+
+    @Column(name = "total_refunded", nullable = false)
+    private long totalRefunded;
+
+    // Latest payment date among the archived payments
+    @Column(name = "archived_through", nullable = false)
+    private LocalDateTime archivedThrough;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public PaymentCarryForward() {
+    }
+
+    public PaymentCarryForward(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    // Fold a batch of archived payments into the totals
+    public void add(long count, long paid, long refunded, LocalDateTime latestPaymentDate) {
+        paymentCount += count;
+        totalPaid += paid;
+        totalRefunded += refunded;
+        if (archivedThrough == null || latestPaymentDate.isAfter(archivedThrough)) {
+            archivedThrough = latestPaymentDate;
+        }
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Getters
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public long getPaymentCount() {
+        return paymentCount;
+    }
+
+    public long getTotalPaid() {
+        return totalPaid;
+    }
+
+    public long getTotalRefunded() {
+        return totalRefunded;
+    }
+
+    public LocalDateTime getArchivedThrough() {
+        return archivedThrough;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,108 @@
+package com.studentmanagement.model;
+
+import com.studentmanagement.model.Payment.PaymentType;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated payment totals per day, course and payment type.
+ * Kept up to date by each fee posting and rebuilt from the payments table
+ * by PaymentRollupService. Payments of students without a course are
+ * rolled up under courseId NO_COURSE.
+ */
+@Entity
+@Table(name = "payment_daily_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rollup_day_course_type",
+                columnNames = {"rollup_date", "course_id", "payment_type"}))
+public class PaymentDailyRollup {
+
+    public static final long NO_COURSE = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "rollup_id")
+    private Long rollupId;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    // Plain column rather than a Course reference: NO_COURSE has no row in courses
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_type", nullable = false, length = 20)
+    private PaymentType paymentType;
+
+    @Column(name = "payment_count", nullable = false)
+    private Long paymentCount;
+
+    // In paise (see Money)
+    @Column(name = "total_amount", nullable = false)
+    private long totalAmount;
+
+    // Constructors
+    public PaymentDailyRollup() {
+    }
+
+    // Getters and Setters
+    public Long getRollupId() {
+        return rollupId;
+    }
+
+    public void setRollupId(Long rollupId) {
+        this.rollupId = rollupId;
+    }
+
+    public LocalDate getRollupDate() {
+        return rollupDate;
+    }
+
+    public void setRollupDate(LocalDate rollupDate) {
+        this.rollupDate = rollupDate;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+
+    public PaymentType getPaymentType() {
+        return paymentType;
+    }
+
+    public void setPaymentType(PaymentType paymentType) {
+        this.paymentType = paymentType;
+    }
+
+    public Long getPaymentCount() {
+        return paymentCount;
+    }
+
+    public void setPaymentCount(Long paymentCount) {
+        this.paymentCount = paymentCount;
+    }
+
+    public long getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(long totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    @Override
+    public String toString() {
+        return "PaymentDailyRollup{" +
+                "date=" + rollupDate +
+                ", course=" + (courseId == NO_COURSE ? "Not Enrolled" : courseId) +
+                ", type=" + paymentType +
+                ", count=" + paymentCount +
+                ", total=" + Money.format(totalAmount) +
+                '}';
+    }
+}
@@ -0,0 +1,128 @@
+package com.studentmanagement.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint of a bank statement import, keyed by the SHA-256 of the file.
+ * linesDone is advanced in the same transaction as the payments it covers,
+ * so an interrupted import resumes right after its last committed chunk.
+ */
+@Entity
+@Table(name = "statement_imports")
+public class StatementImport {
+
+    @Id
+    @Column(name = "statement_id", length = 64)
+    private String statementId;
+
+    @Column(name = "file_name", nullable = false, length = 255)
+    private String fileName;
+
+    @Column(name = "lines_done", nullable = false)
+    private int linesDone;
+
+    @Column(name = "payments_posted", nullable = false)
+    private int paymentsPosted;
+
+    // In paise
+    @Column(name = "amount_posted", nullable = false)
+    private long amountPosted;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Null until the last line has been processed
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    // Constructors
+    public StatementImport() {
+    }
+
+    public StatementImport(String statementId, String fileName) {
+        this.statementId = statementId;
+        this.fileName = fileName;
+        this.startedAt = LocalDateTime.now();
+        this.updatedAt = startedAt;
+    }
+
+    // Getters and Setters
+    public String getStatementId() {
+        return statementId;
+    }
+
+    public void setStatementId(String statementId) {
+        this.statementId = statementId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public int getLinesDone() {
+        return linesDone;
+    }
+
+    public void setLinesDone(int linesDone) {
+        this.linesDone = linesDone;
+    }
+
+    public int getPaymentsPosted() {
+        return paymentsPosted;
+    }
+
+    public void setPaymentsPosted(int paymentsPosted) {
+        this.paymentsPosted = paymentsPosted;
+    }
+
+    public long getAmountPosted() {
+        return amountPosted;
+    }
+
+    public void setAmountPosted(long amountPosted) {
+        this.amountPosted = amountPosted;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "StatementImport{" +
+                "statementId='" + statementId + '\'' +
+                ", fileName='" + fileName + '\'' +
+                ", linesDone=" + linesDone +
+                ", paymentsPosted=" + paymentsPosted +
+                ", completedAt=" + completedAt +
+                '}';
+    }
+}
@@ -6,8 +6,18 @@ import java.util.Set;
 
 @Entity
 @Table(name = "students")
+@NamedEntityGraphs({
+        @NamedEntityGraph(name = Student.GRAPH_WITH_COURSE,
+                attributeNodes = @NamedAttributeNode("course")),
+        @NamedEntityGraph(name = Student.GRAPH_WITH_PAYMENTS,
+                attributeNodes = {@NamedAttributeNode("course"), @NamedAttributeNode("payments")})
+})
 public class Student {
 
+    // Entity graphs behind StudentFetchPlan
+    public static final String GRAPH_WITH_COURSE = "Student.withCourse";
+    public static final String GRAPH_WITH_PAYMENTS = "Student.withPayments";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "student_id")
@@ -19,12 +29,26 @@ public class Student {
     @Column(name = "email", unique = true, nullable = false, length = 100)
     private String email;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Lazy so postings and lookups don't drag the course along; listings join-fetch it
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id")
     private Course course;
 
+    // Amounts in paise (see Money)
     @Column(name = "balance", nullable = false)
-    private Double balance = 0.0;
+    private long balance;
+
+    // Running ledger totals, kept in step with the payments table by FeeService
+    @Column(name = "total_paid", nullable = false)
+    private long totalPaid;
+
+    @Column(name = "total_refunded", nullable = false)
+    private long totalRefunded;
+
+    // Optimistic lock: concurrent postings for the same student can't overwrite each other
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 
     @OneToMany(mappedBy = "student", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<Payment> payments = new HashSet<>();
@@ -77,14 +101,38 @@ public class Student {
         this.course = course;
     }
 
-    public Double getBalance() {
+    public long getBalance() {
         return balance;
     }
 
-    public void setBalance(Double balance) {
+    public void setBalance(long balance) {
         this.balance = balance;
     }
 
+    public long getTotalPaid() {
+        return totalPaid;
+    }
+
+    public void setTotalPaid(long totalPaid) {
+        this.totalPaid = totalPaid;
+    }
+
+    public long getTotalRefunded() {
+        return totalRefunded;
+    }
+
+    public void setTotalRefunded(long totalRefunded) {
+        this.totalRefunded = totalRefunded;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Set<Payment> getPayments() {
         return payments;
     }
@@ -100,7 +148,7 @@ public class Student {
                 ", name='" + name + '\'' +
                 ", email='" + email + '\'' +
                 ", course=" + (course != null ? course.getCourseName() : "Not Enrolled") +
-                ", balance=" + balance +
+                ", balance=" + Money.format(balance) +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.dto.CourseSummary;
+import com.studentmanagement.dto.PaymentReceipt;
+import com.studentmanagement.dto.StudentSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Changes made through the HTTP API. Each call runs the same steps as the
+ * console menu in its own transaction, retried on concurrent updates, and
+ * returns a DTO instead of printing: students and courses are read back
+ * after the commit, payments are answered from the posting itself.
+ * Payments and refunds go through PaymentIngestionQueue, so concurrent
+ * postings (gateway callbacks) share a commit.
+ */
+@Service
+public class ApiService {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private PaymentIngestionQueue paymentIngestionQueue;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Create student
+    public StudentSummary addStudent(String name, String email) {
+        Long studentId = inTransaction(() -> studentService.createStudent(name, email).getStudentId());
+        return reportService.getStudent(studentId);
+    }
+
+    // Update student
+    public StudentSummary updateStudent(Long studentId, String name, String email) {
+        inTransaction(() -> studentService.changeStudent(studentId, name, email));
+        return reportService.getStudent(studentId);
+    }
+
+    // Delete student
+    public void deleteStudent(Long studentId) {
+        inTransaction(() -> {
+            studentService.removeStudent(studentId);
+            return null;
+        });
+    }
+
+    // Enroll student in course
+    public StudentSummary enroll(Long studentId, Long courseId) {
+        inTransaction(() -> studentService.enroll(studentId, courseId));
+        return reportService.getStudent(studentId);
+    }
+
+    // Add course (fee in paise)
+    public CourseSummary addCourse(String courseName, Integer duration, long fee) {
+        Long courseId = inTransaction(() -> courseService.createCourse(courseName, duration, fee).getCourseId());
+        return reportService.getCourse(courseId);
+    }
+
+    // Update course (fee in paise)
+    public CourseSummary updateCourse(Long courseId, String courseName, Integer duration, long fee) {
+        inTransaction(() -> courseService.changeCourse(courseId, courseName, duration, fee));
+        return reportService.getCourse(courseId);
+    }
+
+    // Delete course
+    public void deleteCourse(Long courseId) {
+        inTransaction(() -> {
+            courseService.removeCourse(courseId);
+            return null;
+        });
+    }
+
+    // Post a payment (amount in paise); a repeated idempotency key returns the original receipt
+    public PaymentReceipt pay(Long studentId, long amount, String description, String idempotencyKey) {
+        return await(paymentIngestionQueue.submitPayment(studentId, amount, description, idempotencyKey));
+    }
+
+    // Post a refund (amount in paise); a repeated idempotency key returns the original receipt
+    public PaymentReceipt refund(Long studentId, long amount, String reason, String idempotencyKey) {
+        return await(paymentIngestionQueue.submitRefund(studentId, amount, reason, idempotencyKey));
+    }
+
+    // The receipt of a queued posting, or the exception it was rejected with
+    private static PaymentReceipt await(CompletableFuture<PaymentReceipt> posting) {
+        try {
+            return posting.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionRetryTemplate(transactionManager).execute(status -> work.get());
+    }
+}
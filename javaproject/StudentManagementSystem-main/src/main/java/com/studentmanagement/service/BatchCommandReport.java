@@ -0,0 +1,43 @@
+package com.studentmanagement.service;
+
+/**
+ * Outcome of a batch command run. The per-command results are written to the
+ * output as the run goes; this only keeps the counts.
+ */
+public class BatchCommandReport {
+
+    private long commands;
+    private long succeeded;
+    private long failed;
+
+    void succeeded() {
+        commands++;
+        succeeded++;
+    }
+
+    void failed() {
+        commands++;
+        failed++;
+    }
+
+    public long getCommands() {
+        return commands;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchCommandReport{" +
+                "commands=" + commands +
+                ", succeeded=" + succeeded +
+                ", failed=" + failed +
+                '}';
+    }
+}
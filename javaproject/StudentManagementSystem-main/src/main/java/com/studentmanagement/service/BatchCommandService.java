@@ -0,0 +1,244 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.model.Money;
+import com.studentmanagement.model.Payment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Non-interactive command processor for scripts and nightly jobs.
+ *
+ * Input is one command per line, fields separated by tabs:
+ * <pre>
+ * add-course   name  durationMonths  fee
+ * add-student  name  email
+ * enroll       studentId  courseId
+ * pay          studentId  amount  [description]
+ * refund       studentId  amount  [reason]
+ * </pre>
+ * Amounts are rupees with up to two decimals. Blank lines and lines starting
+ * with '#' are skipped.
+ *
+ * Commands are applied in groups of up to batchSize, one transaction per group.
+ * If a group fails its commands are re-applied one transaction each, so only
+ * the bad command fails. Each command gets one tab-separated result line, in
+ * input order, once its transaction has committed:
+ * <pre>
+ * lineNumber  OK     id  [balance]
+ * lineNumber  ERROR  message
+ * </pre>
+ */
+@Service
+public class BatchCommandService {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchCommandService.class);
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private FeeService feeService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    private static class BatchCommand {
+        private final int lineNumber;
+        private Supplier<String> action;
+        private String result;
+        private String error;
+
+        private BatchCommand(int lineNumber) {
+            this.lineNumber = lineNumber;
+        }
+    }
+
+    public BatchCommandReport run(Reader source, PrintWriter out) throws IOException {
+        TransactionRetryTemplate transaction = new TransactionRetryTemplate(transactionManager);
+        BatchCommandReport report = new BatchCommandReport();
+        List<BatchCommand> group = new ArrayList<>(batchSize);
+        BufferedReader reader = source instanceof BufferedReader
+                ? (BufferedReader) source : new BufferedReader(source);
+
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+
+            // Malformed lines fail on their own without touching the database
+            BatchCommand command = new BatchCommand(lineNumber);
+            try {
+                command.action = parse(line.split("\t", -1));
+            } catch (RuntimeException e) {
+                command.error = e.getMessage();
+            }
+
+            group.add(command);
+            if (group.size() == batchSize) {
+                execute(transaction, group, out, report);
+                group.clear();
+            }
+        }
+        if (!group.isEmpty()) {
+            execute(transaction, group, out, report);
+        }
+        return report;
+    }
+
+    private Supplier<String> parse(String[] fields) {
+        String name = fields[0].trim();
+        switch (name) {
+            case "add-course": {
+                expectFields(fields, 4, 4);
+                String courseName = text(fields[1], "course name");
+                Integer duration = integer(fields[2], "duration");
+                long fee = amount(fields[3]);
+                return () -> String.valueOf(courseService.createCourse(courseName, duration, fee).getCourseId());
+            }
+            case "add-student": {
+                expectFields(fields, 3, 3);
+                String studentName = text(fields[1], "name");
+                String email = text(fields[2], "email");
+                return () -> String.valueOf(studentService.createStudent(studentName, email).getStudentId());
+            }
+            case "enroll": {
+                expectFields(fields, 3, 3);
+                Long studentId = id(fields[1], "student ID");
+                Long courseId = id(fields[2], "course ID");
+                return () -> String.valueOf(studentService.enroll(studentId, courseId).getStudentId());
+            }
+            case "pay": {
+                expectFields(fields, 3, 4);
+                Long studentId = id(fields[1], "student ID");
+                long amount = amount(fields[2]);
+                String description = fields.length > 3 ? fields[3] : "";
+                return () -> paymentResult(feeService.postPayment(studentId, amount, description));
+            }
+            case "refund": {
+                expectFields(fields, 3, 4);
+                Long studentId = id(fields[1], "student ID");
+                long amount = amount(fields[2]);
+                String reason = fields.length > 3 ? fields[3] : "";
+                return () -> paymentResult(feeService.postRefund(studentId, amount, reason));
+            }
+            default:
+                throw new IllegalArgumentException("Unknown command: " + name);
+        }
+    }
+
+    private static String paymentResult(Payment payment) {
+        return payment.getPaymentId() + "\t" + Money.format(payment.getStudent().getBalance());
+    }
+
+    private void execute(TransactionRetryTemplate transaction, List<BatchCommand> group,
+                         PrintWriter out, BatchCommandReport report) {
+        List<BatchCommand> valid = new ArrayList<>(group.size());
+        for (BatchCommand command : group) {
+            if (command.error == null) {
+                valid.add(command);
+            }
+        }
+
+        if (!valid.isEmpty()) {
+            try {
+                List<String> results = transaction.execute(status -> {
+                    List<String> applied = new ArrayList<>(valid.size());
+                    for (BatchCommand command : valid) {
+                        applied.add(command.action.get());
+                    }
+                    return applied;
+                });
+                for (int i = 0; i < valid.size(); i++) {
+                    valid.get(i).result = results.get(i);
+                }
+            } catch (RuntimeException e) {
+                log.debug("Group of {} commands failed, applying individually: {}", valid.size(), e.getMessage());
+                for (BatchCommand command : valid) {
+                    try {
+                        command.result = transaction.execute(status -> command.action.get());
+                    } catch (RuntimeException ex) {
+                        command.error = ErrorMessages.describe(ex);
+                    }
+                }
+            }
+        }
+
+        for (BatchCommand command : group) {
+            if (command.error == null) {
+                out.println(command.lineNumber + "\tOK\t" + command.result);
+                report.succeeded();
+            } else {
+                out.println(command.lineNumber + "\tERROR\t" + String.valueOf(command.error).replaceAll("\\s+", " "));
+                report.failed();
+            }
+        }
+        out.flush();
+    }
+
+    private static void expectFields(String[] fields, int min, int max) {
+        if (fields.length < min || fields.length > max) {
+            throw new IllegalArgumentException("Expected " + (min == max ? min : min + "-" + max) +
+                    " tab-separated fields for " + fields[0].trim() + ", got " + fields.length);
+        }
+    }
+
+    private static String text(String field, String what) {
+        String value = field.trim();
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("Missing " + what);
+        }
+        return value;
+    }
+
+    private static Long id(String field, String what) {
+        try {
+            return Long.valueOf(field.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + what + ": " + field);
+        }
+    }
+
+    private static Integer integer(String field, String what) {
+        try {
+            return Integer.valueOf(field.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + what + ": " + field);
+        }
+    }
+
+    private static long amount(String field) {
+        return Money.parse(field);
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.batchSize = batchSize;
+    }
+}
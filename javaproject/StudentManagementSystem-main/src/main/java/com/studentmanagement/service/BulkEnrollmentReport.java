@@ -0,0 +1,109 @@
+package com.studentmanagement.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk enrollment: one result per student, in the order the
+ * students were given (or, for a move between courses, in ID order).
+ */
+public class BulkEnrollmentReport {
+
+    private final Long courseId;
+    private final List<Result> results = new ArrayList<>();
+    private int enrolled;
+    private int alreadyEnrolled;
+    private int notFound;
+    private int failed;
+
+    public enum Outcome {
+        ENROLLED, ALREADY_ENROLLED, NOT_FOUND, FAILED
+    }
+
+    public static class Result {
+        private final Long studentId;
+        private final Outcome outcome;
+        private final String error;
+
+        public Result(Long studentId, Outcome outcome, String error) {
+            this.studentId = studentId;
+            this.outcome = outcome;
+            this.error = error;
+        }
+
+        public Long getStudentId() {
+            return studentId;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        // Why the student's chunk failed; null unless the outcome is FAILED
+        public String getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return "Student " + studentId + ": " + outcome + (error != null ? " (" + error + ")" : "");
+        }
+    }
+
+    BulkEnrollmentReport(Long courseId) {
+        this.courseId = courseId;
+    }
+
+    void add(Long studentId, Outcome outcome, String error) {
+        results.add(new Result(studentId, outcome, error));
+        switch (outcome) {
+            case ENROLLED:
+                enrolled++;
+                break;
+            case ALREADY_ENROLLED:
+                alreadyEnrolled++;
+                break;
+            case NOT_FOUND:
+                notFound++;
+                break;
+            default:
+                failed++;
+        }
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public int getEnrolled() {
+        return enrolled;
+    }
+
+    public int getAlreadyEnrolled() {
+        return alreadyEnrolled;
+    }
+
+    public int getNotFound() {
+        return notFound;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<Result> getResults() {
+        return Collections.unmodifiableList(results);
+    }
+
+    @Override
+    public String toString() {
+        return "BulkEnrollmentReport{" +
+                "courseId=" + courseId +
+                ", enrolled=" + enrolled +
+                ", alreadyEnrolled=" + alreadyEnrolled +
+                ", notFound=" + notFound +
+                ", failed=" + failed +
+                '}';
+    }
+}
@@ -0,0 +1,158 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.dao.CourseDAO;
+import com.studentmanagement.dao.StudentDAO;
+import com.studentmanagement.model.Course;
+import com.studentmanagement.service.BulkEnrollmentReport.Outcome;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Enrolls many students in one course, either a given list of students or
+ * everyone currently in another course.
+ *
+ * The course is looked up once. Students are then handled in chunks, one
+ * transaction per chunk (retried on concurrent updates): one SELECT ... FOR
+ * UPDATE reads the chunk's current courses, one UPDATE moves the students
+ * that need it, and their enrollment events are written in one batch.
+ *
+ * Caches stay consistent: the UPDATE goes through Hibernate, which
+ * invalidates cached queries over the students table, and neither the
+ * cached courses nor the search index hold enrollments.
+ */
+@Service
+public class BulkEnrollmentService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private StudentDAO studentDAO;
+
+    @Autowired
+    private CourseDAO courseDAO;
+
+    @Autowired
+    private EventOutbox eventOutbox;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Enroll the listed students in the course. Repeated IDs are handled once.
+     * A chunk that fails is reported as FAILED for each of its students; the
+     * other chunks are unaffected.
+     */
+    public BulkEnrollmentReport enrollStudents(Collection<Long> studentIds, Long courseId) {
+        if (studentIds.contains(null)) {
+            throw new RuntimeException("Student IDs cannot be empty!");
+        }
+        Course course = requireCourse(courseId);
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(studentIds));
+        TransactionRetryTemplate transaction = new TransactionRetryTemplate(transactionManager);
+
+        BulkEnrollmentReport report = new BulkEnrollmentReport(courseId);
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            Map<Long, Outcome> outcomes;
+            try {
+                outcomes = transaction.execute(status -> enrollChunk(chunk, course));
+            } catch (RuntimeException e) {
+                for (Long studentId : chunk) {
+                    report.add(studentId, Outcome.FAILED, ErrorMessages.describe(e));
+                }
+                continue;
+            }
+            for (Long studentId : chunk) {
+                report.add(studentId, outcomes.get(studentId), null);
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Enroll every student currently in one course in another. A failure
+     * stops the move; the chunks moved before it stay moved.
+     */
+    public BulkEnrollmentReport moveStudents(Long fromCourseId, Long toCourseId) {
+        Course course = requireCourse(toCourseId);
+        BulkEnrollmentReport report = new BulkEnrollmentReport(toCourseId);
+        if (fromCourseId.equals(toCourseId)) {
+            return report;
+        }
+        TransactionRetryTemplate transaction = new TransactionRetryTemplate(transactionManager);
+
+        Long afterId = 0L;
+        while (true) {
+            Long after = afterId;
+            List<Long> moved;
+            try {
+                moved = transaction.execute(status -> {
+                    List<Long> ids = studentDAO.getIdsByCourseForUpdate(fromCourseId, after, CHUNK_SIZE);
+                    enroll(ids, course);
+                    return ids;
+                });
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Move stopped after " + report.getEnrolled() + " students: "
+                        + ErrorMessages.describe(e), e);
+            }
+            for (Long studentId : moved) {
+                report.add(studentId, Outcome.ENROLLED, null);
+            }
+            if (moved.size() < CHUNK_SIZE) {
+                return report;
+            }
+            afterId = moved.get(moved.size() - 1);
+        }
+    }
+
+    private Course requireCourse(Long courseId) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Course course = readOnly.execute(status -> courseDAO.getById(courseId));
+        if (course == null) {
+            throw new NotFoundException("Course not found!");
+        }
+        return course;
+    }
+
+    // One chunk of a list enrollment; the students already in the course are left alone
+    private Map<Long, Outcome> enrollChunk(List<Long> studentIds, Course course) {
+        Map<Long, Long> currentCourseIds = studentDAO.getCourseIdsForUpdate(studentIds);
+        Map<Long, Outcome> outcomes = new HashMap<>();
+        List<Long> toEnroll = new ArrayList<>(studentIds.size());
+        for (Long studentId : studentIds) {
+            if (!currentCourseIds.containsKey(studentId)) {
+                outcomes.put(studentId, Outcome.NOT_FOUND);
+            } else if (course.getCourseId().equals(currentCourseIds.get(studentId))) {
+                outcomes.put(studentId, Outcome.ALREADY_ENROLLED);
+            } else {
+                outcomes.put(studentId, Outcome.ENROLLED);
+                toEnroll.add(studentId);
+            }
+        }
+        enroll(toEnroll, course);
+        return outcomes;
+    }
+
+    // Students whose rows this transaction has locked
+    private void enroll(List<Long> studentIds, Course course) {
+        if (studentIds.isEmpty()) {
+            return;
+        }
+        studentDAO.updateCourse(studentIds, course);
+        eventOutbox.studentsEnrolled(studentIds, course);
+        readYourWrites.wroteStudents(studentIds);
+    }
+}
@@ -1,12 +1,16 @@
 package com.studentmanagement.service;
 
+import com.studentmanagement.config.MetricsConfig;
 import com.studentmanagement.dao.CourseDAO;
+import com.studentmanagement.dao.StudentDAO;
 import com.studentmanagement.model.Course;
+import org.hibernate.stat.CacheRegionStatistics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public class CourseService {
@@ -14,43 +18,65 @@ public class CourseService {
     @Autowired
     private CourseDAO courseDAO;
 
-    // Add course
+    @Autowired
+    private StudentDAO studentDAO;
+
+    // Add course (fee in paise)
     @Transactional
-    public void addCourse(String courseName, Integer duration, Double fee) {
+    public void addCourse(String courseName, Integer duration, long fee) {
+        Course course = createCourse(courseName, duration, fee);
+        System.out.println("Course added successfully with ID: " + course.getCourseId());
+    }
+
+    // Add course steps, run inside the caller's transaction
+    Course createCourse(String courseName, Integer duration, long fee) {
         Course course = new Course(courseName, duration, fee);
         courseDAO.save(course);
-        System.out.println("Course added successfully with ID: " + course.getCourseId());
+        return course;
     }
 
     // Update course
     @Transactional
-    public void updateCourse(Long courseId, String courseName, Integer duration, Double fee) {
+    public void updateCourse(Long courseId, String courseName, Integer duration, long fee) {
+        changeCourse(courseId, courseName, duration, fee);
+        System.out.println("Course updated successfully!");
+    }
+
+    // Update course steps, run inside the caller's transaction
+    Course changeCourse(Long courseId, String courseName, Integer duration, long fee) {
         Course course = courseDAO.getById(courseId);
         if (course == null) {
-            throw new RuntimeException("Course not found!");
+            throw new NotFoundException("Course not found!");
         }
 
         course.setCourseName(courseName);
         course.setDuration(duration);
         course.setFee(fee);
         courseDAO.update(course);
-        System.out.println("Course updated successfully!");
+        courseDAO.evictFromCacheAfterCommit(courseId);
+        return course;
     }
 
     // Delete course
     @Transactional
     public void deleteCourse(Long courseId) {
+        removeCourse(courseId);
+        System.out.println("Course deleted successfully!");
+    }
+
+    // Delete course steps, run inside the caller's transaction
+    void removeCourse(Long courseId) {
         Course course = courseDAO.getById(courseId);
         if (course == null) {
-            throw new RuntimeException("Course not found!");
+            throw new NotFoundException("Course not found!");
         }
 
-        if (!course.getStudents().isEmpty()) {
+        if (studentDAO.existsByCourse(courseId)) {
             throw new RuntimeException("Cannot delete course with enrolled students!");
         }
 
         courseDAO.delete(courseId);
-        System.out.println("Course deleted successfully!");
+        courseDAO.evictFromCacheAfterCommit(courseId);
     }
 
     // Get course by ID
@@ -64,4 +90,43 @@ public class CourseService {
     public List<Course> getAllCourses() {
         return courseDAO.getAll();
     }
-}
\ No newline at end of file
+
+    // Get one page of courses after the given ID
+    @Transactional(readOnly = true)
+    public List<Course> getCoursesPage(Long afterId, int pageSize) {
+        return courseDAO.getPage(afterId, pageSize);
+    }
+
+    // Stream all courses with flat memory use
+    @Transactional(readOnly = true)
+    public long forEachCourse(Consumer<Course> action) {
+        return courseDAO.forEach(action);
+    }
+
+    /**
+     * Display hit/miss statistics for the course caches
+     */
+    public void displayCacheStatistics() {
+        if (!courseDAO.isStatisticsEnabled()) {
+            System.out.println("Cache statistics are off. Start with -D" + MetricsConfig.ENABLED_PROPERTY
+                    + "=true to collect them.");
+            return;
+        }
+        printRegionStatistics("Course entity cache", courseDAO.getEntityCacheStatistics());
+        printRegionStatistics("Course query cache", courseDAO.getQueryCacheStatistics());
+    }
+
+    private void printRegionStatistics(String title, CacheRegionStatistics statistics) {
+        System.out.println("\n===== " + title + " =====");
+        if (statistics == null) {
+            System.out.println("Region not in use yet.");
+            return;
+        }
+        long lookups = statistics.getHitCount() + statistics.getMissCount();
+        System.out.println("Hits: " + statistics.getHitCount());
+        System.out.println("Misses: " + statistics.getMissCount());
+        System.out.println("Puts: " + statistics.getPutCount());
+        System.out.println("Hit ratio: " + (lookups == 0 ? "n/a"
+                : String.format("%.1f%%", 100.0 * statistics.getHitCount() / lookups)));
+    }
+}
@@ -0,0 +1,13 @@
+package com.studentmanagement.service;
+
+/**
+ * A record would clash with an existing one, e.g. a second student with the same email.
+ */
+public class DuplicateException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DuplicateException(String message) {
+        super(message);
+    }
+}
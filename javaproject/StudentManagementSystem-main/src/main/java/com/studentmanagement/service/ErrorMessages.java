@@ -0,0 +1,26 @@
+package com.studentmanagement.service;
+
+/**
+ * Messages for failures reported per row or per command instead of thrown.
+ */
+final class ErrorMessages {
+
+    private ErrorMessages() {
+    }
+
+    /**
+     * Our own exceptions' messages as-is (validation failures, NotFoundException,
+     * "Could not read ..." wrappers); for driver/ORM failures the root cause
+     * says more than the wrapper.
+     */
+    static String describe(Throwable e) {
+        if (e.getClass() == RuntimeException.class || e.getCause() == null) {
+            return e.getMessage();
+        }
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+}
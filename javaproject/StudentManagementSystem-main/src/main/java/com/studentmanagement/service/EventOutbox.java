@@ -0,0 +1,131 @@
+package com.studentmanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.studentmanagement.dao.OutboxDAO;
+import com.studentmanagement.dto.ChangeEvent;
+import com.studentmanagement.model.Course;
+import com.studentmanagement.model.OutboxEvent;
+import com.studentmanagement.model.OutboxEvent.EventType;
+import com.studentmanagement.model.OutboxOffset;
+import com.studentmanagement.model.Payment;
+import com.studentmanagement.model.Student;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transactional outbox for payment, refund and enrollment changes.
+ *
+ * The posting and enrollment steps record an event in the same transaction
+ * as the change, so an event exists exactly when its change committed.
+ * OutboxRelay publishes the events to its sinks and numbers them; consumers
+ * read published events by position and keep their offset here, instead of
+ * re-scanning the payments table.
+ */
+@Service
+public class EventOutbox {
+
+    public static final int MAX_READ = 1000;
+
+    static final ObjectMapper JSON = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Autowired
+    private OutboxDAO outboxDAO;
+
+    // Record a posted payment or refund; run inside the posting's transaction
+    void paymentPosted(Payment payment) {
+        Student student = payment.getStudent();
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("paymentId", payment.getPaymentId());
+        payload.put("studentId", student.getStudentId());
+        payload.put("amount", payment.getAmount());
+        payload.put("paymentDate", payment.getPaymentDate());
+        payload.put("description", payment.getDescription());
+        payload.put("balance", student.getBalance());
+        EventType type = payment.getPaymentType() == Payment.PaymentType.REFUND
+                ? EventType.REFUND_POSTED : EventType.PAYMENT_POSTED;
+        outboxDAO.save(new OutboxEvent(type, student.getStudentId(), toJson(payload)));
+    }
+
+    // Record an enrollment; run inside the enrollment's transaction
+    void studentEnrolled(Student student) {
+        outboxDAO.save(enrollment(student.getStudentId(), student.getCourse()));
+    }
+
+    // Record a bulk enrollment, one event per student in one batch; run inside its transaction
+    void studentsEnrolled(List<Long> studentIds, Course course) {
+        List<OutboxEvent> events = new ArrayList<>(studentIds.size());
+        for (Long studentId : studentIds) {
+            events.add(enrollment(studentId, course));
+        }
+        outboxDAO.batchInsert(events);
+    }
+
+    private static OutboxEvent enrollment(Long studentId, Course course) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("studentId", studentId);
+        payload.put("courseId", course.getCourseId());
+        payload.put("courseName", course.getCourseName());
+        payload.put("fee", course.getFee());
+        return new OutboxEvent(EventType.STUDENT_ENROLLED, studentId, toJson(payload));
+    }
+
+    private static String toJson(Object value) {
+        try {
+            return JSON.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot write event payload", e);
+        }
+    }
+
+    // Published events after the given position (0 = from the start), at most maxEvents
+    @Transactional(readOnly = true)
+    public List<ChangeEvent> read(long afterPosition, int maxEvents) {
+        if (maxEvents < 1 || maxEvents > MAX_READ) {
+            throw new IllegalArgumentException("Can read 1 to " + MAX_READ + " events at a time");
+        }
+        return outboxDAO.getPublishedAfter(afterPosition, maxEvents);
+    }
+
+    // Last position a consumer has committed; 0 for a new consumer
+    @Transactional(readOnly = true)
+    public long getOffset(String consumerName) {
+        OutboxOffset offset = outboxDAO.getOffset(consumerName);
+        return offset != null ? offset.getPosition() : 0;
+    }
+
+    // Record how far a consumer has processed; a lower position rewinds it
+    @Transactional
+    public void commitOffset(String consumerName, long position) {
+        if (consumerName == null || consumerName.isBlank() || consumerName.length() > 100) {
+            throw new IllegalArgumentException("Consumer name must be 1 to 100 characters");
+        }
+        if (position < 0) {
+            throw new IllegalArgumentException("Position cannot be negative");
+        }
+        OutboxOffset offset = outboxDAO.getOffset(consumerName);
+        if (offset == null) {
+            offset = new OutboxOffset(consumerName);
+        }
+        offset.setPosition(position);
+        offset.setUpdatedAt(LocalDateTime.now());
+        outboxDAO.saveOffset(offset);
+    }
+
+    // The next events for a consumer, after its committed offset
+    @Transactional(readOnly = true)
+    public List<ChangeEvent> poll(String consumerName, int maxEvents) {
+        return read(getOffset(consumerName), maxEvents);
+    }
+}
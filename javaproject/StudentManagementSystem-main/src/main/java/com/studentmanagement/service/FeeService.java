@@ -2,34 +2,111 @@ package com.studentmanagement.service;
 
 import com.studentmanagement.dao.StudentDAO;
 import com.studentmanagement.dao.PaymentDAO;
+import com.studentmanagement.dao.PaymentArchiveDAO;
+import com.studentmanagement.dto.PaymentReceipt;
+import com.studentmanagement.dto.PaymentSummary;
+import com.studentmanagement.model.ArchivedPayment;
+import com.studentmanagement.model.Money;
 import com.studentmanagement.model.Student;
 import com.studentmanagement.model.Payment;
 import com.studentmanagement.model.Payment.PaymentType;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 
 @Service
 public class FeeService {
 
+    // Size of payments.idempotency_key
+    public static final int MAX_IDEMPOTENCY_KEY_LENGTH = 64;
+
+    private static final int RECENT_IDEMPOTENCY_KEYS = 10_000;
+
     @Autowired
     private StudentDAO studentDAO;
 
     @Autowired
     private PaymentDAO paymentDAO;
 
+    @Autowired
+    private PaymentArchiveDAO paymentArchiveDAO;
+
+    @Autowired
+    private PaymentRollupService paymentRollupService;
+
+    @Autowired
+    private EventOutbox eventOutbox;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * How a posting protects the read-modify-write of a student's balance.
+     * OPTIMISTIC relies on the Student version column and retries on conflict;
+     * PESSIMISTIC locks the student row (SELECT ... FOR UPDATE) for the whole posting.
+     */
+    public enum LockingMode {
+        OPTIMISTIC, PESSIMISTIC
+    }
+
+    private volatile LockingMode lockingMode = LockingMode.OPTIMISTIC;
+
+    private final RecentPostings recentPostings = new RecentPostings(RECENT_IDEMPOTENCY_KEYS);
+
+    public LockingMode getLockingMode() {
+        return lockingMode;
+    }
+
+    public void setLockingMode(LockingMode lockingMode) {
+        this.lockingMode = lockingMode;
+    }
+
     /**
      * Process fee payment with transaction management
-     * If any step fails, the entire transaction will be rolled back
+     * If any step fails, the entire transaction will be rolled back.
+     * A posting that loses a race with another posting for the same student is retried.
+     * Amounts are in paise.
+     */
+    public PaymentReceipt processPayment(Long studentId, long amount, String description) {
+        return processPayment(studentId, amount, description, null);
+    }
+
+    /**
+     * Process fee payment at most once per idempotency key: repeating a call
+     * with the same key returns the original receipt without posting again.
      */
-    @Transactional
-    public void processPayment(Long studentId, Double amount, String description) {
+    public PaymentReceipt processPayment(Long studentId, long amount, String description, String idempotencyKey) {
+        PaymentReceipt receipt = post(PaymentType.PAYMENT, studentId, amount, description, idempotencyKey);
+
+        if (receipt.isDuplicate()) {
+            System.out.println("Payment already processed with this key (payment ID " +
+                    receipt.getPayment().getPaymentId() + ")");
+        } else {
+            System.out.println("Payment of Rs." + Money.format(amount) + " processed successfully!");
+        }
+        System.out.println("New balance: Rs." + Money.format(receipt.getBalance()));
+        return receipt;
+    }
+
+    // Payment steps, run inside the caller's transaction
+    Payment postPayment(Long studentId, long amount, String description) {
+        return postPayment(studentId, amount, description, null);
+    }
+
+    Payment postPayment(Long studentId, long amount, String description, String idempotencyKey) {
         // Step 1: Validate student exists
-        Student student = studentDAO.getById(studentId);
+        Student student = loadStudentForPosting(studentId);
         if (student == null) {
-            throw new RuntimeException("Student not found!");
+            throw new NotFoundException("Student not found!");
         }
 
         // Step 2: Validate amount
@@ -37,29 +114,55 @@ public class FeeService {
             throw new RuntimeException("Payment amount must be positive!");
         }
 
-        // Step 3: Update student balance (deduct amount)
-        Double newBalance = student.getBalance() - amount;
-        student.setBalance(newBalance);
+        // Step 3: Update student balance (deduct amount) and running total
+        student.setBalance(student.getBalance() - amount);
+        student.setTotalPaid(student.getTotalPaid() + amount);
         studentDAO.update(student);
 
-        // Step 4: Create payment record
+        // Step 4: Create payment record, add it to the daily rollup and announce it
         Payment payment = new Payment(student, amount, PaymentType.PAYMENT, description);
+        payment.setIdempotencyKey(idempotencyKey);
         paymentDAO.save(payment);
-
-        System.out.println("Payment of Rs." + amount + " processed successfully!");
-        System.out.println("New balance: Rs." + newBalance);
+        paymentRollupService.record(payment);
+        eventOutbox.paymentPosted(payment);
+        readYourWrites.wroteStudent(studentId);
+        return payment;
     }
 
     /**
      * Process refund with transaction management
-     * Ensures atomicity - if refund recording fails, balance update is rolled back
+     * Ensures atomicity - if refund recording fails, balance update is rolled back.
+     * A refund that loses a race with another posting for the same student is retried.
+     * Amounts are in paise.
      */
-    @Transactional
-    public void processRefund(Long studentId, Double amount, String reason) {
+    public PaymentReceipt processRefund(Long studentId, long amount, String reason) {
+        return processRefund(studentId, amount, reason, null);
+    }
+
+    // Process refund at most once per idempotency key, like processPayment
+    public PaymentReceipt processRefund(Long studentId, long amount, String reason, String idempotencyKey) {
+        PaymentReceipt receipt = post(PaymentType.REFUND, studentId, amount, reason, idempotencyKey);
+
+        if (receipt.isDuplicate()) {
+            System.out.println("Refund already processed with this key (payment ID " +
+                    receipt.getPayment().getPaymentId() + ")");
+        } else {
+            System.out.println("Refund of Rs." + Money.format(amount) + " processed successfully!");
+        }
+        System.out.println("New balance: Rs." + Money.format(receipt.getBalance()));
+        return receipt;
+    }
+
+    // Refund steps, run inside the caller's transaction
+    Payment postRefund(Long studentId, long amount, String reason) {
+        return postRefund(studentId, amount, reason, null);
+    }
+
+    Payment postRefund(Long studentId, long amount, String reason, String idempotencyKey) {
         // Step 1: Validate student exists
-        Student student = studentDAO.getById(studentId);
+        Student student = loadStudentForPosting(studentId);
         if (student == null) {
-            throw new RuntimeException("Student not found!");
+            throw new NotFoundException("Student not found!");
         }
 
         // Step 2: Validate refund amount
@@ -67,39 +170,188 @@ public class FeeService {
             throw new RuntimeException("Refund amount must be positive!");
         }
 
-        // Step 3: Calculate total paid and check if refund is possible
-        Double totalPaid = paymentDAO.getTotalPayments(studentId);
-        Double totalRefunded = paymentDAO.getTotalRefunds(studentId);
-        Double availableForRefund = totalPaid - totalRefunded;
+        // Step 3: Check if refund is possible against the running totals
+        long availableForRefund = student.getTotalPaid() - student.getTotalRefunded();
 
         if (amount > availableForRefund) {
             throw new RuntimeException("Refund amount exceeds available refund amount! " +
-                    "Available: Rs." + availableForRefund);
+                    "Available: Rs." + Money.format(availableForRefund));
         }
 
-        // Step 4: Update student balance (add amount back)
-        Double newBalance = student.getBalance() + amount;
-        student.setBalance(newBalance);
+        // Step 4: Update student balance (add amount back) and running total
+        student.setBalance(student.getBalance() + amount);
+        student.setTotalRefunded(student.getTotalRefunded() + amount);
         studentDAO.update(student);
 
-        // Step 5: Create refund record
+        // Step 5: Create refund record, add it to the daily rollup and announce it
         Payment refund = new Payment(student, amount, PaymentType.REFUND, reason);
+        refund.setIdempotencyKey(idempotencyKey);
         paymentDAO.save(refund);
+        paymentRollupService.record(refund);
+        eventOutbox.paymentPosted(refund);
+        readYourWrites.wroteStudent(studentId);
+        return refund;
+    }
+
+    /**
+     * Post a payment or refund in its own transaction and return its receipt;
+     * nothing is printed. With an idempotency key, a key seen before gets the
+     * original posting's receipt, marked duplicate: from memory when the key is
+     * recent, otherwise from the database or the payment archive (then with the
+     * current balance).
+     * A concurrent call with the same key loses on the unique index and is
+     * answered the same way.
+     */
+    PaymentReceipt post(PaymentType type, Long studentId, long amount, String description, String idempotencyKey) {
+        TransactionRetryTemplate transaction = new TransactionRetryTemplate(transactionManager);
+        if (idempotencyKey == null) {
+            return transaction.execute(status -> receipt(
+                    postOnce(type, studentId, amount, description, null), false));
+        }
+        checkIdempotencyKey(idempotencyKey);
+
+        PaymentReceipt receipt = recentPostings.get(idempotencyKey);
+        if (receipt != null) {
+            receipt = receipt.asDuplicate();
+        } else {
+            try {
+                receipt = transaction.execute(status ->
+                        postOnceByKey(type, studentId, amount, description, idempotencyKey));
+            } catch (RuntimeException e) {
+                if (!isConstraintViolation(e)) {
+                    throw e;
+                }
+                receipt = transaction.execute(status -> {
+                    Payment original = paymentDAO.getByIdempotencyKey(idempotencyKey);
+                    if (original == null) {
+                        throw e;
+                    }
+                    return receipt(original, true);
+                });
+            }
+            // Only once committed; inside a caller's transaction it could still roll back
+            if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+                recentPostings.put(idempotencyKey, receipt);
+            }
+        }
+
+        checkSamePosting(receipt, type, studentId, amount, idempotencyKey);
+        return receipt;
+    }
+
+    /**
+     * Posting steps of post(), run inside the caller's transaction, for callers
+     * that commit several postings at once. A receipt for a new idempotency
+     * key is not remembered until the caller has committed and calls remember().
+     */
+    PaymentReceipt postInTransaction(PaymentType type, Long studentId, long amount, String description,
+                                     String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return receipt(postOnce(type, studentId, amount, description, null), false);
+        }
+        checkIdempotencyKey(idempotencyKey);
+
+        PaymentReceipt receipt = recentPostings.get(idempotencyKey);
+        receipt = receipt != null
+                ? receipt.asDuplicate()
+                : postOnceByKey(type, studentId, amount, description, idempotencyKey);
+        checkSamePosting(receipt, type, studentId, amount, idempotencyKey);
+        return receipt;
+    }
+
+    // Remember a committed posting's receipt under its idempotency key, if it has one
+    void remember(String idempotencyKey, PaymentReceipt receipt) {
+        if (idempotencyKey != null) {
+            recentPostings.put(idempotencyKey, receipt);
+        }
+    }
+
+    private static void checkIdempotencyKey(String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key must be 1 to " +
+                    MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+    }
+
+    // The original posting's receipt if the key was used before, otherwise post now
+    private PaymentReceipt postOnceByKey(PaymentType type, Long studentId, long amount, String description,
+                                         String idempotencyKey) {
+        Payment original = paymentDAO.getByIdempotencyKey(idempotencyKey);
+        if (original != null) {
+            return receipt(original, true);
+        }
+        PaymentReceipt archived = archivedReceipt(idempotencyKey);
+        if (archived != null) {
+            return archived;
+        }
+        return receipt(postOnce(type, studentId, amount, description, idempotencyKey), false);
+    }
 
-        System.out.println("Refund of Rs." + amount + " processed successfully!");
-        System.out.println("New balance: Rs." + newBalance);
+    // A key may only be replayed for the posting it was first used for
+    private static void checkSamePosting(PaymentReceipt receipt, PaymentType type, Long studentId, long amount,
+                                         String idempotencyKey) {
+        PaymentSummary original = receipt.getPayment();
+        if (!original.getStudentId().equals(studentId) || original.getPaymentType() != type
+                || original.getAmount() != amount) {
+            throw new RuntimeException("Idempotency key " + idempotencyKey +
+                    " was already used for a different posting!");
+        }
+    }
+
+    private Payment postOnce(PaymentType type, Long studentId, long amount, String description,
+                             String idempotencyKey) {
+        return type == PaymentType.REFUND
+                ? postRefund(studentId, amount, description, idempotencyKey)
+                : postPayment(studentId, amount, description, idempotencyKey);
+    }
+
+    // Duplicate receipt for a key whose payment has been archived; null if the archive doesn't have it
+    private PaymentReceipt archivedReceipt(String idempotencyKey) {
+        ArchivedPayment archived = paymentArchiveDAO.getByIdempotencyKey(idempotencyKey);
+        if (archived == null) {
+            return null;
+        }
+        Student student = studentDAO.getById(archived.getStudentId());
+        PaymentSummary summary = new PaymentSummary(archived.getPaymentId(), archived.getStudentId(),
+                archived.getAmount(), archived.getPaymentDate(), archived.getPaymentType(), archived.getDescription());
+        return new PaymentReceipt(summary, student.getBalance(), true);
+    }
+
+    private static PaymentReceipt receipt(Payment payment, boolean duplicate) {
+        PaymentSummary summary = new PaymentSummary(payment.getPaymentId(), payment.getStudent().getStudentId(),
+                payment.getAmount(), payment.getPaymentDate(), payment.getPaymentType(), payment.getDescription());
+        return new PaymentReceipt(summary, payment.getStudent().getBalance(), duplicate);
+    }
+
+    private static boolean isConstraintViolation(RuntimeException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException || cause instanceof DataIntegrityViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Student loadStudentForPosting(Long studentId) {
+        if (lockingMode == LockingMode.PESSIMISTIC) {
+            return studentDAO.getByIdForUpdate(studentId);
+        }
+        return studentDAO.getById(studentId);
     }
 
     /**
-     * Get payment history for a student
+     * Get payment history for a student (live payments only, all of them;
+     * see ReportService.getPaymentHistoryPage for pages and archived ones)
      */
     @Transactional(readOnly = true)
     public List<Payment> getPaymentHistory(Long studentId) {
-        Student student = studentDAO.getById(studentId);
-        if (student == null) {
-            throw new RuntimeException("Student not found!");
+        readYourWrites.readingStudent(studentId);
+        List<Payment> payments = paymentDAO.getPaymentsByStudent(studentId);
+        // Only an empty history needs the student looked up
+        if (payments.isEmpty() && studentDAO.getById(studentId) == null) {
+            throw new NotFoundException("Student not found!");
         }
-        return paymentDAO.getPaymentsByStudent(studentId);
+        return payments;
     }
 
     /**
@@ -107,23 +359,24 @@ public class FeeService {
      */
     @Transactional(readOnly = true)
     public void displayFeeSummary(Long studentId) {
+        readYourWrites.readingStudent(studentId);
         Student student = studentDAO.getById(studentId);
         if (student == null) {
-            throw new RuntimeException("Student not found!");
+            throw new NotFoundException("Student not found!");
         }
 
-        Double totalPaid = paymentDAO.getTotalPayments(studentId);
-        Double totalRefunded = paymentDAO.getTotalRefunds(studentId);
-        Double courseFee = student.getCourse() != null ? student.getCourse().getFee() : 0.0;
-        Double netPaid = totalPaid - totalRefunded;
-        Double balance = student.getBalance();
+        long totalPaid = student.getTotalPaid();
+        long totalRefunded = student.getTotalRefunded();
+        long courseFee = student.getCourse() != null ? student.getCourse().getFee() : 0;
+        long netPaid = totalPaid - totalRefunded;
+        long balance = student.getBalance();
 
         System.out.println("\n===== Fee Summary for " + student.getName() + " =====");
-        System.out.println("Course Fee: Rs." + courseFee);
-        System.out.println("Total Paid: Rs." + totalPaid);
-        System.out.println("Total Refunded: Rs." + totalRefunded);
-        System.out.println("Net Paid: Rs." + netPaid);
-        System.out.println("Current Balance: Rs." + balance);
+        System.out.println("Course Fee: Rs." + Money.format(courseFee));
+        System.out.println("Total Paid: Rs." + Money.format(totalPaid));
+        System.out.println("Total Refunded: Rs." + Money.format(totalRefunded));
+        System.out.println("Net Paid: Rs." + Money.format(netPaid));
+        System.out.println("Current Balance: Rs." + Money.format(balance));
         System.out.println("==========================================\n");
     }
 }
\ No newline at end of file
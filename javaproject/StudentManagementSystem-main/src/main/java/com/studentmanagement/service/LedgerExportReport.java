@@ -0,0 +1,76 @@
+package com.studentmanagement.service;
+
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a ledger export: one file per month that had payments.
+ */
+public class LedgerExportReport {
+
+    private final List<Partition> partitions = new ArrayList<>();
+
+    public static class Partition {
+        private final YearMonth month;
+        private final Path file;
+        private final long rows;
+        private final long bytes;
+
+        public Partition(YearMonth month, Path file, long rows, long bytes) {
+            this.month = month;
+            this.file = file;
+            this.rows = rows;
+            this.bytes = bytes;
+        }
+
+        public YearMonth getMonth() {
+            return month;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        @Override
+        public String toString() {
+            return month + ": " + rows + " payments, " + bytes + " bytes (" + file + ")";
+        }
+    }
+
+    void partition(YearMonth month, Path file, long rows, long bytes) {
+        partitions.add(new Partition(month, file, rows, bytes));
+    }
+
+    // Oldest month first
+    public List<Partition> getPartitions() {
+        return Collections.unmodifiableList(partitions);
+    }
+
+    public long getRows() {
+        return partitions.stream().mapToLong(Partition::getRows).sum();
+    }
+
+    public long getBytes() {
+        return partitions.stream().mapToLong(Partition::getBytes).sum();
+    }
+
+    @Override
+    public String toString() {
+        long rows = getRows();
+        long bytes = getBytes();
+        String perPayment = rows > 0 ? String.format(" (%.1f bytes per payment)", (double) bytes / rows) : "";
+        return "Exported " + rows + " payments to " + partitions.size() + " monthly files, " +
+                bytes + " bytes" + perPayment;
+    }
+}
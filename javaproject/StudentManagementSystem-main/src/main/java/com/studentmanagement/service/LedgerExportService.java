@@ -0,0 +1,134 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.dao.PaymentDAO;
+import com.studentmanagement.ledger.LedgerFileWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exports the payments ledger to compact columnar files for offline
+ * analytics (see the com.studentmanagement.ledger package for the format).
+ *
+ * The ledger, archived payments included, is read once through PaymentDAO's
+ * plain JDBC cursor, in one read-only transaction, so the export is a
+ * consistent snapshot and can run on the replica. Payments are split by the
+ * month of their payment date into payments-YYYY-MM.ledger files. Rows arrive
+ * in payment date order, so only the current month's writer is open: it is
+ * closed as soon as the cursor moves past its month, and memory and file
+ * handles stay the same however many months the ledger spans. Files are
+ * written under a temporary name and renamed once the whole export has
+ * succeeded, replacing the files of an earlier export for the same months.
+ */
+@Service
+public class LedgerExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerExportService.class);
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    @Autowired
+    private PaymentDAO paymentDAO;
+
+    private static final class MonthFile {
+        final YearMonth month;
+        final Path file;
+        final Path tempFile;
+        // Null once the month is finished, so its buffers can be collected
+        LedgerFileWriter writer;
+        long rowCount;
+
+        MonthFile(Path directory, YearMonth month) throws IOException {
+            this.month = month;
+            this.file = directory.resolve(LedgerFileWriter.fileName(month));
+            this.tempFile = directory.resolve(file.getFileName() + TEMP_SUFFIX);
+            this.writer = new LedgerFileWriter(Files.newOutputStream(tempFile), month);
+        }
+
+        // Write the last row group and close the file
+        void finish() throws IOException {
+            if (writer != null) {
+                rowCount = writer.getRowCount();
+                LedgerFileWriter finished = writer;
+                writer = null;
+                finished.close();
+            }
+        }
+    }
+
+    // Export every payment to monthly files in the directory, creating it if needed
+    @Transactional(readOnly = true)
+    public LedgerExportReport export(Path directory) {
+        // Finished months first; the last one is still being written
+        List<MonthFile> months = new ArrayList<>();
+        long started = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            Files.createDirectories(directory);
+            long rows = paymentDAO.forEachLedgerRow((paymentId, studentId, paymentDate, paymentType, amount,
+                                                     description) -> {
+                try {
+                    YearMonth month = YearMonth.from(paymentDate);
+                    MonthFile current = months.isEmpty() ? null : months.get(months.size() - 1);
+                    if (current == null || !current.month.equals(month)) {
+                        if (current != null) {
+                            if (month.isBefore(current.month)) {
+                                throw new IllegalStateException("Ledger rows out of date order at payment " +
+                                        paymentId);
+                            }
+                            current.finish();
+                        }
+                        current = new MonthFile(directory, month);
+                        months.add(current);
+                    }
+                    current.writer.append(paymentId, studentId, paymentDate, paymentType, amount, description);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (!months.isEmpty()) {
+                months.get(months.size() - 1).finish();
+            }
+
+            LedgerExportReport report = new LedgerExportReport();
+            for (MonthFile monthFile : months) {
+                Files.move(monthFile.tempFile, monthFile.file, StandardCopyOption.REPLACE_EXISTING);
+                report.partition(monthFile.month, monthFile.file, monthFile.rowCount, Files.size(monthFile.file));
+            }
+            succeeded = true;
+            log.info("Exported {} payments to {} in {} ms", rows, directory,
+                    (System.nanoTime() - started) / 1_000_000);
+            return report;
+        } catch (IOException | UncheckedIOException e) {
+            Throwable cause = e instanceof UncheckedIOException ? e.getCause() : e;
+            throw new RuntimeException("Could not export the ledger to " + directory + ": " +
+                    cause.getMessage(), cause);
+        } finally {
+            if (!succeeded) {
+                for (MonthFile monthFile : months) {
+                    try {
+                        monthFile.finish();
+                    } catch (IOException e) {
+                        // Already failing; the partial file is removed below
+                    }
+                    try {
+                        Files.deleteIfExists(monthFile.tempFile);
+                    } catch (IOException e) {
+                        log.warn("Could not remove {}: {}", monthFile.tempFile, e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+}
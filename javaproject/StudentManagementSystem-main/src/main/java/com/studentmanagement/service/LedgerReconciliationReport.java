@@ -0,0 +1,122 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.model.Money;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a ledger reconciliation run: every student whose stored
+ * totals or balance disagree with the payments table. Amounts are in paise.
+ */
+public class LedgerReconciliationReport {
+
+    private int studentsChecked;
+    private int repaired;
+    private final List<Drift> drifts = new ArrayList<>();
+
+    public static class Drift {
+        private final Long studentId;
+        private final long storedPaid;
+        private final long ledgerPaid;
+        private final long storedRefunded;
+        private final long ledgerRefunded;
+        private final long storedBalance;
+        private final long ledgerBalance;
+
+        public Drift(Long studentId, long storedPaid, long ledgerPaid,
+                     long storedRefunded, long ledgerRefunded,
+                     long storedBalance, long ledgerBalance) {
+            this.studentId = studentId;
+            this.storedPaid = storedPaid;
+            this.ledgerPaid = ledgerPaid;
+            this.storedRefunded = storedRefunded;
+            this.ledgerRefunded = ledgerRefunded;
+            this.storedBalance = storedBalance;
+            this.ledgerBalance = ledgerBalance;
+        }
+
+        public Long getStudentId() {
+            return studentId;
+        }
+
+        public long getStoredPaid() {
+            return storedPaid;
+        }
+
+        public long getLedgerPaid() {
+            return ledgerPaid;
+        }
+
+        public long getStoredRefunded() {
+            return storedRefunded;
+        }
+
+        public long getLedgerRefunded() {
+            return ledgerRefunded;
+        }
+
+        public long getStoredBalance() {
+            return storedBalance;
+        }
+
+        public long getLedgerBalance() {
+            return ledgerBalance;
+        }
+
+        @Override
+        public String toString() {
+            return "Student " + studentId +
+                    ": paid " + Money.format(storedPaid) + " (ledger " + Money.format(ledgerPaid) + ")" +
+                    ", refunded " + Money.format(storedRefunded) + " (ledger " + Money.format(ledgerRefunded) + ")" +
+                    ", balance " + Money.format(storedBalance) + " (ledger " + Money.format(ledgerBalance) + ")";
+        }
+    }
+
+    void checked(int count) {
+        studentsChecked += count;
+    }
+
+    void drift(Drift drift) {
+        drifts.add(drift);
+    }
+
+    void repaired() {
+        repaired++;
+    }
+
+    // Another report's findings added to this one
+    void add(LedgerReconciliationReport other) {
+        studentsChecked += other.studentsChecked;
+        repaired += other.repaired;
+        drifts.addAll(other.drifts);
+    }
+
+    void clear() {
+        studentsChecked = 0;
+        repaired = 0;
+        drifts.clear();
+    }
+
+    public int getStudentsChecked() {
+        return studentsChecked;
+    }
+
+    public int getRepaired() {
+        return repaired;
+    }
+
+    public List<Drift> getDrifts() {
+        return Collections.unmodifiableList(drifts);
+    }
+
+    @Override
+    public String toString() {
+        return "LedgerReconciliationReport{" +
+                "studentsChecked=" + studentsChecked +
+                ", drifted=" + drifts.size() +
+                ", repaired=" + repaired +
+                '}';
+    }
+}
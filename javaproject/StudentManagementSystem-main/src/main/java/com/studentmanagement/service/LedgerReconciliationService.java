@@ -0,0 +1,117 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.dao.PaymentArchiveDAO;
+import com.studentmanagement.dao.PaymentDAO;
+import com.studentmanagement.dao.StudentDAO;
+import com.studentmanagement.model.PaymentCarryForward;
+import com.studentmanagement.model.Student;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recomputes each student's paid/refunded totals from the payments table,
+ * plus the carry-forward of their archived payments, and compares them with
+ * the running totals kept on the student row.
+ * Students are processed in chunks, one transaction per chunk; repair chunks
+ * are retried when they conflict with a concurrent posting.
+ */
+@Service
+public class LedgerReconciliationService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private StudentDAO studentDAO;
+
+    @Autowired
+    private PaymentDAO paymentDAO;
+
+    @Autowired
+    private PaymentArchiveDAO paymentArchiveDAO;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Report drift between stored and recomputed totals.
+     * When repair is true, drifted totals are overwritten with the ledger values.
+     * Balance drift is only reported, never repaired automatically.
+     */
+    public LedgerReconciliationReport reconcile(boolean repair) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        // A repair updates student rows that postings update too, so a chunk that loses the race is re-run
+        TransactionRetryTemplate readWrite = new TransactionRetryTemplate(transactionManager);
+
+        LedgerReconciliationReport report = new LedgerReconciliationReport();
+        Long afterId = 0L;
+        while (afterId != null) {
+            Long from = afterId;
+            LedgerReconciliationReport chunk = new LedgerReconciliationReport();
+            TransactionCallback<Long> work = status -> {
+                // A re-run chunk starts its findings over
+                chunk.clear();
+                return reconcileChunk(from, repair, chunk);
+            };
+            afterId = repair ? readWrite.execute(work) : readOnly.execute(work);
+            report.add(chunk);
+        }
+        return report;
+    }
+
+    // Returns the last student ID of the chunk, or null when there are no more students
+    private Long reconcileChunk(Long afterId, boolean repair, LedgerReconciliationReport report) {
+        List<Student> students = studentDAO.getPage(afterId, CHUNK_SIZE);
+        if (students.isEmpty()) {
+            return null;
+        }
+
+        List<Long> studentIds = new ArrayList<>(students.size());
+        for (Student student : students) {
+            studentIds.add(student.getStudentId());
+        }
+        Map<Long, Object[]> ledger = new HashMap<>();
+        for (Object[] row : paymentDAO.getLedgerTotals(studentIds)) {
+            ledger.put((Long) row[0], row);
+        }
+        Map<Long, PaymentCarryForward> carryForwards = paymentArchiveDAO.getCarryForwards(studentIds);
+
+        for (Student student : students) {
+            Object[] row = ledger.get(student.getStudentId());
+            PaymentCarryForward carryForward = carryForwards.get(student.getStudentId());
+            long ledgerPaid = (row != null ? (Long) row[1] : 0)
+                    + (carryForward != null ? carryForward.getTotalPaid() : 0);
+            long ledgerRefunded = (row != null ? (Long) row[2] : 0)
+                    + (carryForward != null ? carryForward.getTotalRefunded() : 0);
+            long ledgerBalance = ledgerRefunded - ledgerPaid;
+
+            // Amounts are exact paise, so any difference at all is drift
+            boolean totalsDrifted = student.getTotalPaid() != ledgerPaid
+                    || student.getTotalRefunded() != ledgerRefunded;
+            if (!totalsDrifted && student.getBalance() == ledgerBalance) {
+                continue;
+            }
+
+            report.drift(new LedgerReconciliationReport.Drift(student.getStudentId(),
+                    student.getTotalPaid(), ledgerPaid,
+                    student.getTotalRefunded(), ledgerRefunded,
+                    student.getBalance(), ledgerBalance));
+
+            if (repair && totalsDrifted) {
+                student.setTotalPaid(ledgerPaid);
+                student.setTotalRefunded(ledgerRefunded);
+                report.repaired();
+            }
+        }
+        report.checked(students.size());
+        return students.get(students.size() - 1).getStudentId();
+    }
+}
@@ -0,0 +1,13 @@
+package com.studentmanagement.service;
+
+/**
+ * The student, course or other record a service was asked about does not exist.
+ */
+public class NotFoundException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public NotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,193 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.dao.OutboxDAO;
+import com.studentmanagement.dto.ChangeEvent;
+import com.studentmanagement.model.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves outbox events from the table to the sinks.
+ *
+ * Each batch of unpublished events (oldest first) is numbered with the next
+ * positions, handed to every sink, and committed. If a sink fails the batch
+ * rolls back and is retried on the next poll, so delivery is at least once
+ * and in position order. Consumers reading through EventOutbox only see
+ * events once they have a position, so the relay must run even without sinks.
+ * Run one relay per database: a second one would fail on the unique position
+ * index, but only after its sinks had seen the batch.
+ */
+@Service
+public class OutboxRelay implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    // Append events as JSON lines to this file
+    public static final String FILE_PROPERTY = "studentmgmt.outbox.file";
+    // Send events as JSON lines to this host:port
+    public static final String SOCKET_PROPERTY = "studentmgmt.outbox.socket";
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final long DEFAULT_POLL_MILLIS = 200;
+
+    @Autowired
+    private OutboxDAO outboxDAO;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<OutboxSink> sinks = new CopyOnWriteArrayList<>();
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private long pollMillis = DEFAULT_POLL_MILLIS;
+    private ScheduledExecutorService scheduler;
+
+    public void addSink(OutboxSink sink) {
+        sinks.add(sink);
+    }
+
+    // Add the file and socket sinks named by system properties; returns how many were added
+    public int addConfiguredSinks() {
+        int added = 0;
+        String file = System.getProperty(FILE_PROPERTY);
+        if (file != null && !file.isBlank()) {
+            addSink(new FileOutboxSink(Paths.get(file)));
+            added++;
+        }
+        String socket = System.getProperty(SOCKET_PROPERTY);
+        if (socket != null && !socket.isBlank()) {
+            int colon = socket.lastIndexOf(':');
+            if (colon < 1) {
+                throw new IllegalArgumentException(SOCKET_PROPERTY + " must be host:port, got " + socket);
+            }
+            addSink(new SocketOutboxSink(socket.substring(0, colon), Integer.parseInt(socket.substring(colon + 1))));
+            added++;
+        }
+        return added;
+    }
+
+    /**
+     * Publish one batch of pending events. Returns the number published;
+     * fewer than the batch size means the outbox is drained.
+     */
+    public int publishPending() {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            List<OutboxEvent> events = outboxDAO.getUnpublished(batchSize);
+            if (events.isEmpty()) {
+                return 0;
+            }
+
+            long position = outboxDAO.getLastPosition();
+            LocalDateTime now = LocalDateTime.now();
+            List<ChangeEvent> batch = new ArrayList<>(events.size());
+            for (OutboxEvent event : events) {
+                event.setPosition(++position);
+                event.setPublishedAt(now);
+                batch.add(new ChangeEvent(event.getPosition(), event.getEventType(), event.getStudentId(),
+                        event.getCreatedAt(), event.getPayload()));
+            }
+
+            for (OutboxSink sink : sinks) {
+                try {
+                    sink.publish(batch);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Publishing to " + sink + " failed", e);
+                }
+            }
+            return events.size();
+        });
+    }
+
+    // Publish everything pending, batch by batch; returns the number published
+    public long drain() {
+        long published = 0;
+        int count;
+        do {
+            count = publishPending();
+            published += count;
+        } while (count == batchSize);
+        return published;
+    }
+
+    // Poll for new events in the background until stop()
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                long published = drain();
+                if (published > 0) {
+                    log.debug("Published {} outbox events", published);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Outbox relay failed, retrying in {} ms: {}", pollMillis, e.getMessage());
+            }
+        }, 0, pollMillis, TimeUnit.MILLISECONDS);
+        log.info("Outbox relay started with {} sink(s)", sinks.size());
+    }
+
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler = null;
+        for (OutboxSink sink : sinks) {
+            try {
+                sink.close();
+            } catch (Exception e) {
+                log.warn("Closing {} failed: {}", sink, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        stop();
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public long getPollMillis() {
+        return pollMillis;
+    }
+
+    public void setPollMillis(long pollMillis) {
+        this.pollMillis = pollMillis;
+    }
+}
@@ -0,0 +1,34 @@
+package com.studentmanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.studentmanagement.dto.ChangeEvent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination for published outbox events. OutboxRelay hands over each batch
+ * in position order before it commits the positions; if publish throws, the
+ * batch is offered again later, so a sink may see an event more than once and
+ * should use the position to skip what it already has.
+ *
+ * An in-JVM listener is simply a lambda: {@code relay.addSink(events -> ...)}.
+ */
+@FunctionalInterface
+public interface OutboxSink extends AutoCloseable {
+
+    void publish(List<ChangeEvent> events) throws IOException;
+
+    @Override
+    default void close() throws IOException {
+    }
+
+    // One event as a single line of JSON, as the file and socket sinks write it
+    static String toJsonLine(ChangeEvent event) {
+        try {
+            return EventOutbox.JSON.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot write event " + event.getPosition(), e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.model.Money;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of an archive run: how many payments dated before the cutoff
+ * were moved to the archive, and their totals.
+ */
+public class PaymentArchiveReport {
+
+    private final LocalDateTime cutoff;
+    private int batches;
+    private long archived;
+    private long amountPaid;
+    private long amountRefunded;
+
+    PaymentArchiveReport(LocalDateTime cutoff) {
+        this.cutoff = cutoff;
+    }
+
+    void batch(long payments, long paid, long refunded) {
+        batches++;
+        archived += payments;
+        amountPaid += paid;
+        amountRefunded += refunded;
+    }
+
+    // Payments dated before this were archived
+    public LocalDateTime getCutoff() {
+        return cutoff;
+    }
+
+    public int getBatches() {
+        return batches;
+    }
+
+    public long getArchived() {
+        return archived;
+    }
+
+    // In paise
+    public long getAmountPaid() {
+        return amountPaid;
+    }
+
+    // In paise
+    public long getAmountRefunded() {
+        return amountRefunded;
+    }
+
+    @Override
+    public String toString() {
+        return "Archived " + archived + " payments dated before " + cutoff + " in " + batches +
+                " batches (paid Rs." + Money.format(amountPaid) + ", refunded Rs." + Money.format(amountRefunded) + ")";
+    }
+}
@@ -0,0 +1,139 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.dao.PaymentArchiveDAO;
+import com.studentmanagement.model.PaymentCarryForward;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves payments older than the archive horizon out of the payments table,
+ * so the per-student history and sum queries only scan recent rows.
+ *
+ * Payments dated before the cutoff are moved BATCH_SIZE at a time, in ID
+ * order, one short transaction per batch: the batch's payment rows are
+ * locked, their totals per student are folded into payment_carry_forward,
+ * and the rows are copied to payments_archive and deleted. Sums over the
+ * payments table plus the carry-forward therefore always equal the running
+ * totals on the student, which postings keep updating as before. Archived
+ * payments keep their IDs and idempotency keys, and a key is still honoured
+ * once its payment is archived.
+ *
+ * The horizon is -Dstudentmgmt.archive.horizonMonths (default 24); the cutoff
+ * is the start of that day. One archive run at a time per process.
+ */
+@Service
+public class PaymentArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentArchiveService.class);
+
+    public static final String HORIZON_MONTHS_PROPERTY = "studentmgmt.archive.horizonMonths";
+
+    private static final int DEFAULT_HORIZON_MONTHS = 24;
+    private static final int BATCH_SIZE = 1_000;
+
+    @Autowired
+    private PaymentArchiveDAO paymentArchiveDAO;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // Payments dated before this are archived by archive()
+    public LocalDateTime getCutoff() {
+        int months = Integer.getInteger(HORIZON_MONTHS_PROPERTY, DEFAULT_HORIZON_MONTHS);
+        if (months < 0) {
+            throw new IllegalArgumentException(HORIZON_MONTHS_PROPERTY + " must not be negative");
+        }
+        return LocalDate.now().minusMonths(months).atStartOfDay();
+    }
+
+    // Archive payments older than the configured horizon
+    public PaymentArchiveReport archive() {
+        return archive(getCutoff());
+    }
+
+    // Archive payments dated before the cutoff
+    public PaymentArchiveReport archive(LocalDateTime cutoff) {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Payments are already being archived!");
+        }
+        try {
+            TransactionRetryTemplate transaction = new TransactionRetryTemplate(transactionManager);
+            PaymentArchiveReport report = new PaymentArchiveReport(cutoff);
+            long started = System.nanoTime();
+            Long afterId = 0L;
+            while (afterId != null) {
+                Long from = afterId;
+                Batch batch = transaction.execute(status -> archiveBatch(cutoff, from));
+                if (batch == null) {
+                    break;
+                }
+                report.batch(batch.payments, batch.paid, batch.refunded);
+                afterId = batch.lastPaymentId;
+            }
+            log.info("{} in {} ms", report, (System.nanoTime() - started) / 1_000_000);
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private static final class Batch {
+        final Long lastPaymentId;
+        final long payments;
+        final long paid;
+        final long refunded;
+
+        Batch(Long lastPaymentId, long payments, long paid, long refunded) {
+            this.lastPaymentId = lastPaymentId;
+            this.payments = payments;
+            this.paid = paid;
+            this.refunded = refunded;
+        }
+    }
+
+    // One batch in the caller's transaction; null when nothing is left to archive
+    private Batch archiveBatch(LocalDateTime cutoff, Long afterId) {
+        List<Long> paymentIds = paymentArchiveDAO.getIdsToArchiveForUpdate(cutoff, afterId, BATCH_SIZE);
+        if (paymentIds.isEmpty()) {
+            return null;
+        }
+
+        List<Object[]> totals = paymentArchiveDAO.getTotalsByStudent(paymentIds);
+        List<Long> studentIds = new ArrayList<>(totals.size());
+        for (Object[] row : totals) {
+            studentIds.add((Long) row[0]);
+        }
+        Map<Long, PaymentCarryForward> carryForwards = paymentArchiveDAO.getCarryForwardsForUpdate(studentIds);
+        long paid = 0;
+        long refunded = 0;
+        for (Object[] row : totals) {
+            Long studentId = (Long) row[0];
+            PaymentCarryForward carryForward = carryForwards.get(studentId);
+            boolean created = carryForward == null;
+            if (created) {
+                carryForward = new PaymentCarryForward(studentId);
+            }
+            carryForward.add((Long) row[1], (Long) row[2], (Long) row[3], (LocalDateTime) row[4]);
+            if (created) {
+                paymentArchiveDAO.saveCarryForward(carryForward);
+            }
+            paid += (Long) row[2];
+            refunded += (Long) row[3];
+        }
+
+        int moved = paymentArchiveDAO.moveToArchive(paymentIds, LocalDateTime.now());
+        return new Batch(paymentIds.get(paymentIds.size() - 1), moved, paid, refunded);
+    }
+}
@@ -0,0 +1,71 @@
+package com.studentmanagement.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a student's payment history: the last payment of the page
+ * before, by (paymentDate, paymentId), and whether it was a live or an
+ * archived one. Travels as an opaque URL-safe token that also names the
+ * student, so it cannot be replayed against another student's history.
+ */
+final class PaymentHistoryCursor {
+
+    private static final String LIVE = "L";
+    private static final String ARCHIVED = "A";
+
+    private final Long studentId;
+    private final boolean archived;
+    private final LocalDateTime paymentDate;
+    private final Long paymentId;
+
+    PaymentHistoryCursor(Long studentId, boolean archived, LocalDateTime paymentDate, Long paymentId) {
+        this.studentId = studentId;
+        this.archived = archived;
+        this.paymentDate = paymentDate;
+        this.paymentId = paymentId;
+    }
+
+    Long getStudentId() {
+        return studentId;
+    }
+
+    // Whether the page before ended in the archive
+    boolean isArchived() {
+        return archived;
+    }
+
+    LocalDateTime getPaymentDate() {
+        return paymentDate;
+    }
+
+    Long getPaymentId() {
+        return paymentId;
+    }
+
+    String encode() {
+        String value = studentId + "," + (archived ? ARCHIVED : LIVE) + "," + paymentDate + "," + paymentId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Inverse of encode(); IllegalArgumentException for anything encode() did not produce
+    static PaymentHistoryCursor decode(String token) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(",");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+        if (parts.length != 4 || !(parts[1].equals(LIVE) || parts[1].equals(ARCHIVED))) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        try {
+            return new PaymentHistoryCursor(Long.valueOf(parts[0]), parts[1].equals(ARCHIVED),
+                    LocalDateTime.parse(parts[2]), Long.valueOf(parts[3]));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
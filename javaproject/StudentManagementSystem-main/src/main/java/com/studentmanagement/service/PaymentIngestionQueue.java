@@ -0,0 +1,238 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.dto.PaymentReceipt;
+import com.studentmanagement.model.Payment.PaymentType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous front door for high-volume postings (payment gateway callbacks);
+ * the HTTP API posts payments and refunds through it.
+ *
+ * Postings are accepted without blocking and partitioned by student ID, so the
+ * postings of one student are applied in submission order by a single worker.
+ * Each worker commits what it has collected as one transaction once it holds
+ * maxBatchSize postings or maxLingerMillis have passed since the first one.
+ * If a group fails (e.g. one posting is invalid) its postings are re-applied
+ * one transaction each, so only the bad posting fails.
+ *
+ * Idempotency keys work as in FeeService.post: a key seen before answers with
+ * the original posting's receipt, marked duplicate, instead of posting again.
+ */
+@Service
+public class PaymentIngestionQueue implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentIngestionQueue.class);
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    @Autowired
+    private FeeService feeService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private int partitions = 4;
+    private int partitionCapacity = 10_000;
+    private int maxBatchSize = 100;
+    private long maxLingerMillis = 5;
+
+    private List<BlockingQueue<PendingPosting>> queues;
+    private ExecutorService workers;
+    private volatile boolean running;
+
+    private static class PendingPosting {
+        private final Long studentId;
+        private final long amount;
+        private final PaymentType type;
+        private final String description;
+        private final String idempotencyKey;
+        private final CompletableFuture<PaymentReceipt> result = new CompletableFuture<>();
+
+        private PendingPosting(Long studentId, long amount, PaymentType type, String description,
+                               String idempotencyKey) {
+            this.studentId = studentId;
+            this.amount = amount;
+            this.type = type;
+            this.description = description;
+            this.idempotencyKey = idempotencyKey;
+        }
+    }
+
+    /**
+     * Queue a payment (amount in paise). The future completes with its receipt once its
+     * group commits, or exceptionally if the payment is rejected.
+     */
+    public CompletableFuture<PaymentReceipt> submitPayment(Long studentId, long amount, String description) {
+        return submitPayment(studentId, amount, description, null);
+    }
+
+    // Queue a payment at most once per idempotency key (null for none)
+    public CompletableFuture<PaymentReceipt> submitPayment(Long studentId, long amount, String description,
+                                                           String idempotencyKey) {
+        return submit(new PendingPosting(studentId, amount, PaymentType.PAYMENT, description, idempotencyKey));
+    }
+
+    // Queue a refund; same ordering and outcome rules as submitPayment
+    public CompletableFuture<PaymentReceipt> submitRefund(Long studentId, long amount, String reason) {
+        return submitRefund(studentId, amount, reason, null);
+    }
+
+    // Queue a refund at most once per idempotency key (null for none)
+    public CompletableFuture<PaymentReceipt> submitRefund(Long studentId, long amount, String reason,
+                                                          String idempotencyKey) {
+        return submit(new PendingPosting(studentId, amount, PaymentType.REFUND, reason, idempotencyKey));
+    }
+
+    private CompletableFuture<PaymentReceipt> submit(PendingPosting posting) {
+        if (posting.studentId == null) {
+            posting.result.completeExceptionally(new NotFoundException("Student not found!"));
+            return posting.result;
+        }
+        startIfNeeded();
+
+        BlockingQueue<PendingPosting> queue =
+                queues.get(Math.floorMod(posting.studentId.hashCode(), partitions));
+        if (!running || !queue.offer(posting)) {
+            posting.result.completeExceptionally(
+                    new RejectedExecutionException("Payment queue is full or shut down"));
+        }
+        return posting.result;
+    }
+
+    private synchronized void startIfNeeded() {
+        if (workers != null) {
+            return;
+        }
+        queues = new ArrayList<>(partitions);
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(partitions,
+                runnable -> new Thread(runnable, "payment-ingest-" + threadNumber.incrementAndGet()));
+        running = true;
+        for (int i = 0; i < partitions; i++) {
+            BlockingQueue<PendingPosting> queue = new LinkedBlockingQueue<>(partitionCapacity);
+            queues.add(queue);
+            workers.execute(() -> drain(queue));
+        }
+    }
+
+    private void drain(BlockingQueue<PendingPosting> queue) {
+        List<PendingPosting> group = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingPosting first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxLingerMillis);
+                while (group.size() < maxBatchSize) {
+                    if (queue.drainTo(group, maxBatchSize - group.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    PendingPosting next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+                commit(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingPosting> group) {
+        TransactionRetryTemplate transaction = new TransactionRetryTemplate(transactionManager);
+        try {
+            List<PaymentReceipt> receipts = transaction.execute(status -> {
+                List<PaymentReceipt> committed = new ArrayList<>(group.size());
+                for (PendingPosting posting : group) {
+                    committed.add(feeService.postInTransaction(posting.type, posting.studentId,
+                            posting.amount, posting.description, posting.idempotencyKey));
+                }
+                return committed;
+            });
+            for (int i = 0; i < group.size(); i++) {
+                PendingPosting posting = group.get(i);
+                feeService.remember(posting.idempotencyKey, receipts.get(i));
+                posting.result.complete(receipts.get(i));
+            }
+            return;
+        } catch (RuntimeException e) {
+            log.debug("Group of {} postings failed, applying individually: {}", group.size(), e.getMessage());
+        }
+
+        for (PendingPosting posting : group) {
+            try {
+                posting.result.complete(feeService.post(posting.type, posting.studentId,
+                        posting.amount, posting.description, posting.idempotencyKey));
+            } catch (RuntimeException e) {
+                posting.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    // Stop accepting postings and commit everything already queued
+    @Override
+    public void destroy() throws InterruptedException {
+        ExecutorService pool;
+        synchronized (this) {
+            running = false;
+            pool = workers;
+        }
+        if (pool != null) {
+            pool.shutdown();
+            if (!pool.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Payment ingestion queue did not drain within 30 seconds");
+                pool.shutdownNow();
+            }
+            // Anything that slipped in while the workers were stopping
+            for (BlockingQueue<PendingPosting> queue : queues) {
+                PendingPosting posting;
+                while ((posting = queue.poll()) != null) {
+                    posting.result.completeExceptionally(
+                            new RejectedExecutionException("Payment queue shut down"));
+                }
+            }
+        }
+    }
+
+    // Tuning; takes effect only if set before the first submission
+    public void setPartitions(int partitions) {
+        this.partitions = partitions;
+    }
+
+    public void setPartitionCapacity(int partitionCapacity) {
+        this.partitionCapacity = partitionCapacity;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public void setMaxLingerMillis(long maxLingerMillis) {
+        this.maxLingerMillis = maxLingerMillis;
+    }
+}
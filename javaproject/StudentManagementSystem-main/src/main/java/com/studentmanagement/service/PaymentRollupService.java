@@ -0,0 +1,172 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.dao.PaymentDAO;
+import com.studentmanagement.model.Money;
+import com.studentmanagement.model.Payment;
+import com.studentmanagement.model.Payment.PaymentType;
+import com.studentmanagement.model.PaymentDailyRollup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains the payment_daily_rollup table and answers date-range revenue
+ * questions from it instead of scanning payments.
+ *
+ * Postings add to the rollup when their transaction commits: the increments
+ * of one transaction are merged per day/course/type and written just before
+ * commit, in key order, so a group of postings costs a few upserts and
+ * concurrent transactions always lock rollup rows in the same order.
+ */
+@Service
+public class PaymentRollupService {
+
+    @Autowired
+    private PaymentDAO paymentDAO;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private static class RollupKey implements Comparable<RollupKey> {
+        private final LocalDate date;
+        private final long courseId;
+        private final PaymentType type;
+
+        private RollupKey(LocalDate date, long courseId, PaymentType type) {
+            this.date = date;
+            this.courseId = courseId;
+            this.type = type;
+        }
+
+        @Override
+        public int compareTo(RollupKey other) {
+            int result = date.compareTo(other.date);
+            if (result == 0) {
+                result = Long.compare(courseId, other.courseId);
+            }
+            return result != 0 ? result : type.compareTo(other.type);
+        }
+    }
+
+    private static class RollupDelta {
+        private long count;
+        private long amount;
+    }
+
+    // Add a posting to the rollup; run inside the posting's transaction
+    void record(Payment payment) {
+        RollupKey key = new RollupKey(payment.getPaymentDate().toLocalDate(),
+                payment.getCourseId() != null ? payment.getCourseId() : PaymentDailyRollup.NO_COURSE,
+                payment.getPaymentType());
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            paymentDAO.incrementDailyRollup(key.date, key.courseId, key.type, 1, payment.getAmount());
+            return;
+        }
+
+        RollupDelta delta = pendingDeltas().computeIfAbsent(key, k -> new RollupDelta());
+        delta.count++;
+        delta.amount += payment.getAmount();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<RollupKey, RollupDelta> pendingDeltas() {
+        Map<RollupKey, RollupDelta> pending =
+                (Map<RollupKey, RollupDelta>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+
+        Map<RollupKey, RollupDelta> deltas = new TreeMap<>();
+        TransactionSynchronizationManager.bindResource(this, deltas);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                deltas.forEach((key, delta) -> paymentDAO.incrementDailyRollup(
+                        key.date, key.courseId, key.type, delta.count, delta.amount));
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PaymentRollupService.this);
+            }
+        });
+        return deltas;
+    }
+
+    /**
+     * Rebuild the whole rollup from the payments table, one transaction per
+     * calendar month. Returns the number of rollup rows written.
+     */
+    public long rebuild() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Object[] range = readOnly.execute(status -> paymentDAO.getPaymentDateRange());
+        if (range == null || range[0] == null) {
+            return 0;
+        }
+        return rebuild(((LocalDateTime) range[0]).toLocalDate(), ((LocalDateTime) range[1]).toLocalDate());
+    }
+
+    // Rebuild the rollup for a date range (inclusive), one transaction per calendar month
+    public long rebuild(LocalDate from, LocalDate to) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long rows = 0;
+        LocalDate chunkStart = from;
+        while (!chunkStart.isAfter(to)) {
+            LocalDate monthEnd = chunkStart.withDayOfMonth(chunkStart.lengthOfMonth());
+            LocalDate chunkEnd = monthEnd.isBefore(to) ? monthEnd : to;
+            LocalDate start = chunkStart;
+            rows += transaction.execute(status -> paymentDAO.rebuildDailyRollup(start, chunkEnd));
+            chunkStart = chunkEnd.plusDays(1);
+        }
+        System.out.println("Payment rollup rebuilt from " + from + " to " + to + ": " + rows + " row(s).");
+        return rows;
+    }
+
+    // Rollup rows between two dates (inclusive)
+    @Transactional(readOnly = true)
+    public List<PaymentDailyRollup> getDailyRollup(LocalDate from, LocalDate to) {
+        return paymentDAO.getDailyRollup(from, to);
+    }
+
+    /**
+     * Print collections and refunds between two dates (inclusive)
+     */
+    @Transactional(readOnly = true)
+    public void displayRevenueReport(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new RuntimeException("Start date must not be after end date!");
+        }
+
+        long collected = 0;
+        long refunded = 0;
+        long payments = 0;
+        long refunds = 0;
+        for (Object[] row : paymentDAO.getRollupTotals(from, to)) {
+            if (row[0] == PaymentType.REFUND) {
+                refunds = (Long) row[1];
+                refunded = (Long) row[2];
+            } else {
+                payments = (Long) row[1];
+                collected = (Long) row[2];
+            }
+        }
+
+        System.out.println("\n===== Revenue from " + from + " to " + to + " =====");
+        System.out.println("Payments: " + payments + " totalling Rs." + Money.format(collected));
+        System.out.println("Refunds: " + refunds + " totalling Rs." + Money.format(refunded));
+        System.out.println("Net Revenue: Rs." + Money.format(collected - refunded));
+        System.out.println("==========================================\n");
+    }
+}
@@ -0,0 +1,86 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.config.ReplicaRoutingDataSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-your-writes for replica reads, per student.
+ *
+ * Services note each committed change to a student, and read-only methods
+ * about one student pin their transaction to the primary while that change
+ * may not have reached the replica yet (-Dstudentmgmt.replica.stickyMillis,
+ * default 5000; 0 turns it off). Without a replica the pin has no effect.
+ */
+@Service
+public class ReadYourWrites {
+
+    public static final String STICKY_MILLIS_PROPERTY = "studentmgmt.replica.stickyMillis";
+
+    // Sweep expired entries once per this many writes
+    private static final int SWEEP_EVERY = 1024;
+
+    private final long stickyMillis = Long.getLong(STICKY_MILLIS_PROPERTY, 5000);
+    private final Map<Long, Long> lastWriteMillis = new ConcurrentHashMap<>();
+    private final AtomicInteger writesSinceSweep = new AtomicInteger();
+
+    // Note a change to the student once the current transaction commits
+    void wroteStudent(Long studentId) {
+        if (stickyMillis <= 0 || studentId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(studentId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(studentId);
+            }
+        });
+    }
+
+    // Note a change to each of the students once the current transaction commits
+    void wroteStudents(Collection<Long> studentIds) {
+        if (stickyMillis <= 0 || studentIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            studentIds.forEach(this::record);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                studentIds.forEach(ReadYourWrites.this::record);
+            }
+        });
+    }
+
+    // Read the student from the primary if it changed recently; call before the first query
+    void readingStudent(Long studentId) {
+        if (stickyMillis <= 0 || studentId == null) {
+            return;
+        }
+        Long written = lastWriteMillis.get(studentId);
+        if (written != null && System.currentTimeMillis() - written < stickyMillis) {
+            ReplicaRoutingDataSource.usePrimaryForThisTransaction();
+        }
+    }
+
+    private void record(Long studentId) {
+        long now = System.currentTimeMillis();
+        lastWriteMillis.put(studentId, now);
+        if (writesSinceSweep.incrementAndGet() >= SWEEP_EVERY) {
+            writesSinceSweep.set(0);
+            lastWriteMillis.values().removeIf(written -> now - written >= stickyMillis);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.dto.PaymentReceipt;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Receipts of the most recent postings made with an idempotency key, so a
+ * retried call is answered without touching the database. Bounded and
+ * lock-free: once full, the oldest keys are dropped first and their retries
+ * fall back to the unique index on payments.idempotency_key.
+ */
+class RecentPostings {
+
+    private final int capacity;
+    private final Map<String, PaymentReceipt> receipts = new ConcurrentHashMap<>();
+    private final Queue<String> order = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    RecentPostings(int capacity) {
+        this.capacity = capacity;
+    }
+
+    PaymentReceipt get(String idempotencyKey) {
+        return receipts.get(idempotencyKey);
+    }
+
+    // Remember a committed posting
+    void put(String idempotencyKey, PaymentReceipt receipt) {
+        if (receipts.putIfAbsent(idempotencyKey, receipt) != null) {
+            return;
+        }
+        order.add(idempotencyKey);
+        if (size.incrementAndGet() > capacity) {
+            String eldest = order.poll();
+            if (eldest != null) {
+                receipts.remove(eldest);
+                size.decrementAndGet();
+            }
+        }
+    }
+}
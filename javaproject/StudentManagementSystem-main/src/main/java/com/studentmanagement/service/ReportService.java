@@ -0,0 +1,154 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.dao.ReportDAO;
+import com.studentmanagement.dao.StudentDAO;
+import com.studentmanagement.dto.CourseEnrollmentSummary;
+import com.studentmanagement.dto.CourseSummary;
+import com.studentmanagement.dto.PaymentPage;
+import com.studentmanagement.dto.PaymentSummary;
+import com.studentmanagement.dto.StudentSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Read model for reports and listings. Returns lightweight projections
+ * rather than managed entities; use the other services for anything that
+ * changes data.
+ */
+@Service
+public class ReportService {
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    @Autowired
+    private ReportDAO reportDAO;
+
+    @Autowired
+    private StudentDAO studentDAO;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    // One student, by ID
+    @Transactional(readOnly = true)
+    public StudentSummary getStudent(Long studentId) {
+        readYourWrites.readingStudent(studentId);
+        StudentSummary student = reportDAO.getStudent(studentId);
+        if (student == null) {
+            throw new NotFoundException("Student not found!");
+        }
+        return student;
+    }
+
+    // Stream all students
+    @Transactional(readOnly = true)
+    public long forEachStudent(Consumer<StudentSummary> action) {
+        return reportDAO.forEachStudent(action);
+    }
+
+    // Stream students enrolled in a course
+    @Transactional(readOnly = true)
+    public long forEachStudentInCourse(Long courseId, Consumer<StudentSummary> action) {
+        return reportDAO.forEachStudentInCourse(courseId, action);
+    }
+
+    // Stream all courses with enrolled counts
+    @Transactional(readOnly = true)
+    public long forEachCourse(Consumer<CourseSummary> action) {
+        return reportDAO.forEachCourse(action);
+    }
+
+    // One course with its enrolled count, by ID
+    @Transactional(readOnly = true)
+    public CourseSummary getCourse(Long courseId) {
+        CourseSummary course = reportDAO.getCourse(courseId);
+        if (course == null) {
+            throw new NotFoundException("Course not found!");
+        }
+        return course;
+    }
+
+    // Stream enrollment and fee totals for every course
+    @Transactional(readOnly = true)
+    public long forEachCourseEnrollment(Consumer<CourseEnrollmentSummary> action) {
+        return reportDAO.forEachCourseEnrollment(action);
+    }
+
+    // Payment history of a student, newest first, without archived payments
+    @Transactional(readOnly = true)
+    public List<PaymentSummary> getPaymentHistory(Long studentId) {
+        return getPaymentHistory(studentId, false);
+    }
+
+    /**
+     * Payment history of a student, newest first. Archived payments, which
+     * are older than every live one, follow the live ones when asked for;
+     * otherwise the archive is not read.
+     */
+    @Transactional(readOnly = true)
+    public List<PaymentSummary> getPaymentHistory(Long studentId, boolean includeArchived) {
+        readYourWrites.readingStudent(studentId);
+        List<PaymentSummary> payments = reportDAO.getPaymentsByStudent(studentId);
+        if (includeArchived) {
+            payments = new ArrayList<>(payments);
+            payments.addAll(reportDAO.getArchivedPaymentsByStudent(studentId));
+        }
+        if (payments.isEmpty() && studentDAO.getById(studentId) == null) {
+            throw new NotFoundException("Student not found!");
+        }
+        return payments;
+    }
+
+    /**
+     * One page of a student's payment history, newest first by date and then
+     * ID, continuing after the cursor of the previous page (null for the first).
+     * Each page is an index seek from the cursor position, one query (two where
+     * the live payments run out and the archive continues), with the student's
+     * existence checked in the same query; nothing is counted, one row past the
+     * page tells whether more follow. Archived payments follow the live ones
+     * when asked for. The cursor is only valid for the same student and
+     * includeArchived setting.
+     */
+    @Transactional(readOnly = true)
+    public PaymentPage getPaymentHistoryPage(Long studentId, String cursor, int pageSize, boolean includeArchived) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be 1 to " + MAX_PAGE_SIZE);
+        }
+        PaymentHistoryCursor after = cursor == null ? null : PaymentHistoryCursor.decode(cursor);
+        if (after != null && (!after.getStudentId().equals(studentId) || after.isArchived() && !includeArchived)) {
+            throw new IllegalArgumentException("Cursor is not from this payment history");
+        }
+        readYourWrites.readingStudent(studentId);
+
+        boolean inArchive = after != null && after.isArchived();
+        List<PaymentSummary> payments = reportDAO.getPaymentPage(studentId, inArchive,
+                after == null ? null : after.getPaymentDate(), after == null ? null : after.getPaymentId(),
+                pageSize + 1);
+        if (payments == null) {
+            throw new NotFoundException("Student not found!");
+        }
+        int live = inArchive ? 0 : payments.size();
+        if (!inArchive && includeArchived && live <= pageSize) {
+            List<PaymentSummary> archived = reportDAO.getPaymentPage(studentId, true, null, null,
+                    pageSize + 1 - live);
+            if (archived != null) {
+                payments = new ArrayList<>(payments);
+                payments.addAll(archived);
+            }
+        }
+        if (payments.size() <= pageSize) {
+            return new PaymentPage(payments, null);
+        }
+
+        payments = new ArrayList<>(payments.subList(0, pageSize));
+        PaymentSummary last = payments.get(pageSize - 1);
+        PaymentHistoryCursor next = new PaymentHistoryCursor(studentId, pageSize > live,
+                last.getPaymentDate(), last.getPaymentId());
+        return new PaymentPage(payments, next.encode());
+    }
+}
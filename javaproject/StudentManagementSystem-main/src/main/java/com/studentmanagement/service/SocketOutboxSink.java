@@ -0,0 +1,66 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.dto.ChangeEvent;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Sends events to a TCP listener (e.g. a local forwarding agent), one JSON
+ * object per line. Connects on first use and again after a failure.
+ */
+public class SocketOutboxSink implements OutboxSink {
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+
+    private final String host;
+    private final int port;
+    private Socket socket;
+    private BufferedWriter writer;
+
+    public SocketOutboxSink(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    @Override
+    public synchronized void publish(List<ChangeEvent> events) throws IOException {
+        try {
+            if (socket == null) {
+                socket = new Socket();
+                socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MILLIS);
+                writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            }
+            for (ChangeEvent event : events) {
+                writer.write(OutboxSink.toJsonLine(event));
+                writer.newLine();
+            }
+            writer.flush();
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (socket != null) {
+            try {
+                socket.close();
+            } finally {
+                socket = null;
+                writer = null;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "socket " + host + ":" + port;
+    }
+}
@@ -0,0 +1,127 @@
+package com.studentmanagement.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bank statement import. A resumed import reports only the
+ * lines after its checkpoint; rejected lines are listed so they can be
+ * keyed in by hand.
+ */
+public class StatementImportReport {
+
+    private final String statementId;
+    private final int resumedAfterLine;
+    private boolean alreadyComplete;
+    private int rowsRead;
+    private int posted;
+    private long amountPosted;
+    private int duplicates;
+    private final List<Rejection> rejections = new ArrayList<>();
+
+    public static class Rejection {
+        private final int lineNumber;
+        private final String line;
+        private final String reason;
+
+        public Rejection(int lineNumber, String line, String reason) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+            this.reason = reason;
+        }
+
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        public String getLine() {
+            return line;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return "Line " + lineNumber + ": " + reason + " [" + line + "]";
+        }
+    }
+
+    StatementImportReport(String statementId, int resumedAfterLine) {
+        this.statementId = statementId;
+        this.resumedAfterLine = resumedAfterLine;
+    }
+
+    void alreadyComplete() {
+        alreadyComplete = true;
+    }
+
+    void rowRead() {
+        rowsRead++;
+    }
+
+    void posted(long amount) {
+        posted++;
+        amountPosted += amount;
+    }
+
+    void duplicate() {
+        duplicates++;
+    }
+
+    void reject(int lineNumber, String line, String reason) {
+        rejections.add(new Rejection(lineNumber, line, reason));
+    }
+
+    // SHA-256 of the file, in hex
+    public String getStatementId() {
+        return statementId;
+    }
+
+    // Last line covered by an earlier, interrupted run; 0 for a fresh import
+    public int getResumedAfterLine() {
+        return resumedAfterLine;
+    }
+
+    // True if an earlier run imported the whole file; nothing was read
+    public boolean isAlreadyComplete() {
+        return alreadyComplete;
+    }
+
+    public int getRowsRead() {
+        return rowsRead;
+    }
+
+    public int getPosted() {
+        return posted;
+    }
+
+    // In paise
+    public long getAmountPosted() {
+        return amountPosted;
+    }
+
+    // Credits whose bank reference had been posted already
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    public List<Rejection> getRejections() {
+        return Collections.unmodifiableList(rejections);
+    }
+
+    @Override
+    public String toString() {
+        return "StatementImportReport{" +
+                "resumedAfterLine=" + resumedAfterLine +
+                ", alreadyComplete=" + alreadyComplete +
+                ", rowsRead=" + rowsRead +
+                ", posted=" + posted +
+                ", amountPosted=" + amountPosted +
+                ", duplicates=" + duplicates +
+                ", rejected=" + rejections.size() +
+                '}';
+    }
+}
@@ -0,0 +1,339 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.dao.PaymentDAO;
+import com.studentmanagement.dao.StudentDAO;
+import com.studentmanagement.model.Money;
+import com.studentmanagement.model.StatementImport;
+import com.studentmanagement.model.Student;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fee credits from bank statement files, posted as payments.
+ *
+ * A statement is a CSV file with one credit per line:
+ * {@code reference,amount,student[,narration]}, where reference is the bank's
+ * transaction reference, amount is in rupees and student is a student ID or
+ * email. A header line starting with "reference," is skipped.
+ *
+ * The file is streamed in blocks of BLOCK_SIZE lines, and each block is
+ * parsed and validated in parallel on the common fork-join pool. Valid credits
+ * are posted CHUNK_SIZE at a time, one transaction per chunk: one query loads
+ * the chunk's students by ID or email, one finds the references posted
+ * already, and each new credit goes through FeeService's payment steps with
+ * the idempotency key "stmt:" + reference. If a chunk fails its credits are
+ * re-posted one transaction each, so only the bad credit is rejected.
+ *
+ * Each chunk's transaction also advances the statement's checkpoint
+ * (statement_imports, keyed by the file's SHA-256), so importing the same file
+ * again after a crash resumes after the last committed chunk. A reference is
+ * never posted twice, even from a different file: seen again for the same
+ * student and amount it is a duplicate, otherwise the line is rejected.
+ */
+@Service
+public class StatementImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementImportService.class);
+
+    public static final String IDEMPOTENCY_KEY_PREFIX = "stmt:";
+
+    private static final int MAX_REFERENCE_LENGTH =
+            FeeService.MAX_IDEMPOTENCY_KEY_LENGTH - IDEMPOTENCY_KEY_PREFIX.length();
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+    private static final int BLOCK_SIZE = 10_000;
+    private static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private StudentDAO studentDAO;
+
+    @Autowired
+    private PaymentDAO paymentDAO;
+
+    @Autowired
+    private FeeService feeService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private enum Outcome {
+        POSTED, DUPLICATE, REJECTED
+    }
+
+    private static class Credit {
+        private final int lineNumber;
+        private final String line;
+        private String reference;
+        private long amount;
+        private Long studentId;
+        private String email;
+        private String description;
+        private Outcome outcome;
+        private String error;
+
+        private Credit(int lineNumber, String line) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+        }
+
+        private String idempotencyKey() {
+            return IDEMPOTENCY_KEY_PREFIX + reference;
+        }
+    }
+
+    public StatementImportReport importStatement(Path statementFile) {
+        String statementId = sha256(statementFile);
+        TransactionRetryTemplate transaction = new TransactionRetryTemplate(transactionManager);
+        StatementImport checkpoint = transaction.execute(
+                status -> startOrResume(statementId, statementFile.getFileName().toString()));
+
+        StatementImportReport report = new StatementImportReport(statementId, checkpoint.getLinesDone());
+        if (checkpoint.getCompletedAt() != null) {
+            report.alreadyComplete();
+            return report;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(statementFile, StandardCharsets.UTF_8)) {
+            importLines(reader, statementId, checkpoint.getLinesDone(), transaction, report);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read " + statementFile + ": " + e.getMessage(), e);
+        }
+        return report;
+    }
+
+    private StatementImport startOrResume(String statementId, String fileName) {
+        StatementImport checkpoint = paymentDAO.getStatementImportForUpdate(statementId);
+        if (checkpoint == null) {
+            checkpoint = new StatementImport(statementId, fileName);
+            paymentDAO.saveStatementImport(checkpoint);
+        }
+        return checkpoint;
+    }
+
+    private void importLines(BufferedReader reader, String statementId, int skipLines,
+                             TransactionRetryTemplate transaction, StatementImportReport report) throws IOException {
+        String[] lines = new String[BLOCK_SIZE];
+        int[] lineNumbers = new int[BLOCK_SIZE];
+        Set<String> references = new HashSet<>();
+        List<Credit> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        int lineNumber = 0;
+        boolean endOfFile = false;
+        while (!endOfFile) {
+            int count = 0;
+            while (count < BLOCK_SIZE) {
+                String line = reader.readLine();
+                if (line == null) {
+                    endOfFile = true;
+                    break;
+                }
+                lineNumber++;
+                if (lineNumber <= skipLines || line.isBlank()
+                        || (lineNumber == 1 && line.toLowerCase(Locale.ROOT).startsWith("reference,"))) {
+                    continue;
+                }
+                lines[count] = line;
+                lineNumbers[count] = lineNumber;
+                count++;
+            }
+
+            Credit[] credits = new Credit[count];
+            Arrays.parallelSetAll(credits, i -> parse(lineNumbers[i], lines[i]));
+
+            for (Credit credit : credits) {
+                report.rowRead();
+                if (credit.error != null) {
+                    report.reject(credit.lineNumber, credit.line, credit.error);
+                    continue;
+                }
+                if (!references.add(credit.reference)) {
+                    report.reject(credit.lineNumber, credit.line, "Reference repeated in statement");
+                    continue;
+                }
+                chunk.add(credit);
+                if (chunk.size() == CHUNK_SIZE) {
+                    post(transaction, statementId, chunk, credit.lineNumber, false, report);
+                    chunk.clear();
+                }
+            }
+        }
+        // The last chunk (possibly empty) marks the statement complete
+        post(transaction, statementId, chunk, lineNumber, true, report);
+    }
+
+    private static Credit parse(int lineNumber, String line) {
+        Credit credit = new Credit(lineNumber, line);
+        String[] fields = line.split(",", 4);
+        if (fields.length < 3) {
+            credit.error = "Expected reference,amount,student[,narration]";
+            return credit;
+        }
+
+        credit.reference = fields[0].trim();
+        if (credit.reference.isEmpty() || credit.reference.length() > MAX_REFERENCE_LENGTH) {
+            credit.error = "Reference must be 1-" + MAX_REFERENCE_LENGTH + " characters";
+            return credit;
+        }
+        try {
+            credit.amount = Money.parse(fields[1]);
+        } catch (IllegalArgumentException e) {
+            credit.error = e.getMessage();
+            return credit;
+        }
+        if (credit.amount <= 0) {
+            credit.error = "Amount must be positive";
+            return credit;
+        }
+
+        String student = fields[2].trim();
+        if (student.indexOf('@') > 0) {
+            credit.email = student;
+        } else {
+            try {
+                credit.studentId = Long.valueOf(student);
+            } catch (NumberFormatException e) {
+                credit.error = "Invalid student ID or email: " + student;
+                return credit;
+            }
+        }
+
+        String narration = fields.length == 4 ? fields[3].trim() : "";
+        String description = "Bank credit " + credit.reference + (narration.isEmpty() ? "" : ": " + narration);
+        credit.description = description.length() > MAX_DESCRIPTION_LENGTH
+                ? description.substring(0, MAX_DESCRIPTION_LENGTH) : description;
+        return credit;
+    }
+
+    // Post a chunk and advance the checkpoint to throughLine; a failed chunk is re-posted credit by credit
+    private void post(TransactionRetryTemplate transaction, String statementId, List<Credit> credits,
+                      int throughLine, boolean complete, StatementImportReport report) {
+        try {
+            transaction.execute(status -> apply(statementId, credits, throughLine, complete));
+        } catch (RuntimeException e) {
+            log.debug("Chunk of {} credits failed, posting individually: {}", credits.size(), e.getMessage());
+            for (Credit credit : credits) {
+                try {
+                    transaction.execute(status -> apply(statementId, Collections.singletonList(credit), 0, false));
+                } catch (RuntimeException ex) {
+                    credit.outcome = Outcome.REJECTED;
+                    credit.error = ErrorMessages.describe(ex);
+                }
+            }
+            transaction.execute(status -> apply(statementId, Collections.emptyList(), throughLine, complete));
+        }
+
+        for (Credit credit : credits) {
+            switch (credit.outcome) {
+                case POSTED:
+                    report.posted(credit.amount);
+                    break;
+                case DUPLICATE:
+                    report.duplicate();
+                    break;
+                default:
+                    report.reject(credit.lineNumber, credit.line, credit.error);
+            }
+        }
+    }
+
+    // One transaction: the credits and the checkpoint move together
+    private Void apply(String statementId, List<Credit> credits, int throughLine, boolean complete) {
+        StatementImport checkpoint = paymentDAO.getStatementImportForUpdate(statementId);
+
+        Set<Long> studentIds = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        List<String> keys = new ArrayList<>(credits.size());
+        for (Credit credit : credits) {
+            if (credit.studentId != null) {
+                studentIds.add(credit.studentId);
+            } else {
+                emails.add(credit.email);
+            }
+            keys.add(credit.idempotencyKey());
+        }
+        // The students stay in the session, so posting does not load them again
+        Map<Long, Student> studentsById = new HashMap<>();
+        Map<String, Student> studentsByEmail = new HashMap<>();
+        for (Student student : studentDAO.getByIdsOrEmails(studentIds, emails)) {
+            studentsById.put(student.getStudentId(), student);
+            studentsByEmail.put(student.getEmail().toLowerCase(Locale.ROOT), student);
+        }
+        Map<String, Object[]> usedKeys = keys.isEmpty() ? Collections.emptyMap()
+                : paymentDAO.getUsedIdempotencyKeys(keys);
+
+        for (Credit credit : credits) {
+            Student student = credit.studentId != null ? studentsById.get(credit.studentId)
+                    : studentsByEmail.get(credit.email.toLowerCase(Locale.ROOT));
+            Object[] posted = usedKeys.get(credit.idempotencyKey());
+            if (posted != null) {
+                // Only an exact replay is a duplicate; anything else reuses the bank's reference
+                if (student != null && student.getStudentId().equals(posted[0]) && credit.amount == (Long) posted[1]) {
+                    credit.outcome = Outcome.DUPLICATE;
+                } else {
+                    credit.outcome = Outcome.REJECTED;
+                    credit.error = "Reference already posted for a different student or amount";
+                }
+            } else if (student == null) {
+                credit.outcome = Outcome.REJECTED;
+                credit.error = "Student not found";
+            } else {
+                feeService.postPayment(student.getStudentId(), credit.amount, credit.description,
+                        credit.idempotencyKey());
+                credit.outcome = Outcome.POSTED;
+                checkpoint.setPaymentsPosted(checkpoint.getPaymentsPosted() + 1);
+                checkpoint.setAmountPosted(checkpoint.getAmountPosted() + credit.amount);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (throughLine > checkpoint.getLinesDone()) {
+            checkpoint.setLinesDone(throughLine);
+        }
+        if (complete) {
+            checkpoint.setCompletedAt(now);
+        }
+        checkpoint.setUpdatedAt(now);
+        paymentDAO.saveStatementImport(checkpoint);
+        return null;
+    }
+
+    private static String sha256(Path file) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read " + file + ": " + e.getMessage(), e);
+        }
+        return String.format("%064x", new BigInteger(1, digest.digest()));
+    }
+}
@@ -0,0 +1,78 @@
+package com.studentmanagement.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk student import.
+ * Rejected rows are listed with their line number so they can be fixed and re-imported.
+ */
+public class StudentImportReport {
+
+    private int rowsRead;
+    private int imported;
+    private final List<Rejection> rejections = new ArrayList<>();
+
+    public static class Rejection {
+        private final int lineNumber;
+        private final String line;
+        private final String reason;
+
+        public Rejection(int lineNumber, String line, String reason) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+            this.reason = reason;
+        }
+
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        public String getLine() {
+            return line;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return "Line " + lineNumber + ": " + reason + " [" + line + "]";
+        }
+    }
+
+    void rowRead() {
+        rowsRead++;
+    }
+
+    void imported(int count) {
+        imported += count;
+    }
+
+    void reject(int lineNumber, String line, String reason) {
+        rejections.add(new Rejection(lineNumber, line, reason));
+    }
+
+    public int getRowsRead() {
+        return rowsRead;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public List<Rejection> getRejections() {
+        return Collections.unmodifiableList(rejections);
+    }
+
+    @Override
+    public String toString() {
+        return "StudentImportReport{" +
+                "rowsRead=" + rowsRead +
+                ", imported=" + imported +
+                ", rejected=" + rejections.size() +
+                '}';
+    }
+}
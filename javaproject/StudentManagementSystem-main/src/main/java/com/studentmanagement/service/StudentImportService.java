@@ -0,0 +1,177 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.dao.CourseDAO;
+import com.studentmanagement.dao.StudentDAO;
+import com.studentmanagement.model.Course;
+import com.studentmanagement.model.Student;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bulk student import from CSV lines of the form {@code name,email[,courseId]}.
+ * Rows are validated and de-duplicated in memory, then inserted in chunks,
+ * one transaction per chunk. A bad row is reported and skipped; it never
+ * aborts the rest of the load.
+ */
+@Service
+public class StudentImportService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private StudentDAO studentDAO;
+
+    @Autowired
+    private CourseDAO courseDAO;
+
+    @Autowired
+    private StudentSearchIndex studentSearchIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public StudentImportReport importStudents(Path csvFile) {
+        try (BufferedReader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
+            return importStudents(reader);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read " + csvFile + ": " + e.getMessage(), e);
+        }
+    }
+
+    public StudentImportReport importStudents(Reader source) throws IOException {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // One round trip each for existing emails and valid course IDs
+        Set<String> knownEmails = new HashSet<>(readOnly.execute(status -> studentDAO.getAllEmails()));
+        Set<Long> courseIds = new HashSet<>(readOnly.execute(status -> courseDAO.getAllIds()));
+
+        StudentImportReport report = new StudentImportReport();
+        List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        BufferedReader reader = source instanceof BufferedReader
+                ? (BufferedReader) source : new BufferedReader(source);
+
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || (lineNumber == 1 && line.toLowerCase().startsWith("name,"))) {
+                continue;
+            }
+            report.rowRead();
+
+            ImportRow row = parse(lineNumber, line, courseIds, report);
+            if (row == null) {
+                continue;
+            }
+            if (!knownEmails.add(row.student.getEmail().toLowerCase())) {
+                report.reject(lineNumber, line, "Duplicate email " + row.student.getEmail());
+                continue;
+            }
+
+            chunk.add(row);
+            if (chunk.size() == CHUNK_SIZE) {
+                insertChunk(transaction, chunk, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            insertChunk(transaction, chunk, report);
+        }
+        // The batch insert does not read back IDs, so rescan the table for search
+        if (report.getImported() > 0) {
+            studentSearchIndex.reload();
+        }
+        return report;
+    }
+
+    private ImportRow parse(int lineNumber, String line, Set<Long> courseIds, StudentImportReport report) {
+        String[] fields = line.split(",", -1);
+        if (fields.length < 2 || fields.length > 3) {
+            report.reject(lineNumber, line, "Expected name,email[,courseId]");
+            return null;
+        }
+
+        String name = fields[0].trim();
+        String email = fields[1].trim();
+        if (name.isEmpty() || name.length() > 100) {
+            report.reject(lineNumber, line, "Name must be 1-100 characters");
+            return null;
+        }
+        if (email.isEmpty() || email.length() > 100 || email.indexOf('@') < 1) {
+            report.reject(lineNumber, line, "Invalid email");
+            return null;
+        }
+
+        Student student = new Student(name, email);
+        if (fields.length == 3 && !fields[2].isBlank()) {
+            Long courseId;
+            try {
+                courseId = Long.valueOf(fields[2].trim());
+            } catch (NumberFormatException e) {
+                report.reject(lineNumber, line, "Invalid course ID");
+                return null;
+            }
+            if (!courseIds.contains(courseId)) {
+                report.reject(lineNumber, line, "Course not found: " + courseId);
+                return null;
+            }
+            Course course = new Course();
+            course.setCourseId(courseId);
+            student.setCourse(course);
+        }
+        return new ImportRow(lineNumber, line, student);
+    }
+
+    private void insertChunk(TransactionTemplate transaction, List<ImportRow> chunk, StudentImportReport report) {
+        List<Student> students = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            students.add(row.student);
+        }
+
+        try {
+            transaction.executeWithoutResult(status -> studentDAO.batchInsert(students));
+            report.imported(students.size());
+            return;
+        } catch (RuntimeException e) {
+            // Fall through and isolate the failing row(s)
+        }
+
+        for (ImportRow row : chunk) {
+            try {
+                transaction.executeWithoutResult(
+                        status -> studentDAO.batchInsert(Collections.singletonList(row.student)));
+                report.imported(1);
+            } catch (RuntimeException e) {
+                report.reject(row.lineNumber, row.line, "Insert failed: " + ErrorMessages.describe(e));
+            }
+        }
+    }
+
+    private static class ImportRow {
+        private final int lineNumber;
+        private final String line;
+        private final Student student;
+
+        private ImportRow(int lineNumber, String line, Student student) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+            this.student = student;
+        }
+    }
+}
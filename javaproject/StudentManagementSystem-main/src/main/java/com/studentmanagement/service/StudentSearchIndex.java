@@ -0,0 +1,193 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.dao.StudentDAO;
+import com.studentmanagement.dto.StudentMatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * Type-ahead search over student names and emails, answered from memory.
+ *
+ * The index is loaded by one streaming scan of the students table, either
+ * in the background at startup (start()) or on the first search. After that
+ * StudentService keeps it current: changes are applied once their transaction
+ * commits, so a rolled-back change is never visible. Changes committed while
+ * a scan is running are replayed on top of it.
+ *
+ * Memory use is about 0.5 KB per student.
+ */
+@Service
+public class StudentSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentSearchIndex.class);
+
+    public static final int MAX_RESULTS = 100;
+
+    @Autowired
+    private StudentDAO studentDAO;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Guarded by this; index is null until the first load completes
+    private volatile TrigramIndex index;
+    private CompletableFuture<TrigramIndex> loading;
+    private List<Consumer<TrigramIndex>> changesDuringLoad;
+
+    // Load the index in the background, unless it is loaded or loading already
+    public synchronized void start() {
+        if (index == null && loading == null) {
+            loadInBackground();
+        }
+    }
+
+    /**
+     * Reload from the table in the background, e.g. after a bulk import that
+     * bypassed StudentService. Searches use the current index until then.
+     * Does nothing if the index has never been loaded.
+     */
+    public synchronized void reload() {
+        if (index != null && loading == null) {
+            loadInBackground();
+        }
+    }
+
+    // Top matches for a name or email fragment; see TrigramIndex.search for the order
+    public List<StudentMatch> search(String query, int limit) {
+        if (query == null) {
+            throw new IllegalArgumentException("Search text is required");
+        }
+        if (limit < 1 || limit > MAX_RESULTS) {
+            throw new IllegalArgumentException("Can return 1 to " + MAX_RESULTS + " results at a time");
+        }
+        TrigramIndex current = index;
+        if (current == null) {
+            current = awaitLoad();
+        }
+        return current.search(query, limit);
+    }
+
+    // Number of students indexed, or -1 before the first load
+    public int size() {
+        TrigramIndex current = index;
+        return current != null ? current.size() : -1;
+    }
+
+    // Index a new or changed student once the current transaction commits
+    void putAfterCommit(Long studentId, String name, String email) {
+        afterCommit(index -> index.put(studentId, name, email));
+    }
+
+    // Drop a deleted student from the index once the current transaction commits
+    void removeAfterCommit(Long studentId) {
+        afterCommit(index -> index.remove(studentId));
+    }
+
+    private void afterCommit(Consumer<TrigramIndex> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(change);
+            }
+        });
+    }
+
+    private synchronized void apply(Consumer<TrigramIndex> change) {
+        if (changesDuringLoad != null) {
+            changesDuringLoad.add(change);
+        }
+        if (index != null) {
+            change.accept(index);
+        }
+    }
+
+    // The first search waits for a load in progress, or loads on its own thread
+    private TrigramIndex awaitLoad() {
+        CompletableFuture<TrigramIndex> pending;
+        boolean loadHere = false;
+        synchronized (this) {
+            if (index != null) {
+                return index;
+            }
+            if (loading == null) {
+                beginLoad();
+                loadHere = true;
+            }
+            pending = loading;
+        }
+        if (loadHere) {
+            runLoad(pending);
+        }
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    // Called holding the lock
+    private void loadInBackground() {
+        CompletableFuture<TrigramIndex> pending = beginLoad();
+        Thread thread = new Thread(() -> runLoad(pending), "student-search-index");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Called holding the lock; changes committed from now on are replayed on the new index
+    private CompletableFuture<TrigramIndex> beginLoad() {
+        changesDuringLoad = new ArrayList<>();
+        loading = new CompletableFuture<>();
+        return loading;
+    }
+
+    // Scan the table without holding the lock, then swap the new index in
+    private void runLoad(CompletableFuture<TrigramIndex> pending) {
+        try {
+            pending.complete(finishLoad(scan()));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                loading = null;
+                changesDuringLoad = null;
+            }
+            log.warn("Loading the student search index failed: {}", e.getMessage());
+            pending.completeExceptionally(e);
+        }
+    }
+
+    private TrigramIndex scan() {
+        long start = System.nanoTime();
+        TrigramIndex loaded = new TrigramIndex();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        long count = readOnly.execute(status -> studentDAO.forEachMatch(
+                match -> loaded.put(match.getStudentId(), match.getName(), match.getEmail())));
+        log.info("Indexed {} students for search in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+        return loaded;
+    }
+
+    private synchronized TrigramIndex finishLoad(TrigramIndex loaded) {
+        for (Consumer<TrigramIndex> change : changesDuringLoad) {
+            change.accept(loaded);
+        }
+        index = loaded;
+        loading = null;
+        changesDuringLoad = null;
+        return loaded;
+    }
+}
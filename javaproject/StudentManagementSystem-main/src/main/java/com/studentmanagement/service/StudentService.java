@@ -2,6 +2,10 @@ package com.studentmanagement.service;
 
 import com.studentmanagement.dao.StudentDAO;
 import com.studentmanagement.dao.CourseDAO;
+import com.studentmanagement.dao.PaymentArchiveDAO;
+import com.studentmanagement.dao.PaymentDAO;
+import com.studentmanagement.dao.StudentFetchPlan;
+import com.studentmanagement.dto.StudentMatch;
 import com.studentmanagement.model.Student;
 import com.studentmanagement.model.Course;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +13,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public class StudentService {
@@ -19,68 +24,124 @@ public class StudentService {
     @Autowired
     private CourseDAO courseDAO;
 
+    @Autowired
+    private PaymentDAO paymentDAO;
+
+    @Autowired
+    private PaymentArchiveDAO paymentArchiveDAO;
+
+    @Autowired
+    private EventOutbox eventOutbox;
+
+    @Autowired
+    private StudentSearchIndex studentSearchIndex;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
     // Create student
     @Transactional
     public void addStudent(String name, String email) {
+        Student student = createStudent(name, email);
+        System.out.println("Student added successfully with ID: " + student.getStudentId());
+    }
+
+    // Create student steps, run inside the caller's transaction
+    Student createStudent(String name, String email) {
         if (studentDAO.emailExists(email)) {
-            throw new RuntimeException("Student with email " + email + " already exists!");
+            throw new DuplicateException("Student with email " + email + " already exists!");
         }
         Student student = new Student(name, email);
         studentDAO.save(student);
-        System.out.println("Student added successfully with ID: " + student.getStudentId());
+        studentSearchIndex.putAfterCommit(student.getStudentId(), name, email);
+        readYourWrites.wroteStudent(student.getStudentId());
+        return student;
     }
 
     // Enroll student in course
     @Transactional
     public void enrollStudentInCourse(Long studentId, Long courseId) {
+        Student student = enroll(studentId, courseId);
+        System.out.println("Student enrolled in " + student.getCourse().getCourseName() + " successfully!");
+    }
+
+    // Enrollment steps, run inside the caller's transaction
+    Student enroll(Long studentId, Long courseId) {
         Student student = studentDAO.getById(studentId);
         if (student == null) {
-            throw new RuntimeException("Student not found!");
+            throw new NotFoundException("Student not found!");
         }
 
         Course course = courseDAO.getById(courseId);
         if (course == null) {
-            throw new RuntimeException("Course not found!");
+            throw new NotFoundException("Course not found!");
         }
 
         student.setCourse(course);
         studentDAO.update(student);
-        System.out.println("Student enrolled in " + course.getCourseName() + " successfully!");
+        eventOutbox.studentEnrolled(student);
+        readYourWrites.wroteStudent(studentId);
+        return student;
     }
 
     // Update student
     @Transactional
     public void updateStudent(Long studentId, String name, String email) {
+        changeStudent(studentId, name, email);
+        System.out.println("Student updated successfully!");
+    }
+
+    // Update student steps, run inside the caller's transaction
+    Student changeStudent(Long studentId, String name, String email) {
         Student student = studentDAO.getById(studentId);
         if (student == null) {
-            throw new RuntimeException("Student not found!");
+            throw new NotFoundException("Student not found!");
         }
 
         if (!student.getEmail().equals(email) && studentDAO.emailExists(email)) {
-            throw new RuntimeException("Email already exists!");
+            throw new DuplicateException("Email already exists!");
         }
 
         student.setName(name);
         student.setEmail(email);
         studentDAO.update(student);
-        System.out.println("Student updated successfully!");
+        studentSearchIndex.putAfterCommit(studentId, name, email);
+        readYourWrites.wroteStudent(studentId);
+        return student;
     }
 
     // Delete student
     @Transactional
     public void deleteStudent(Long studentId) {
+        removeStudent(studentId);
+        System.out.println("Student deleted successfully!");
+    }
+
+    // Delete student steps, run inside the caller's transaction
+    void removeStudent(Long studentId) {
         Student student = studentDAO.getById(studentId);
         if (student == null) {
-            throw new RuntimeException("Student not found!");
+            throw new NotFoundException("Student not found!");
         }
+        // The student's payments go with it, and so must their share of the rollup
+        paymentDAO.subtractFromDailyRollup(studentId);
+        // Archived rows aren't mapped on Student, so Hibernate won't cascade to them
+        paymentArchiveDAO.deleteByStudent(studentId);
         studentDAO.delete(studentId);
-        System.out.println("Student deleted successfully!");
+        studentSearchIndex.removeAfterCommit(studentId);
+        readYourWrites.wroteStudent(studentId);
     }
 
-    // Get student by ID
+    // Get student by ID, with the course for display
     @Transactional(readOnly = true)
     public Student getStudent(Long studentId) {
-        return studentDAO.getById(studentId);
+        readYourWrites.readingStudent(studentId);
+        return studentDAO.getById(studentId, StudentFetchPlan.WITH_COURSE);
+    }
+
+    // Find students by a fragment of their name or email, best matches first
+    public List<StudentMatch> search(String query, int limit) {
+        return studentSearchIndex.search(query, limit);
     }
 
     // Get all students
@@ -89,9 +150,27 @@ public class StudentService {
         return studentDAO.getAll();
     }
 
+    // Get one page of students after the given ID
+    @Transactional(readOnly = true)
+    public List<Student> getStudentsPage(Long afterId, int pageSize) {
+        return studentDAO.getPage(afterId, pageSize);
+    }
+
+    // Stream all students with flat memory use
+    @Transactional(readOnly = true)
+    public long forEachStudent(Consumer<Student> action) {
+        return studentDAO.forEach(action);
+    }
+
     // Get students by course
     @Transactional(readOnly = true)
     public List<Student> getStudentsByCourse(Long courseId) {
         return studentDAO.getStudentsByCourse(courseId);
     }
+
+    // Stream students by course
+    @Transactional(readOnly = true)
+    public long forEachStudentInCourse(Long courseId, Consumer<Student> action) {
+        return studentDAO.forEachByCourse(courseId, action);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.studentmanagement.service;
+
+import org.hibernate.HibernateException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.orm.hibernate5.SessionFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.PersistenceException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs a unit of work in its own transaction and re-runs it when the
+ * transaction loses a race with a concurrent writer (optimistic version
+ * conflict, lock timeout or deadlock), whether the conflict surfaces at
+ * commit or from a DAO call inside the work.
+ *
+ * When a transaction is already active the work simply joins it and is not
+ * retried here; the conflict propagates to whoever owns the outer transaction.
+ */
+public class TransactionRetryTemplate {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionRetryTemplate.class);
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 10;
+    public static final long DEFAULT_BACKOFF_MILLIS = 10;
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public TransactionRetryTemplate(PlatformTransactionManager transactionManager) {
+        this(transactionManager, DEFAULT_MAX_ATTEMPTS, DEFAULT_BACKOFF_MILLIS);
+    }
+
+    public TransactionRetryTemplate(PlatformTransactionManager transactionManager,
+                                    int maxAttempts, long backoffMillis) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+    }
+
+    public <T> T execute(TransactionCallback<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return transactionTemplate.execute(action);
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(action);
+            } catch (RuntimeException e) {
+                if (!isConcurrencyFailure(e)) {
+                    throw e;
+                }
+                if (attempt >= maxAttempts) {
+                    throw new RuntimeException("Gave up after " + attempt +
+                            " attempts because of concurrent updates. Please try again.", e);
+                }
+                log.debug("Concurrent update on attempt {} of {}, retrying: {}",
+                        attempt, maxAttempts, e.getMessage());
+                backOff(attempt);
+            }
+        }
+    }
+
+    /**
+     * Whether the work lost a race with a concurrent writer. Conflicts at
+     * commit are translated by the transaction manager, but DAO calls inside
+     * the callback throw raw Hibernate or JPA exceptions (a lock timeout or
+     * deadlock on SELECT ... FOR UPDATE, a stale version at an auto-flush),
+     * so those are translated here the same way.
+     */
+    static boolean isConcurrencyFailure(RuntimeException e) {
+        // HibernateException is itself a PersistenceException, so check it first
+        if (e instanceof HibernateException) {
+            return SessionFactoryUtils.convertHibernateAccessException((HibernateException) e)
+                    instanceof ConcurrencyFailureException;
+        }
+        if (e instanceof PersistenceException) {
+            // Hibernate wraps what JPA has no exception for, e.g. a deadlock
+            if (e.getCause() instanceof HibernateException) {
+                return isConcurrencyFailure((HibernateException) e.getCause());
+            }
+            return EntityManagerFactoryUtils.convertJpaAccessExceptionIfPossible(e) instanceof ConcurrencyFailureException;
+        }
+        return e instanceof ConcurrencyFailureException;
+    }
+
+    // Fully randomized, linearly growing backoff so competing writers spread out
+    private void backOff(int attempt) {
+        long delay = ThreadLocalRandom.current().nextLong(backoffMillis * attempt + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while retrying transaction", e);
+        }
+    }
+}
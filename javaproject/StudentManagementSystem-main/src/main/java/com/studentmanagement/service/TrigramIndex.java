@@ -0,0 +1,253 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.dto.StudentMatch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory name and email index behind StudentSearchIndex.
+ *
+ * Each student takes a slot holding "name\nemail" in lower case. Every
+ * three-character sequence of that text (a trigram) maps to the ascending
+ * list of slots containing it, and so do the first one, two and three
+ * characters of every word. Word-start matches are looked up by the query's
+ * first characters or its rarest trigram, whichever list is shorter, other
+ * matches by its rarest trigram, and each candidate is checked with a plain
+ * substring match. Both scans stop at the limit.
+ *
+ * Changing a student frees its slot and takes a new one at the end; freed
+ * slots stay in the lists until more than half the slots are free, and then
+ * the index is rebuilt from the live ones. Searches share a read lock and
+ * changes take the write lock.
+ */
+final class TrigramIndex {
+
+    // Compact once at least this many slots exist and more than half are free
+    private static final int COMPACT_MIN_SLOTS = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private Map<Long, Postings> postings = new HashMap<>();
+    private long[] ids = new long[1024];
+    private String[] names = new String[1024];
+    private String[] emails = new String[1024];
+    private String[] texts = new String[1024];
+    private int slotCount;
+
+    // Add a student, or replace the indexed name and email of one already present
+    void put(long studentId, String name, String email) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsById.remove(studentId);
+            if (slot != null) {
+                free(slot);
+            }
+            slotsById.put(studentId, append(studentId, name, email));
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long studentId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsById.remove(studentId);
+            if (slot != null) {
+                free(slot);
+                compactIfSparse();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Students whose name or email contains the query, ignoring case: first
+     * those with a word starting with it, then the rest. Each group comes in
+     * the order students were indexed. Queries shorter than three characters
+     * only match word starts.
+     */
+    List<StudentMatch> search(String query, int limit) {
+        String needle = query.trim().toLowerCase(Locale.ROOT);
+        List<StudentMatch> matches = new ArrayList<>(limit);
+        if (needle.isEmpty() || needle.indexOf('\n') >= 0) {
+            return matches;
+        }
+
+        lock.readLock().lock();
+        try {
+            // A word-start match is listed under the query's first characters at a word start,
+            // and any match under each of its trigrams; scan the shorter list
+            Postings wordStarts = postings.get(wordStartKey(needle, 0, Math.min(needle.length(), 3)));
+            Postings trigrams = needle.length() >= 3 ? rarestTrigram(needle) : null;
+            if (wordStarts != null) {
+                Postings shorter = trigrams != null && trigrams.size < wordStarts.size ? trigrams : wordStarts;
+                if (collect(shorter, needle, true, limit, matches)) {
+                    return matches;
+                }
+            }
+            if (trigrams != null) {
+                collect(trigrams, needle, false, limit, matches);
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Add the candidates matching at a word start (or only elsewhere); returns true once the limit is reached
+    private boolean collect(Postings candidates, String needle, boolean atWordStart, int limit,
+                            List<StudentMatch> matches) {
+        if (candidates == null) {
+            return false;
+        }
+        for (int i = 0; i < candidates.size; i++) {
+            int slot = candidates.slots[i];
+            String text = texts[slot];
+            if (text != null && text.indexOf(needle) >= 0 && matchesWordStart(text, needle) == atWordStart) {
+                matches.add(new StudentMatch(ids[slot], names[slot], emails[slot]));
+                if (matches.size() == limit) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Postings rarestTrigram(String needle) {
+        Postings rarest = null;
+        for (int i = 0; i + 3 <= needle.length(); i++) {
+            Postings list = postings.get(trigramKey(needle, i));
+            if (list == null) {
+                return null;
+            }
+            if (rarest == null || list.size < rarest.size) {
+                rarest = list;
+            }
+        }
+        return rarest;
+    }
+
+    private static boolean matchesWordStart(String text, String needle) {
+        for (int at = text.indexOf(needle); at >= 0; at = text.indexOf(needle, at + 1)) {
+            if (isWordStart(text, at)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int append(long studentId, String name, String email) {
+        if (slotCount == ids.length) {
+            int capacity = slotCount * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            names = Arrays.copyOf(names, capacity);
+            emails = Arrays.copyOf(emails, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+        }
+        int slot = slotCount++;
+        String text = (name + '\n' + email).toLowerCase(Locale.ROOT);
+        ids[slot] = studentId;
+        names[slot] = name;
+        emails[slot] = email;
+        texts[slot] = text;
+
+        // A text repeating a key is listed once under it
+        long[] keys = new long[text.length() * 4];
+        int keyCount = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (i + 3 <= text.length()) {
+                keys[keyCount++] = trigramKey(text, i);
+            }
+            if (isWordStart(text, i)) {
+                for (int length = 1; length <= 3 && i + length <= text.length(); length++) {
+                    keys[keyCount++] = wordStartKey(text, i, length);
+                }
+            }
+        }
+        Arrays.sort(keys, 0, keyCount);
+        for (int i = 0; i < keyCount; i++) {
+            if (i == 0 || keys[i] != keys[i - 1]) {
+                postings.computeIfAbsent(keys[i], k -> new Postings()).add(slot);
+            }
+        }
+        return slot;
+    }
+
+    private void free(int slot) {
+        names[slot] = null;
+        emails[slot] = null;
+        texts[slot] = null;
+    }
+
+    private void compactIfSparse() {
+        if (slotCount < COMPACT_MIN_SLOTS || slotsById.size() * 2 >= slotCount) {
+            return;
+        }
+        long[] oldIds = ids;
+        String[] oldNames = names;
+        String[] oldEmails = emails;
+        int oldCount = slotCount;
+
+        int capacity = Math.max(1024, slotsById.size() * 2);
+        ids = new long[capacity];
+        names = new String[capacity];
+        emails = new String[capacity];
+        texts = new String[capacity];
+        postings = new HashMap<>();
+        slotCount = 0;
+        for (int slot = 0; slot < oldCount; slot++) {
+            if (oldNames[slot] != null) {
+                slotsById.put(oldIds[slot], append(oldIds[slot], oldNames[slot], oldEmails[slot]));
+            }
+        }
+    }
+
+    private static boolean isWordStart(String text, int at) {
+        return Character.isLetterOrDigit(text.charAt(at))
+                && (at == 0 || !Character.isLetterOrDigit(text.charAt(at - 1)));
+    }
+
+    // Up to three characters in the low 48 bits; the top bits tell trigrams (3) from word starts (5 to 7)
+    private static long trigramKey(String text, int at) {
+        return 3L << 48 | (long) text.charAt(at) << 32 | (long) text.charAt(at + 1) << 16 | text.charAt(at + 2);
+    }
+
+    private static long wordStartKey(String text, int at, int length) {
+        long key = (long) (4 + length) << 48;
+        for (int i = 0; i < length; i++) {
+            key |= (long) text.charAt(at + i) << (32 - 16 * i);
+        }
+        return key;
+    }
+
+    // Growable ascending list of slots
+    private static final class Postings {
+        private int[] slots = new int[4];
+        private int size;
+
+        private void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+}
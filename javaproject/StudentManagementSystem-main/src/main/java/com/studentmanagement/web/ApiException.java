@@ -0,0 +1,32 @@
+package com.studentmanagement.web;
+
+/**
+ * A request the API rejects with a specific HTTP status.
+ */
+class ApiException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    ApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    int getStatus() {
+        return status;
+    }
+
+    static ApiException badRequest(String message) {
+        return new ApiException(400, message);
+    }
+
+    static ApiException notFound() {
+        return new ApiException(404, "No such resource");
+    }
+
+    static ApiException methodNotAllowed() {
+        return new ApiException(405, "Method not allowed");
+    }
+}
@@ -0,0 +1,256 @@
+package com.studentmanagement.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * One API request: the path below the handler's context, query parameters,
+ * the JSON body and the response. Responses are JSON; dates are ISO-8601
+ * strings and amounts are whole paise.
+ */
+final class ApiExchange {
+
+    static final ObjectMapper JSON = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private static final String CONTENT_TYPE = "application/json; charset=utf-8";
+
+    private final HttpExchange exchange;
+    private final String[] path;
+    private Map<String, String> query;
+    private JsonNode body;
+    private boolean responseStarted;
+
+    ApiExchange(HttpExchange exchange) {
+        this.exchange = exchange;
+        String below = exchange.getRequestURI().getPath().substring(exchange.getHttpContext().getPath().length());
+        this.path = Arrays.stream(below.split("/")).filter(segment -> !segment.isEmpty()).toArray(String[]::new);
+    }
+
+    String method() {
+        return exchange.getRequestMethod();
+    }
+
+    int pathLength() {
+        return path.length;
+    }
+
+    String segment(int index) {
+        return path[index];
+    }
+
+    // A numeric ID in the path; anything else names no resource
+    Long id(int index) {
+        try {
+            return Long.valueOf(path[index]);
+        } catch (NumberFormatException e) {
+            throw ApiException.notFound();
+        }
+    }
+
+    // A request header, or null
+    String header(String name) {
+        return exchange.getRequestHeaders().getFirst(name);
+    }
+
+    String requiredQuery(String name) {
+        String value = optionalQuery(name);
+        if (value == null) {
+            throw ApiException.badRequest("Missing query parameter: " + name);
+        }
+        return value;
+    }
+
+    // A query parameter, or null when absent or empty
+    String optionalQuery(String name) {
+        if (query == null) {
+            query = parseQuery(exchange.getRequestURI().getRawQuery());
+        }
+        String value = query.get(name);
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery != null) {
+            for (String pair : rawQuery.split("&")) {
+                int equals = pair.indexOf('=');
+                String name = equals < 0 ? pair : pair.substring(0, equals);
+                String value = equals < 0 ? "" : pair.substring(equals + 1);
+                parameters.putIfAbsent(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                        URLDecoder.decode(value, StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    // Request body fields
+
+    String requiredText(String field) {
+        JsonNode value = body().get(field);
+        if (value == null || !value.isTextual() || value.asText().isBlank()) {
+            throw ApiException.badRequest("Missing text field: " + field);
+        }
+        return value.asText().trim();
+    }
+
+    String optionalText(String field) {
+        JsonNode value = body().get(field);
+        if (value == null || value.isNull()) {
+            return "";
+        }
+        if (!value.isTextual()) {
+            throw ApiException.badRequest("Field must be text: " + field);
+        }
+        return value.asText();
+    }
+
+    long requiredLong(String field) {
+        JsonNode value = body().get(field);
+        if (value == null || !value.isIntegralNumber() || !value.canConvertToLong()) {
+            throw ApiException.badRequest("Missing whole-number field: " + field);
+        }
+        return value.asLong();
+    }
+
+    int requiredInt(String field) {
+        JsonNode value = body().get(field);
+        if (value == null || !value.isIntegralNumber() || !value.canConvertToInt()) {
+            throw ApiException.badRequest("Missing whole-number field: " + field);
+        }
+        return value.asInt();
+    }
+
+    // A whole-number field, or null when absent
+    Long optionalLong(String field) {
+        JsonNode value = body().get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (!value.isIntegralNumber() || !value.canConvertToLong()) {
+            throw ApiException.badRequest("Field must be a whole number: " + field);
+        }
+        return value.asLong();
+    }
+
+    // An array of whole numbers, or null when absent
+    List<Long> optionalLongArray(String field) {
+        JsonNode value = body().get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (!value.isArray()) {
+            throw ApiException.badRequest("Field must be an array of whole numbers: " + field);
+        }
+        List<Long> values = new ArrayList<>(value.size());
+        for (JsonNode element : value) {
+            if (!element.isIntegralNumber() || !element.canConvertToLong()) {
+                throw ApiException.badRequest("Field must be an array of whole numbers: " + field);
+            }
+            values.add(element.asLong());
+        }
+        return values;
+    }
+
+    private JsonNode body() {
+        if (body == null) {
+            try (InputStream in = exchange.getRequestBody()) {
+                body = JSON.readTree(in);
+            } catch (IOException e) {
+                throw ApiException.badRequest("Malformed JSON body");
+            }
+            if (body == null || !body.isObject()) {
+                throw ApiException.badRequest("Expected a JSON object body");
+            }
+        }
+        return body;
+    }
+
+    // Responses
+
+    void send(int status, Object value) throws IOException {
+        byte[] bytes = JSON.writeValueAsBytes(value);
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        responseStarted = true;
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    void sendNoContent() throws IOException {
+        responseStarted = true;
+        exchange.sendResponseHeaders(204, -1);
+    }
+
+    /**
+     * Stream rows to a JSON array as the source produces them, so large
+     * listings are never held in memory. The response starts with the first
+     * row; a failure before that can still be reported as an error.
+     */
+    <T> void sendAll(ToLongFunction<Consumer<T>> source) throws IOException {
+        JsonGenerator[] generator = new JsonGenerator[1];
+        try {
+            source.applyAsLong(row -> {
+                try {
+                    if (generator[0] == null) {
+                        generator[0] = startArray();
+                    }
+                    generator[0].writeObject(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (generator[0] == null) {
+            generator[0] = startArray();
+        }
+        generator[0].writeEndArray();
+        generator[0].close();
+    }
+
+    private JsonGenerator startArray() throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        responseStarted = true;
+        exchange.sendResponseHeaders(200, 0);
+        JsonGenerator generator = JSON.getFactory().createGenerator(exchange.getResponseBody());
+        generator.writeStartArray();
+        return generator;
+    }
+
+    // An error body, unless the response is already under way; then the connection is dropped
+    void sendError(int status, String message, String... headers) throws IOException {
+        if (responseStarted) {
+            return;
+        }
+        for (int i = 0; i + 1 < headers.length; i += 2) {
+            exchange.getResponseHeaders().set(headers[i], headers[i + 1]);
+        }
+        send(status, Map.of("error", message == null ? "" : message));
+    }
+
+    void close() {
+        exchange.close();
+    }
+}
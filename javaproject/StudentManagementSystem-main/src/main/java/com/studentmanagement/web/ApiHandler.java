@@ -0,0 +1,12 @@
+package com.studentmanagement.web;
+
+import java.io.IOException;
+
+/**
+ * Routes the requests below one context path. Errors are thrown, not
+ * written; {@link ApiServer} turns them into status codes.
+ */
+interface ApiHandler {
+
+    void handle(ApiExchange exchange) throws IOException;
+}
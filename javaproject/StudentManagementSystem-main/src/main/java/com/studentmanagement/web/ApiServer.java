@@ -0,0 +1,258 @@
+package com.studentmanagement.web;
+
+import com.studentmanagement.config.ReplicaRoutingDataSource;
+import com.studentmanagement.service.ApiService;
+import com.studentmanagement.service.BulkEnrollmentService;
+import com.studentmanagement.service.DuplicateException;
+import com.studentmanagement.service.EventOutbox;
+import com.studentmanagement.service.NotFoundException;
+import com.studentmanagement.service.PaymentRollupService;
+import com.studentmanagement.service.ReportService;
+import com.studentmanagement.service.StudentService;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.DateTimeException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedded HTTP/JSON API over the JDK's built-in server; see the handlers for
+ * the routes. Started explicitly (command mode: serve), never by the context.
+ *
+ * Each request runs on its own virtual thread when the JVM has them (Java 21+),
+ * otherwise on a bounded pool of platform threads. Either way every request
+ * holds one of as many permits as the Hikari pool has connections, so excess
+ * requests wait here rather than inside the pool; a request that cannot get
+ * a permit within the pool's connection timeout is answered 503.
+ *
+ * Errors map to statuses: not found 404, invalid input 400, duplicates and
+ * concurrent-update give-ups 409, other business rule violations 422, a full
+ * payment ingestion queue 503.
+ */
+@Component
+public class ApiServer implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiServer.class);
+
+    public static final int DEFAULT_PORT = 8080;
+
+    private static final int DEFAULT_PERMITS = 10;
+    private static final long DEFAULT_PERMIT_TIMEOUT_MILLIS = 30000;
+    private static final int PLATFORM_THREADS_PER_PERMIT = 2;
+    private static final int PLATFORM_QUEUE_CAPACITY = 1000;
+    private static final int STOP_DELAY_SECONDS = 1;
+    private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    @Autowired
+    private ApiService apiService;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private PaymentRollupService paymentRollupService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private EventOutbox eventOutbox;
+
+    @Autowired
+    private BulkEnrollmentService bulkEnrollmentService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private Semaphore permits;
+    private long permitTimeoutMillis;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    /**
+     * Listen on the given port (0 for any free port) and return the bound address
+     */
+    public synchronized InetSocketAddress start(int port) throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("API server is already running");
+        }
+
+        int connections = DEFAULT_PERMITS;
+        permitTimeoutMillis = DEFAULT_PERMIT_TIMEOUT_MILLIS;
+        // The primary pool; with a replica, writes and pinned reads still need it
+        HikariDataSource pool = primaryPool();
+        if (pool != null) {
+            connections = pool.getMaximumPoolSize();
+            permitTimeoutMillis = pool.getConnectionTimeout();
+        }
+        permits = new Semaphore(connections, true);
+
+        // Without TCP_NODELAY the separate header and body writes of a response wait
+        // on the client's delayed ACK, adding about 40 ms to every request
+        if (System.getProperty(NODELAY_PROPERTY) == null) {
+            System.setProperty(NODELAY_PROPERTY, "true");
+        }
+
+        executor = createExecutor(connections);
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.setExecutor(executor);
+        server.createContext("/api/students", handler(new StudentHandler(apiService, reportService, studentService)));
+        server.createContext("/api/courses", handler(new CourseHandler(apiService, reportService, bulkEnrollmentService)));
+        server.createContext("/api/reports", handler(new ReportHandler(reportService, paymentRollupService)));
+        server.createContext("/api/events", handler(new EventHandler(eventOutbox)));
+        server.start();
+
+        InetSocketAddress address = server.getAddress();
+        log.info("API listening on port {} ({}, {} concurrent requests)", address.getPort(),
+                executor instanceof ThreadPoolExecutor ? "platform threads" : "virtual threads", connections);
+        return address;
+    }
+
+    // Stop accepting requests, give running ones a moment to finish, and release the threads
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(STOP_DELAY_SECONDS);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(permitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+        stopped.countDown();
+        log.info("API stopped");
+    }
+
+    // Block until stop() has been called, e.g. by the context closing on shutdown
+    public void awaitStop() throws InterruptedException {
+        stopped.await();
+    }
+
+    @Override
+    public void destroy() {
+        stop();
+    }
+
+    // One virtual thread per request where available, otherwise a bounded platform pool
+    private static ExecutorService createExecutor(int connections) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            // Before Java 21 (or a preview build without --enable-preview)
+        }
+
+        // Threads beyond the permits parse and write while others hold connections;
+        // when the queue is full the accepting thread runs the request itself, which slows intake
+        int threads = connections * PLATFORM_THREADS_PER_PERMIT;
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "api-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(PLATFORM_QUEUE_CAPACITY), threadFactory,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    private HikariDataSource primaryPool() {
+        if (dataSource instanceof ReplicaRoutingDataSource) {
+            return ((ReplicaRoutingDataSource) dataSource).getPrimary();
+        }
+        return dataSource instanceof HikariDataSource ? (HikariDataSource) dataSource : null;
+    }
+
+    private HttpHandler handler(ApiHandler handler) {
+        return httpExchange -> {
+            ApiExchange exchange = new ApiExchange(httpExchange);
+            try {
+                if (!permits.tryAcquire(permitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    exchange.sendError(503, "Server busy, please retry", "Retry-After", "1");
+                    return;
+                }
+                try {
+                    handler.handle(exchange);
+                } finally {
+                    permits.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                exchange.sendError(503, "Server is shutting down");
+            } catch (IOException e) {
+                // The client went away
+                log.debug("I/O error on {} {}: {}", httpExchange.getRequestMethod(),
+                        httpExchange.getRequestURI(), e.getMessage());
+            } catch (RuntimeException e) {
+                int status = status(e);
+                if (status == 500) {
+                    log.error("Request failed: {} {}", httpExchange.getRequestMethod(), httpExchange.getRequestURI(), e);
+                    exchange.sendError(status, "Internal error");
+                } else {
+                    exchange.sendError(status, e.getMessage());
+                }
+            } finally {
+                exchange.close();
+            }
+        };
+    }
+
+    /**
+     * Status by exception type. Missing records and clashes have their own
+     * types; any other plain RuntimeException from a service is a business
+     * rule the request broke.
+     */
+    private static int status(RuntimeException e) {
+        if (e instanceof ApiException) {
+            return ((ApiException) e).getStatus();
+        }
+        if (e instanceof IllegalArgumentException || e instanceof DateTimeException) {
+            return 400;
+        }
+        if (e instanceof NotFoundException) {
+            return 404;
+        }
+        if (e instanceof DuplicateException) {
+            return 409;
+        }
+        if (e instanceof RejectedExecutionException) {
+            return 503;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConcurrencyFailureException || cause instanceof DataIntegrityViolationException
+                    || cause instanceof ConstraintViolationException) {
+                return 409;
+            }
+        }
+        if (e.getClass() == RuntimeException.class) {
+            return 422;
+        }
+        return 500;
+    }
+}
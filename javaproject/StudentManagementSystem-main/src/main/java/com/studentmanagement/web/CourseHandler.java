@@ -0,0 +1,120 @@
+package com.studentmanagement.web;
+
+import com.studentmanagement.dto.CourseSummary;
+import com.studentmanagement.dto.StudentSummary;
+import com.studentmanagement.service.ApiService;
+import com.studentmanagement.service.BulkEnrollmentService;
+import com.studentmanagement.service.ReportService;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * /api/courses
+ * <pre>
+ * GET    /                    all courses with enrolled counts
+ * POST   /                    {"courseName", "duration", "fee"}, fee in paise
+ * GET    /{id}
+ * PUT    /{id}                {"courseName", "duration", "fee"}
+ * DELETE /{id}                only while no student is enrolled
+ * GET    /{id}/students       students enrolled in the course
+ * POST   /{id}/enrollments    {"studentIds": [...]} or {"fromCourseId"}: enroll the listed students,
+ *                             or everyone in another course; one result per student
+ * </pre>
+ */
+class CourseHandler implements ApiHandler {
+
+    private static final int MAX_BULK_STUDENTS = 10_000;
+
+    private final ApiService apiService;
+    private final ReportService reportService;
+    private final BulkEnrollmentService bulkEnrollmentService;
+
+    CourseHandler(ApiService apiService, ReportService reportService, BulkEnrollmentService bulkEnrollmentService) {
+        this.apiService = apiService;
+        this.reportService = reportService;
+        this.bulkEnrollmentService = bulkEnrollmentService;
+    }
+
+    @Override
+    public void handle(ApiExchange exchange) throws IOException {
+        switch (exchange.pathLength()) {
+            case 0:
+                courses(exchange);
+                return;
+            case 1:
+                course(exchange, exchange.id(0));
+                return;
+            case 2:
+                Long courseId = exchange.id(0);
+                switch (exchange.segment(1)) {
+                    case "students":
+                        if (!exchange.method().equals("GET")) {
+                            throw ApiException.methodNotAllowed();
+                        }
+                        reportService.getCourse(courseId);
+                        exchange.<StudentSummary>sendAll(
+                                action -> reportService.forEachStudentInCourse(courseId, action));
+                        return;
+                    case "enrollments":
+                        if (!exchange.method().equals("POST")) {
+                            throw ApiException.methodNotAllowed();
+                        }
+                        enrollments(exchange, courseId);
+                        return;
+                    default:
+                        throw ApiException.notFound();
+                }
+            default:
+                throw ApiException.notFound();
+        }
+    }
+
+    private void courses(ApiExchange exchange) throws IOException {
+        switch (exchange.method()) {
+            case "GET":
+                exchange.<CourseSummary>sendAll(reportService::forEachCourse);
+                return;
+            case "POST":
+                exchange.send(201, apiService.addCourse(exchange.requiredText("courseName"),
+                        exchange.requiredInt("duration"), exchange.requiredLong("fee")));
+                return;
+            default:
+                throw ApiException.methodNotAllowed();
+        }
+    }
+
+    private void enrollments(ApiExchange exchange, Long courseId) throws IOException {
+        List<Long> studentIds = exchange.optionalLongArray("studentIds");
+        Long fromCourseId = exchange.optionalLong("fromCourseId");
+        if ((studentIds == null) == (fromCourseId == null)) {
+            throw ApiException.badRequest("Expected either studentIds or fromCourseId");
+        }
+        if (studentIds != null) {
+            if (studentIds.isEmpty() || studentIds.size() > MAX_BULK_STUDENTS) {
+                throw ApiException.badRequest("Can enroll 1 to " + MAX_BULK_STUDENTS + " students at a time");
+            }
+            exchange.send(200, bulkEnrollmentService.enrollStudents(studentIds, courseId));
+        } else {
+            exchange.send(200, bulkEnrollmentService.moveStudents(fromCourseId, courseId));
+        }
+    }
+
+    private void course(ApiExchange exchange, Long courseId) throws IOException {
+        switch (exchange.method()) {
+            case "GET":
+                exchange.send(200, reportService.getCourse(courseId));
+                return;
+            case "PUT":
+                exchange.send(200, apiService.updateCourse(courseId, exchange.requiredText("courseName"),
+                        exchange.requiredInt("duration"), exchange.requiredLong("fee")));
+                return;
+            case "DELETE":
+                apiService.deleteCourse(courseId);
+                exchange.sendNoContent();
+                return;
+            default:
+                throw ApiException.methodNotAllowed();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.studentmanagement.web;
+
+import com.studentmanagement.service.EventOutbox;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * /api/events
+ * <pre>
+ * GET /?after=N&amp;limit=M            published events after position N (default 0, limit 100)
+ * GET /offsets/{consumer}            {"consumer", "position"} last committed by a consumer
+ * PUT /offsets/{consumer}            {"position"} commit a consumer's offset
+ * GET /offsets/{consumer}/next?limit=M   events after the consumer's committed offset
+ * </pre>
+ */
+class EventHandler implements ApiHandler {
+
+    private static final int DEFAULT_LIMIT = 100;
+
+    private final EventOutbox eventOutbox;
+
+    EventHandler(EventOutbox eventOutbox) {
+        this.eventOutbox = eventOutbox;
+    }
+
+    @Override
+    public void handle(ApiExchange exchange) throws IOException {
+        if (exchange.pathLength() == 0) {
+            requireGet(exchange);
+            exchange.send(200, eventOutbox.read(queryLong(exchange, "after", 0), limit(exchange)));
+            return;
+        }
+        if (!exchange.segment(0).equals("offsets") || exchange.pathLength() < 2 || exchange.pathLength() > 3) {
+            throw ApiException.notFound();
+        }
+
+        String consumer = exchange.segment(1);
+        if (exchange.pathLength() == 3) {
+            if (!exchange.segment(2).equals("next")) {
+                throw ApiException.notFound();
+            }
+            requireGet(exchange);
+            exchange.send(200, eventOutbox.poll(consumer, limit(exchange)));
+            return;
+        }
+
+        switch (exchange.method()) {
+            case "GET":
+                exchange.send(200, offset(consumer, eventOutbox.getOffset(consumer)));
+                return;
+            case "PUT":
+                long position = exchange.requiredLong("position");
+                eventOutbox.commitOffset(consumer, position);
+                exchange.send(200, offset(consumer, position));
+                return;
+            default:
+                throw ApiException.methodNotAllowed();
+        }
+    }
+
+    private static Map<String, Object> offset(String consumer, long position) {
+        return Map.of("consumer", consumer, "position", position);
+    }
+
+    private static int limit(ApiExchange exchange) {
+        return (int) queryLong(exchange, "limit", DEFAULT_LIMIT);
+    }
+
+    private static long queryLong(ApiExchange exchange, String name, long defaultValue) {
+        String value = exchange.optionalQuery(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw ApiException.badRequest("Query parameter must be a whole number: " + name);
+        }
+    }
+
+    private static void requireGet(ApiExchange exchange) {
+        if (!exchange.method().equals("GET")) {
+            throw ApiException.methodNotAllowed();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.studentmanagement.web;
+
+import com.studentmanagement.dto.CourseEnrollmentSummary;
+import com.studentmanagement.service.PaymentRollupService;
+import com.studentmanagement.service.ReportService;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * /api/reports
+ * <pre>
+ * GET /enrollment                      enrollment and fee position of every course
+ * GET /revenue?from=YYYY-MM-DD&amp;to=...   daily payment and refund totals per course
+ * </pre>
+ */
+class ReportHandler implements ApiHandler {
+
+    private final ReportService reportService;
+    private final PaymentRollupService paymentRollupService;
+
+    ReportHandler(ReportService reportService, PaymentRollupService paymentRollupService) {
+        this.reportService = reportService;
+        this.paymentRollupService = paymentRollupService;
+    }
+
+    @Override
+    public void handle(ApiExchange exchange) throws IOException {
+        if (exchange.pathLength() != 1) {
+            throw ApiException.notFound();
+        }
+        switch (exchange.segment(0)) {
+            case "enrollment":
+                requireGet(exchange);
+                exchange.<CourseEnrollmentSummary>sendAll(reportService::forEachCourseEnrollment);
+                return;
+            case "revenue":
+                requireGet(exchange);
+                exchange.send(200, paymentRollupService.getDailyRollup(
+                        LocalDate.parse(exchange.requiredQuery("from")),
+                        LocalDate.parse(exchange.requiredQuery("to"))));
+                return;
+            default:
+                throw ApiException.notFound();
+        }
+    }
+
+    private static void requireGet(ApiExchange exchange) {
+        if (!exchange.method().equals("GET")) {
+            throw ApiException.methodNotAllowed();
+        }
+    }
+}
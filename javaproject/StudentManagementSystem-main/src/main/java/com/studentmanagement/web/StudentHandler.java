@@ -0,0 +1,183 @@
+package com.studentmanagement.web;
+
+import com.studentmanagement.dto.PaymentReceipt;
+import com.studentmanagement.dto.StudentSummary;
+import com.studentmanagement.service.ApiService;
+import com.studentmanagement.service.ReportService;
+import com.studentmanagement.service.StudentService;
+
+import java.io.IOException;
+
+/**
+ * /api/students
+ * <pre>
+ * GET    /                    all students
+ * POST   /                    {"name", "email"}
+ * GET    /search?q=...&amp;limit=N   name or email fragment, best matches first (default limit 20)
+ * GET    /{id}
+ * PUT    /{id}                {"name", "email"}
+ * DELETE /{id}
+ * POST   /{id}/enrollment     {"courseId"}
+ * GET    /{id}/payments       payment history, newest first; ?archived=true adds archived payments
+ * GET    /{id}/payments?limit=N&amp;cursor=...   one page of it, {"payments", "nextCursor", "hasMore"}
+ * POST   /{id}/payments       {"amount", "description"}, amount in paise
+ * POST   /{id}/refunds        {"amount", "reason"}, amount in paise
+ * </pre>
+ * Payments and refunds take an optional Idempotency-Key header. A repeated key
+ * is answered 200 with the original receipt ("duplicate": true) instead of 201.
+ */
+class StudentHandler implements ApiHandler {
+
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    private final ApiService apiService;
+    private final ReportService reportService;
+    private final StudentService studentService;
+
+    StudentHandler(ApiService apiService, ReportService reportService, StudentService studentService) {
+        this.apiService = apiService;
+        this.reportService = reportService;
+        this.studentService = studentService;
+    }
+
+    @Override
+    public void handle(ApiExchange exchange) throws IOException {
+        switch (exchange.pathLength()) {
+            case 0:
+                students(exchange);
+                return;
+            case 1:
+                if (exchange.segment(0).equals("search")) {
+                    search(exchange);
+                } else {
+                    student(exchange, exchange.id(0));
+                }
+                return;
+            case 2:
+                Long studentId = exchange.id(0);
+                switch (exchange.segment(1)) {
+                    case "enrollment":
+                        enrollment(exchange, studentId);
+                        return;
+                    case "payments":
+                        payments(exchange, studentId);
+                        return;
+                    case "refunds":
+                        refunds(exchange, studentId);
+                        return;
+                    default:
+                        throw ApiException.notFound();
+                }
+            default:
+                throw ApiException.notFound();
+        }
+    }
+
+    private void students(ApiExchange exchange) throws IOException {
+        switch (exchange.method()) {
+            case "GET":
+                exchange.<StudentSummary>sendAll(reportService::forEachStudent);
+                return;
+            case "POST":
+                exchange.send(201, apiService.addStudent(
+                        exchange.requiredText("name"), exchange.requiredText("email")));
+                return;
+            default:
+                throw ApiException.methodNotAllowed();
+        }
+    }
+
+    private void search(ApiExchange exchange) throws IOException {
+        if (!exchange.method().equals("GET")) {
+            throw ApiException.methodNotAllowed();
+        }
+        String limit = exchange.optionalQuery("limit");
+        try {
+            exchange.send(200, studentService.search(exchange.requiredQuery("q"),
+                    limit == null ? DEFAULT_SEARCH_LIMIT : Integer.parseInt(limit)));
+        } catch (NumberFormatException e) {
+            throw ApiException.badRequest("Query parameter must be a whole number: limit");
+        }
+    }
+
+    private void student(ApiExchange exchange, Long studentId) throws IOException {
+        switch (exchange.method()) {
+            case "GET":
+                exchange.send(200, reportService.getStudent(studentId));
+                return;
+            case "PUT":
+                exchange.send(200, apiService.updateStudent(studentId,
+                        exchange.requiredText("name"), exchange.requiredText("email")));
+                return;
+            case "DELETE":
+                apiService.deleteStudent(studentId);
+                exchange.sendNoContent();
+                return;
+            default:
+                throw ApiException.methodNotAllowed();
+        }
+    }
+
+    private void enrollment(ApiExchange exchange, Long studentId) throws IOException {
+        if (!exchange.method().equals("POST")) {
+            throw ApiException.methodNotAllowed();
+        }
+        exchange.send(200, apiService.enroll(studentId, exchange.requiredLong("courseId")));
+    }
+
+    // ?archived=true adds archived payments to the history
+    private static boolean includeArchived(ApiExchange exchange) {
+        String archived = exchange.optionalQuery("archived");
+        if (archived == null || archived.equals("false")) {
+            return false;
+        }
+        if (!archived.equals("true")) {
+            throw ApiException.badRequest("Query parameter must be true or false: archived");
+        }
+        return true;
+    }
+
+    private void payments(ApiExchange exchange, Long studentId) throws IOException {
+        switch (exchange.method()) {
+            case "GET":
+                paymentHistory(exchange, studentId);
+                return;
+            case "POST":
+                sendReceipt(exchange, apiService.pay(studentId, exchange.requiredLong("amount"),
+                        exchange.optionalText("description"), exchange.header(IDEMPOTENCY_KEY)));
+                return;
+            default:
+                throw ApiException.methodNotAllowed();
+        }
+    }
+
+    // Pages when asked for a limit or a cursor; otherwise the whole history, as before
+    private void paymentHistory(ApiExchange exchange, Long studentId) throws IOException {
+        String limit = exchange.optionalQuery("limit");
+        String cursor = exchange.optionalQuery("cursor");
+        if (limit == null && cursor == null) {
+            exchange.send(200, reportService.getPaymentHistory(studentId, includeArchived(exchange)));
+            return;
+        }
+        try {
+            exchange.send(200, reportService.getPaymentHistoryPage(studentId, cursor,
+                    limit == null ? DEFAULT_PAGE_SIZE : Integer.parseInt(limit), includeArchived(exchange)));
+        } catch (NumberFormatException e) {
+            throw ApiException.badRequest("Query parameter must be a whole number: limit");
+        }
+    }
+
+    private void refunds(ApiExchange exchange, Long studentId) throws IOException {
+        if (!exchange.method().equals("POST")) {
+            throw ApiException.methodNotAllowed();
+        }
+        sendReceipt(exchange, apiService.refund(studentId, exchange.requiredLong("amount"),
+                exchange.optionalText("reason"), exchange.header(IDEMPOTENCY_KEY)));
+    }
+
+    private static void sendReceipt(ApiExchange exchange, PaymentReceipt receipt) throws IOException {
+        exchange.send(receipt.isDuplicate() ? 200 : 201, receipt);
+    }
+}
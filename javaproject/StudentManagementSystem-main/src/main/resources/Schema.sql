@@ -3,6 +3,12 @@ CREATE DATABASE IF NOT EXISTS student_management_db;
 USE student_management_db;
 
 -- Drop tables if they exist (for clean setup)
+DROP TABLE IF EXISTS payment_carry_forward;
+DROP TABLE IF EXISTS payments_archive;
+DROP TABLE IF EXISTS statement_imports;
+DROP TABLE IF EXISTS outbox_offsets;
+DROP TABLE IF EXISTS outbox_events;
+DROP TABLE IF EXISTS payment_daily_rollup;
 DROP TABLE IF EXISTS payments;
 DROP TABLE IF EXISTS students;
 DROP TABLE IF EXISTS courses;
@@ -12,7 +18,7 @@ CREATE TABLE courses (
     course_id BIGINT AUTO_INCREMENT PRIMARY KEY,
     course_name VARCHAR(100) NOT NULL,
     duration INT NOT NULL,
-    fee DOUBLE NOT NULL,
+    fee BIGINT NOT NULL, -- in paise (1 rupee = 100 paise)
     UNIQUE KEY uk_course_name (course_name)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
@@ -22,7 +28,10 @@ CREATE TABLE students (
     name VARCHAR(100) NOT NULL,
     email VARCHAR(100) NOT NULL,
     course_id BIGINT,
-    balance DOUBLE DEFAULT 0.0,
+    balance BIGINT NOT NULL DEFAULT 0,
+    total_paid BIGINT NOT NULL DEFAULT 0,
+    total_refunded BIGINT NOT NULL DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 0,
     UNIQUE KEY uk_email (email),
     FOREIGN KEY (course_id) REFERENCES courses(course_id) ON DELETE SET NULL,
     INDEX idx_course_id (course_id)
@@ -32,38 +41,116 @@ CREATE TABLE students (
 CREATE TABLE payments (
     payment_id BIGINT AUTO_INCREMENT PRIMARY KEY,
     student_id BIGINT NOT NULL,
-    amount DOUBLE NOT NULL,
+    amount BIGINT NOT NULL,
     payment_date DATETIME NOT NULL,
     payment_type VARCHAR(20) NOT NULL,
     description VARCHAR(255),
+    course_id BIGINT,
+    idempotency_key VARCHAR(64),
+    FOREIGN KEY (student_id) REFERENCES students(student_id) ON DELETE CASCADE,
+    INDEX idx_student_date (student_id, payment_date, payment_id),
+    INDEX idx_payment_date (payment_date),
+    UNIQUE KEY uk_payments_idempotency_key (idempotency_key)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Create Daily Payment Rollup Table (course_id 0 = student not enrolled)
+CREATE TABLE payment_daily_rollup (
+    rollup_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    rollup_date DATE NOT NULL,
+    course_id BIGINT NOT NULL,
+    payment_type VARCHAR(20) NOT NULL,
+    payment_count BIGINT NOT NULL,
+    total_amount BIGINT NOT NULL,
+    UNIQUE KEY uk_rollup_day_course_type (rollup_date, course_id, payment_type)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Create Outbox Tables (position is assigned when the relay publishes an event)
+CREATE TABLE outbox_events (
+    event_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_type VARCHAR(30) NOT NULL,
+    student_id BIGINT NOT NULL,
+    payload VARCHAR(2000) NOT NULL,
+    created_at DATETIME NOT NULL,
+    position BIGINT,
+    published_at DATETIME,
+    UNIQUE KEY uk_outbox_position (position)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE outbox_offsets (
+    consumer_name VARCHAR(100) PRIMARY KEY,
+    position BIGINT NOT NULL,
+    updated_at DATETIME NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Create Statement Import Checkpoints (statement_id = SHA-256 of the file, in hex)
+CREATE TABLE statement_imports (
+    statement_id VARCHAR(64) PRIMARY KEY,
+    file_name VARCHAR(255) NOT NULL,
+    lines_done INT NOT NULL,
+    payments_posted INT NOT NULL,
+    amount_posted BIGINT NOT NULL,
+    started_at DATETIME NOT NULL,
+    updated_at DATETIME NOT NULL,
+    completed_at DATETIME
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Create Payment Archive (payments older than the archive horizon, with their original IDs)
+CREATE TABLE payments_archive (
+    payment_id BIGINT PRIMARY KEY,
+    student_id BIGINT NOT NULL,
+    amount BIGINT NOT NULL,
+    payment_date DATETIME NOT NULL,
+    payment_type VARCHAR(20) NOT NULL,
+    description VARCHAR(255),
+    course_id BIGINT,
+    idempotency_key VARCHAR(64),
+    archived_at DATETIME NOT NULL,
     FOREIGN KEY (student_id) REFERENCES students(student_id) ON DELETE CASCADE,
-    INDEX idx_student_id (student_id),
-    INDEX idx_payment_date (payment_date)
+    INDEX idx_archive_student_date (student_id, payment_date, payment_id),
+    INDEX idx_archive_payment_date (payment_date),
+    UNIQUE KEY uk_archive_idempotency_key (idempotency_key)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Create Carry-Forward Totals of each student's archived payments
+CREATE TABLE payment_carry_forward (
+    student_id BIGINT PRIMARY KEY,
+    payment_count BIGINT NOT NULL,
+    total_paid BIGINT NOT NULL,
+    total_refunded BIGINT NOT NULL,
+    archived_through DATETIME NOT NULL,
+    updated_at DATETIME NOT NULL,
+    FOREIGN KEY (student_id) REFERENCES students(student_id) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- Insert Sample Courses
 INSERT INTO courses (course_name, duration, fee) VALUES
-('Java Full Stack Development', 6, 45000.00),
-('Python Data Science', 5, 40000.00),
-('Web Development', 4, 35000.00),
-('Cloud Computing', 4, 38000.00),
-('Machine Learning', 6, 50000.00);
+('Java Full Stack Development', 6, 4500000),
+('Python Data Science', 5, 4000000),
+('Web Development', 4, 3500000),
+('Cloud Computing', 4, 3800000),
+('Machine Learning', 6, 5000000);
 
 -- Insert Sample Students
 INSERT INTO students (name, email, course_id, balance) VALUES
-('Rahul Sharma', 'rahul.sharma@email.com', 1, 0.00),
-('Priya Singh', 'priya.singh@email.com', 2, 0.00),
-('Amit Kumar', 'amit.kumar@email.com', 3, 0.00),
-('Sneha Patel', 'sneha.patel@email.com', 1, 0.00),
-('Vikram Desai', 'vikram.desai@email.com', 4, 0.00);
+('Rahul Sharma', 'rahul.sharma@email.com', 1, 0),
+('Priya Singh', 'priya.singh@email.com', 2, 0),
+('Amit Kumar', 'amit.kumar@email.com', 3, 0),
+('Sneha Patel', 'sneha.patel@email.com', 1, 0),
+('Vikram Desai', 'vikram.desai@email.com', 4, 0);
 
 -- Insert Sample Payments
-INSERT INTO payments (student_id, amount, payment_date, payment_type, description) VALUES
-(1, 15000.00, NOW(), 'PAYMENT', 'First installment'),
-(2, 20000.00, NOW(), 'PAYMENT', 'First installment'),
-(3, 35000.00, NOW(), 'PAYMENT', 'Full payment');
+INSERT INTO payments (student_id, amount, payment_date, payment_type, description, course_id) VALUES
+(1, 1500000, NOW(), 'PAYMENT', 'First installment', 1),
+(2, 2000000, NOW(), 'PAYMENT', 'First installment', 2),
+(3, 3500000, NOW(), 'PAYMENT', 'Full payment', 3);
+
+-- Update student balances and running totals after payments
+UPDATE students SET balance = -1500000, total_paid = 1500000 WHERE student_id = 1;
+UPDATE students SET balance = -2000000, total_paid = 2000000 WHERE student_id = 2;
+UPDATE students SET balance = -3500000, total_paid = 3500000 WHERE student_id = 3;
 
--- Update student balances after payments
-UPDATE students SET balance = -15000.00 WHERE student_id = 1;
-UPDATE students SET balance = -20000.00 WHERE student_id = 2;
-UPDATE students SET balance = -35000.00 WHERE student_id = 3;
\ No newline at end of file
+-- Roll up the sample payments
+INSERT INTO payment_daily_rollup (rollup_date, course_id, payment_type, payment_count, total_amount)
+SELECT CAST(p.payment_date AS DATE), COALESCE(p.course_id, 0), p.payment_type, COUNT(*), SUM(p.amount)
+FROM payments p
+GROUP BY CAST(p.payment_date AS DATE), COALESCE(p.course_id, 0), p.payment_type;
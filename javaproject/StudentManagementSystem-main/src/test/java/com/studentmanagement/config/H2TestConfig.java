@@ -0,0 +1,97 @@
+package com.studentmanagement.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.SQLExceptionOverride;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.hibernate5.HibernateTransactionManager;
+import org.springframework.orm.hibernate5.LocalSessionFactoryBean;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Spring configuration for tests: the application's DAOs and services on top
+ * of a private in-memory H2 database running in MySQL mode, so every context
+ * starts from an empty schema. Hibernate settings mirror AppConfigExample
+ * apart from the dialect and DDL, and statistics are on.
+ */
+@Configuration
+@EnableTransactionManagement
+@ComponentScan(basePackages = {"com.studentmanagement.dao", "com.studentmanagement.service"})
+public class H2TestConfig {
+
+    // How long a statement waits for a row lock before it fails
+    public static final long LOCK_TIMEOUT_MILLIS = 500;
+
+    // H2 error code of a lock timeout
+    private static final int LOCK_TIMEOUT_ERROR = 50200;
+
+    private static final AtomicInteger DATABASE_COUNTER = new AtomicInteger();
+
+    /**
+     * H2 reports a lock timeout as an SQLTimeoutException, on which Hikari
+     * closes the connection and the rollback then fails. The connection is
+     * still good (MySQL reports a lock wait timeout as a rollback), so keep it.
+     */
+    public static class KeepConnectionOnLockTimeout implements SQLExceptionOverride {
+
+        // Override here is SQLExceptionOverride.Override, hence the qualified annotation
+        @java.lang.Override
+        public Override adjudicate(SQLException e) {
+            return e.getErrorCode() == LOCK_TIMEOUT_ERROR ? Override.DO_NOT_EVICT : Override.CONTINUE_EVICT;
+        }
+    }
+
+    // A pool on a new, empty in-memory database
+    public static HikariDataSource newDatabase() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:test" + DATABASE_COUNTER.incrementAndGet() +
+                ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=" + LOCK_TIMEOUT_MILLIS);
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(10);
+        dataSource.setExceptionOverrideClassName(KeepConnectionOnLockTimeout.class.getName());
+        dataSource.setPoolName("TestHikariPool" + DATABASE_COUNTER.get());
+        return dataSource;
+    }
+
+    @Bean
+    public DataSource dataSource() {
+        return newDatabase();
+    }
+
+    @Bean
+    public LocalSessionFactoryBean sessionFactory() {
+        LocalSessionFactoryBean sessionFactory = new LocalSessionFactoryBean();
+        sessionFactory.setDataSource(dataSource());
+        sessionFactory.setPackagesToScan("com.studentmanagement.model");
+        sessionFactory.setHibernateProperties(hibernateProperties());
+        return sessionFactory;
+    }
+
+    private Properties hibernateProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.setProperty("hibernate.hbm2ddl.auto", "create");
+        properties.setProperty("hibernate.show_sql", "false");
+        properties.setProperty("hibernate.generate_statistics", "true");
+        properties.setProperty("hibernate.jdbc.batch_size", "20");
+        properties.setProperty("hibernate.cache.use_second_level_cache", "true");
+        properties.setProperty("hibernate.cache.use_query_cache", "true");
+        properties.setProperty("hibernate.cache.region.factory_class", "jcache");
+        properties.setProperty("hibernate.javax.cache.provider", "org.ehcache.jsr107.EhcacheCachingProvider");
+        properties.setProperty("hibernate.javax.cache.uri", "ehcache.xml");
+        return properties;
+    }
+
+    @Bean
+    public HibernateTransactionManager transactionManager() {
+        HibernateTransactionManager transactionManager = new HibernateTransactionManager();
+        transactionManager.setSessionFactory(sessionFactory().getObject());
+        return transactionManager;
+    }
+}
@@ -0,0 +1,148 @@
+package com.studentmanagement.config;
+
+import com.studentmanagement.service.FeeService;
+import com.studentmanagement.service.ReadYourWrites;
+import com.studentmanagement.service.ReportService;
+import com.studentmanagement.service.StudentService;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routing between a primary and a replica, each its own in-memory H2
+ * database. The replica only changes when the test replicates the primary
+ * into it, so a name changed on the primary alone shows which database
+ * answered a read.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final long STICKY_MILLIS = 500;
+
+    @Configuration
+    static class ReplicaTestConfig extends H2TestConfig {
+
+        @Bean
+        @Override
+        public DataSource dataSource() {
+            return new ReplicaRoutingDataSource(newDatabase(), newDatabase());
+        }
+    }
+
+    private AnnotationConfigApplicationContext context;
+    private ReplicaRoutingDataSource dataSource;
+    private ReportService reportService;
+    private Long ashaId;
+    private Long raviId;
+
+    @BeforeAll
+    static void shortenStickyWindow() {
+        System.setProperty(ReadYourWrites.STICKY_MILLIS_PROPERTY, String.valueOf(STICKY_MILLIS));
+    }
+
+    @AfterAll
+    static void restoreStickyWindow() {
+        System.clearProperty(ReadYourWrites.STICKY_MILLIS_PROPERTY);
+    }
+
+    @BeforeEach
+    void startContext() throws Exception {
+        context = new AnnotationConfigApplicationContext(ReplicaTestConfig.class);
+        dataSource = context.getBean(ReplicaRoutingDataSource.class);
+        reportService = context.getBean(ReportService.class);
+
+        StudentService studentService = context.getBean(StudentService.class);
+        studentService.addStudent("Asha", "asha@example.com");
+        studentService.addStudent("Ravi", "ravi@example.com");
+        replicate();
+        ashaId = studentService.getAllStudents().get(0).getStudentId();
+        raviId = studentService.getAllStudents().get(1).getStudentId();
+
+        // Changes the replica has not seen yet, and no recent write to either student
+        executeOnPrimary("UPDATE students SET name = CONCAT(name, ' (primary)')");
+        Thread.sleep(STICKY_MILLIS + 100);
+    }
+
+    @AfterEach
+    void closeContext() {
+        context.close();
+    }
+
+    @Test
+    void readOnlyTransactionsReadTheReplica() {
+        assertEquals("Asha", reportService.getStudent(ashaId).getName());
+        assertEquals("Asha (primary)", nameInReadWriteTransaction(ashaId));
+    }
+
+    @Test
+    void writeKeepsThatStudentOnThePrimaryForTheStickyWindow() throws Exception {
+        context.getBean(FeeService.class).processPayment(ashaId, 1_000_00L, "Instalment");
+
+        assertEquals("Asha (primary)", reportService.getStudent(ashaId).getName());
+        assertEquals(-1_000_00L, reportService.getStudent(ashaId).getBalance());
+        assertEquals("Ravi", reportService.getStudent(raviId).getName());
+
+        Thread.sleep(STICKY_MILLIS + 100);
+        assertEquals("Asha", reportService.getStudent(ashaId).getName());
+    }
+
+    @Test
+    void closedReplicaFallsBackToThePrimary() {
+        dataSource.getReplica().close();
+
+        assertEquals("Asha (primary)", reportService.getStudent(ashaId).getName());
+        assertEquals("Ravi (primary)", reportService.getStudent(raviId).getName());
+    }
+
+    private String nameInReadWriteTransaction(Long studentId) {
+        SessionFactory sessionFactory = context.getBean(SessionFactory.class);
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        return transaction.execute(status -> (String) sessionFactory.getCurrentSession()
+                .createNativeQuery("SELECT name FROM students WHERE student_id = :studentId")
+                .setParameter("studentId", studentId)
+                .uniqueResult());
+    }
+
+    private void executeOnPrimary(String sql) throws SQLException {
+        try (Connection connection = dataSource.getPrimary().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate(sql);
+        }
+    }
+
+    // Make the replica an exact copy of the primary
+    private void replicate() throws SQLException {
+        List<String> script = new ArrayList<>();
+        try (Connection connection = dataSource.getPrimary().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SCRIPT")) {
+            while (rows.next()) {
+                script.add(rows.getString(1));
+            }
+        }
+        try (Connection connection = dataSource.getReplica().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String sql : script) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.studentmanagement.dao;
+
+import com.studentmanagement.config.H2TestConfig;
+import com.studentmanagement.model.Course;
+import com.studentmanagement.model.Student;
+import com.studentmanagement.service.CourseService;
+import com.studentmanagement.service.FeeService;
+import com.studentmanagement.service.StudentService;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Pins the number of JDBC statements of the common reads and writes, so a
+ * lazy association touched by accident (N+1 selects) or a fetch plan that
+ * stops joining shows up as a failure. Runs with a cold second-level cache.
+ */
+class StatementCountTest {
+
+    private static final int COURSES = 5;
+    private static final int STUDENTS = 50;
+
+    private static AnnotationConfigApplicationContext context;
+    private static SessionFactory sessionFactory;
+    private static TransactionTemplate transaction;
+    private static StudentDAO studentDAO;
+    private static Long courseId;
+    private static Long studentId;
+
+    @BeforeAll
+    static void startContext() {
+        context = new AnnotationConfigApplicationContext(H2TestConfig.class);
+        sessionFactory = context.getBean(SessionFactory.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        studentDAO = context.getBean(StudentDAO.class);
+
+        CourseService courseService = context.getBean(CourseService.class);
+        StudentService studentService = context.getBean(StudentService.class);
+        for (int c = 1; c <= COURSES; c++) {
+            courseService.addCourse("Course " + c, 12, 50_000_00L);
+        }
+        List<Course> courses = courseService.getAllCourses();
+        for (int s = 1; s <= STUDENTS; s++) {
+            studentService.addStudent("Student " + s, "student" + s + "@example.com");
+        }
+        for (Student student : studentService.getAllStudents()) {
+            Course course = courses.get((int) (student.getStudentId() % COURSES));
+            studentService.enrollStudentInCourse(student.getStudentId(), course.getCourseId());
+        }
+        courseId = courses.get(0).getCourseId();
+        studentId = studentService.getStudentsByCourse(courseId).get(0).getStudentId();
+    }
+
+    @AfterAll
+    static void closeContext() {
+        context.close();
+    }
+
+    @BeforeEach
+    void resetStatistics() {
+        sessionFactory.getCache().evictAllRegions();
+        sessionFactory.getStatistics().clear();
+    }
+
+    @Test
+    void getAllIsOneStatement() {
+        List<Student> students = transaction.execute(status -> studentDAO.getAll());
+
+        assertEquals(STUDENTS, students.size());
+        // The courses came with the students; outside the session a proxy would throw
+        students.forEach(student -> assertNotNull(student.getCourse().getCourseName()));
+        assertEquals(1, statementCount());
+    }
+
+    @Test
+    void getStudentsByCourseIsOneStatement() {
+        List<Student> students = transaction.execute(status -> studentDAO.getStudentsByCourse(courseId));
+
+        assertEquals(STUDENTS / COURSES, students.size());
+        students.forEach(student -> assertNotNull(student.getCourse().getCourseName()));
+        assertEquals(1, statementCount());
+    }
+
+    @Test
+    void getByIdWithCourseIsOneStatement() {
+        Student student = transaction.execute(status -> studentDAO.getById(studentId, StudentFetchPlan.WITH_COURSE));
+
+        assertNotNull(student.getCourse().getCourseName());
+        assertEquals(1, statementCount());
+    }
+
+    @Test
+    void processPaymentIsFiveStatements() {
+        context.getBean(FeeService.class).processPayment(studentId, 1_000_00L, "Instalment");
+
+        // Select the student, update it, insert the payment; then upsert the
+        // daily rollup row and insert the outbox event
+        assertEquals(5, statementCount());
+    }
+
+    @Test
+    void rejectedDeleteCourseIsTwoStatements() {
+        CourseService courseService = context.getBean(CourseService.class);
+
+        assertThrows(RuntimeException.class, () -> courseService.deleteCourse(courseId));
+        // Select the course, check for an enrolled student; the students are not loaded
+        assertEquals(2, statementCount());
+    }
+
+    private static long statementCount() {
+        return sessionFactory.getStatistics().getPrepareStatementCount();
+    }
+}
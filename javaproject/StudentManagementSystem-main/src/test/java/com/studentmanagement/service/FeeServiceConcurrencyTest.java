@@ -0,0 +1,163 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.config.H2TestConfig;
+import com.studentmanagement.dto.PaymentReceipt;
+import com.studentmanagement.model.Student;
+import com.studentmanagement.service.FeeService.LockingMode;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Concurrent payments and refunds against one student must keep the balance
+ * and the running totals in step with the payments table, whichever way the
+ * read-modify-write of the student row is protected.
+ */
+class FeeServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int POSTINGS_PER_THREAD = 10;
+    private static final long OPENING_PAYMENT = 1_000_000_00L;
+    private static final long PAYMENT = 1_000_00L;
+    private static final long REFUND = 300_00L;
+
+    @ParameterizedTest
+    @EnumSource(LockingMode.class)
+    void concurrentPostingsKeepBalanceAndTotalsInStepWithPayments(LockingMode lockingMode) throws Exception {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(H2TestConfig.class)) {
+            FeeService feeService = context.getBean(FeeService.class);
+            StudentService studentService = context.getBean(StudentService.class);
+            CourseService courseService = context.getBean(CourseService.class);
+            feeService.setLockingMode(lockingMode);
+
+            courseService.addCourse("Physics", 12, 5_000_000_00L);
+            studentService.addStudent("Asha", "asha@example.com");
+            Long courseId = courseService.getAllCourses().get(0).getCourseId();
+            Long studentId = studentService.getAllStudents().get(0).getStudentId();
+            studentService.enrollStudentInCourse(studentId, courseId);
+            long openingBalance = studentService.getStudent(studentId).getBalance();
+
+            // Enough paid up front that no refund can exceed what is available. The
+            // opening refund creates the day's rollup row: H2's ON DUPLICATE KEY UPDATE,
+            // unlike MySQL's, fails instead of waiting when two inserts race on a new key
+            feeService.processPayment(studentId, OPENING_PAYMENT, "Opening payment");
+            feeService.processRefund(studentId, REFUND, "Opening refund");
+
+            AtomicInteger payments = new AtomicInteger(1);
+            AtomicInteger refunds = new AtomicInteger(1);
+            Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < POSTINGS_PER_THREAD; i++) {
+                        try {
+                            if (i % 2 == 0) {
+                                feeService.processPayment(studentId, PAYMENT, "Instalment " + i);
+                                payments.incrementAndGet();
+                            } else {
+                                feeService.processRefund(studentId, REFUND, "Adjustment " + i);
+                                refunds.incrementAndGet();
+                            }
+                        } catch (RuntimeException e) {
+                            failures.add(e);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(2, TimeUnit.MINUTES);
+            }
+            executor.shutdown();
+
+            // A posting may give up after its retries, but must then leave no trace
+            for (Throwable failure : failures) {
+                assertTrue(failure.getMessage().startsWith("Gave up after"), failure.toString());
+            }
+            assertTrue(payments.get() > 1 && refunds.get() > 0, "No concurrent posting succeeded");
+
+            long paid = sumOfPayments(context, studentId, "PAYMENT");
+            long refunded = sumOfPayments(context, studentId, "REFUND");
+            assertEquals(OPENING_PAYMENT + (payments.get() - 1) * PAYMENT, paid);
+            assertEquals(refunds.get() * REFUND, refunded);
+
+            Student student = studentService.getStudent(studentId);
+            assertEquals(paid, student.getTotalPaid());
+            assertEquals(refunded, student.getTotalRefunded());
+            assertEquals(openingBalance - paid + refunded, student.getBalance());
+        }
+    }
+
+    @Test
+    void lockTimeoutInPessimisticModeIsRetried() throws Exception {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(H2TestConfig.class)) {
+            FeeService feeService = context.getBean(FeeService.class);
+            StudentService studentService = context.getBean(StudentService.class);
+            feeService.setLockingMode(LockingMode.PESSIMISTIC);
+            studentService.addStudent("Asha", "asha@example.com");
+            Long studentId = studentService.getAllStudents().get(0).getStudentId();
+
+            // Another transaction holds the student's row lock for two lock timeouts
+            long holdMillis = 2 * H2TestConfig.LOCK_TIMEOUT_MILLIS;
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+                connection.setAutoCommit(false);
+                try (PreparedStatement lock = connection.prepareStatement(
+                        "SELECT * FROM students WHERE student_id = ? FOR UPDATE")) {
+                    lock.setLong(1, studentId);
+                    lock.executeQuery().close();
+                }
+                Future<PaymentReceipt> payment = executor.submit(
+                        () -> feeService.processPayment(studentId, PAYMENT, "Instalment"));
+                Thread.sleep(holdMillis);
+                connection.rollback();
+
+                // A single attempt gives up on the lock after one timeout, so
+                // succeeding after the lock was released means it was retried
+                assertEquals(-PAYMENT, payment.get(1, TimeUnit.MINUTES).getBalance());
+            } finally {
+                executor.shutdown();
+            }
+            assertEquals(PAYMENT, studentService.getStudent(studentId).getTotalPaid());
+            assertEquals(PAYMENT, sumOfPayments(context, studentId, "PAYMENT"));
+        }
+    }
+
+    // SUM(amount) of the student's payments table rows of one type
+    private static long sumOfPayments(AnnotationConfigApplicationContext context, Long studentId, String type) {
+        SessionFactory sessionFactory = context.getBean(SessionFactory.class);
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        Number sum = transaction.execute(status -> (Number) sessionFactory.getCurrentSession()
+                .createNativeQuery("SELECT COALESCE(SUM(amount), 0) FROM payments " +
+                        "WHERE student_id = :studentId AND payment_type = :type")
+                .setParameter("studentId", studentId)
+                .setParameter("type", type)
+                .uniqueResult());
+        return sum.longValue();
+    }
+}
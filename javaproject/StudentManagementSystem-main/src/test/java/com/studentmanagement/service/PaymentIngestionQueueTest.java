@@ -0,0 +1,136 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.config.H2TestConfig;
+import com.studentmanagement.dto.PaymentReceipt;
+import com.studentmanagement.model.Student;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The ingestion queue applies each student's postings in submission order,
+ * commits what arrives together as one transaction, fails only the bad
+ * posting of a group, honours idempotency keys and drains on shutdown.
+ */
+class PaymentIngestionQueueTest {
+
+    // Long enough that everything a test submits lands in one group
+    private static final long LINGER_MILLIS = 500;
+    private static final long PAYMENT = 1_000_00L;
+
+    private AnnotationConfigApplicationContext context;
+    private PaymentIngestionQueue queue;
+    private Statistics statistics;
+    private List<Long> studentIds;
+
+    @BeforeEach
+    void startContext() {
+        context = new AnnotationConfigApplicationContext(H2TestConfig.class);
+        queue = context.getBean(PaymentIngestionQueue.class);
+        queue.setPartitions(1);
+        queue.setMaxLingerMillis(LINGER_MILLIS);
+
+        StudentService studentService = context.getBean(StudentService.class);
+        for (int s = 1; s <= 3; s++) {
+            studentService.addStudent("Student " + s, "student" + s + "@example.com");
+        }
+        studentIds = new ArrayList<>();
+        for (Student student : studentService.getAllStudents()) {
+            studentIds.add(student.getStudentId());
+        }
+        statistics = context.getBean(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void closeContext() {
+        context.close();
+    }
+
+    @Test
+    void appliesEachStudentsPostingsInOrderInOneCommit() throws Exception {
+        // Each refund is only valid once the payment before it has been applied
+        List<List<CompletableFuture<PaymentReceipt>>> postings = new ArrayList<>();
+        for (Long studentId : studentIds) {
+            List<CompletableFuture<PaymentReceipt>> ofStudent = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                ofStudent.add(queue.submitPayment(studentId, PAYMENT, "Instalment " + i));
+                ofStudent.add(queue.submitRefund(studentId, PAYMENT, "Reversal " + i));
+            }
+            postings.add(ofStudent);
+        }
+
+        for (List<CompletableFuture<PaymentReceipt>> ofStudent : postings) {
+            for (int i = 0; i < ofStudent.size(); i++) {
+                long expectedBalance = i % 2 == 0 ? -PAYMENT : 0;
+                assertEquals(expectedBalance, ofStudent.get(i).get(1, TimeUnit.MINUTES).getBalance());
+            }
+        }
+        assertEquals(1, statistics.getSuccessfulTransactionCount());
+    }
+
+    @Test
+    void failsOnlyTheBadPostingOfAGroup() throws Exception {
+        CompletableFuture<PaymentReceipt> first = queue.submitPayment(studentIds.get(0), PAYMENT, "Instalment");
+        CompletableFuture<PaymentReceipt> unknown = queue.submitPayment(-1L, PAYMENT, "Instalment");
+        CompletableFuture<PaymentReceipt> tooLarge = queue.submitRefund(studentIds.get(1), PAYMENT, "Reversal");
+        CompletableFuture<PaymentReceipt> last = queue.submitPayment(studentIds.get(2), PAYMENT, "Instalment");
+
+        assertEquals(-PAYMENT, first.get(1, TimeUnit.MINUTES).getBalance());
+        assertEquals(-PAYMENT, last.get(1, TimeUnit.MINUTES).getBalance());
+        ExecutionException notFound = assertThrows(ExecutionException.class, () -> unknown.get(1, TimeUnit.MINUTES));
+        assertInstanceOf(NotFoundException.class, notFound.getCause());
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> tooLarge.get(1, TimeUnit.MINUTES));
+        assertTrue(rejected.getCause().getMessage().startsWith("Refund amount exceeds"));
+    }
+
+    @Test
+    void repeatedIdempotencyKeyPostsOnce() throws Exception {
+        Long studentId = studentIds.get(0);
+        CompletableFuture<PaymentReceipt> original = queue.submitPayment(studentId, PAYMENT, "Instalment", "gw-1");
+        CompletableFuture<PaymentReceipt> retry = queue.submitPayment(studentId, PAYMENT, "Instalment", "gw-1");
+        CompletableFuture<PaymentReceipt> misuse = queue.submitPayment(studentId, 2 * PAYMENT, "Instalment", "gw-1");
+
+        PaymentReceipt receipt = original.get(1, TimeUnit.MINUTES);
+        assertFalse(receipt.isDuplicate());
+        assertTrue(retry.get(1, TimeUnit.MINUTES).isDuplicate());
+        assertEquals(receipt.getPayment().getPaymentId(), retry.get().getPayment().getPaymentId());
+        ExecutionException mismatch = assertThrows(ExecutionException.class, () -> misuse.get(1, TimeUnit.MINUTES));
+        assertTrue(mismatch.getCause().getMessage().contains("already used for a different posting"));
+
+        // A retry after the commit is answered from memory
+        assertTrue(queue.submitPayment(studentId, PAYMENT, "Instalment", "gw-1").get(1, TimeUnit.MINUTES).isDuplicate());
+        assertEquals(PAYMENT, context.getBean(StudentService.class).getStudent(studentId).getTotalPaid());
+    }
+
+    @Test
+    void shutdownCommitsWhatIsQueued() throws Exception {
+        List<CompletableFuture<PaymentReceipt>> postings = new ArrayList<>();
+        for (Long studentId : studentIds) {
+            postings.add(queue.submitPayment(studentId, PAYMENT, "Instalment"));
+        }
+
+        context.close();
+
+        for (CompletableFuture<PaymentReceipt> posting : postings) {
+            assertTrue(posting.isDone());
+            assertEquals(-PAYMENT, posting.get().getBalance());
+        }
+        assertTrue(queue.submitPayment(studentIds.get(0), PAYMENT, "Too late").isCompletedExceptionally());
+    }
+}
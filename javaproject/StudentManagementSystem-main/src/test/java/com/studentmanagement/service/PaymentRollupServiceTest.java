@@ -0,0 +1,90 @@
+package com.studentmanagement.service;
+
+import com.studentmanagement.config.H2TestConfig;
+import com.studentmanagement.model.Course;
+import com.studentmanagement.model.PaymentDailyRollup;
+import com.studentmanagement.model.Student;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The rollup kept up by postings and the one a rebuild computes agree, with
+ * revenue staying under the course a payment was made in.
+ */
+class PaymentRollupServiceTest {
+
+    private static final long PAYMENT = 1_000_00L;
+
+    private AnnotationConfigApplicationContext context;
+    private StudentService studentService;
+    private FeeService feeService;
+    private PaymentRollupService paymentRollupService;
+
+    @BeforeEach
+    void startContext() {
+        context = new AnnotationConfigApplicationContext(H2TestConfig.class);
+        studentService = context.getBean(StudentService.class);
+        feeService = context.getBean(FeeService.class);
+        paymentRollupService = context.getBean(PaymentRollupService.class);
+    }
+
+    @AfterEach
+    void closeContext() {
+        context.close();
+    }
+
+    @Test
+    void rebuildMatchesPostingsAcrossReEnrolmentAndDeletion() {
+        CourseService courseService = context.getBean(CourseService.class);
+        courseService.addCourse("Java", 6, 45_000_00L);
+        courseService.addCourse("Python", 5, 40_000_00L);
+        List<Course> courses = courseService.getAllCourses();
+        Long java = courses.get(0).getCourseId();
+        Long python = courses.get(1).getCourseId();
+
+        studentService.addStudent("Asha", "asha@example.com");
+        studentService.addStudent("Ravi", "ravi@example.com");
+        List<Student> students = studentService.getAllStudents();
+        Long asha = students.get(0).getStudentId();
+        Long ravi = students.get(1).getStudentId();
+
+        // Asha pays in Java, moves to Python and pays there too
+        studentService.enrollStudentInCourse(asha, java);
+        feeService.processPayment(asha, PAYMENT, "First installment");
+        studentService.enrollStudentInCourse(asha, python);
+        feeService.processPayment(asha, 2 * PAYMENT, "Second installment");
+        // Ravi pays in Java and is then deleted with their payments
+        studentService.enrollStudentInCourse(ravi, java);
+        feeService.processPayment(ravi, 4 * PAYMENT, "Full payment");
+        feeService.processRefund(ravi, PAYMENT, "Discount");
+        studentService.deleteStudent(ravi);
+
+        LocalDate today = LocalDate.now();
+        List<String> posted = rollup(today);
+        assertEquals(List.of(
+                today + " " + java + " PAYMENT 1 " + PAYMENT,
+                today + " " + python + " PAYMENT 1 " + 2 * PAYMENT), posted);
+
+        paymentRollupService.rebuild(today, today);
+        assertEquals(posted, rollup(today));
+    }
+
+    // The day's rollup rows as "date course type count amount", in key order
+    private List<String> rollup(LocalDate day) {
+        List<String> rows = new ArrayList<>();
+        for (PaymentDailyRollup row : paymentRollupService.getDailyRollup(day, day)) {
+            rows.add(row.getRollupDate() + " " + row.getCourseId() + " " + row.getPaymentType() + " " +
+                    row.getPaymentCount() + " " + row.getTotalAmount());
+        }
+        rows.sort(null);
+        return rows;
+    }
+}